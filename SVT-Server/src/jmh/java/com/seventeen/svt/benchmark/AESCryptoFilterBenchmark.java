@@ -0,0 +1,112 @@
+package com.seventeen.svt.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.seventeen.svt.common.config.AESConfig;
+import com.seventeen.svt.common.config.RequestBodyConfig;
+import com.seventeen.svt.common.filter.AESCryptoFilter;
+import com.seventeen.svt.common.filter.EncryptionPolicyResolver;
+import com.seventeen.svt.common.filter.RouteClassifier;
+import com.seventeen.svt.common.util.AESUtils;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.support.StaticApplicationContext;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.util.StreamUtils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * AES加解密过滤器基准测试
+ * 通过完整的过滤器调用测量请求解密（processRequest）和响应加密（processResponse/流式加密）路径
+ *
+ * 说明：
+ * - 请求路径：加密POST请求，过滤器链读取解密后的请求体，不产生响应
+ * - 响应路径：声明加密的GET请求，过滤器链写出明文JSON，由过滤器加密输出
+ * - 请求体受 RequestWrapper 10MB 上限约束，最大档位取7MB明文（加密信封约9.4MB）
+ * - 超过1MB的加密信封按默认配置溢出到临时文件，最大两档同时覆盖溢出路径
+ *
+ * @author SEVENTEEN
+ * @since 2026-10-17
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "--enable-preview")
+@State(Scope.Benchmark)
+public class AESCryptoFilterBenchmark {
+
+    private static final String API_PATH = "/api/system/user/list";
+
+    @Param({"1024", "65536", "1048576", "7340032"})
+    private int payloadSize;
+
+    /**
+     * 响应加密方式：流式或缓冲
+     */
+    @Param({"true", "false"})
+    private boolean streaming;
+
+    private AESCryptoFilter filter;
+    private byte[] plainBody;
+    private byte[] encryptedBody;
+    private FilterChain readBodyChain;
+    private FilterChain writeBodyChain;
+
+    @Setup
+    public void setup() throws Exception {
+        AESConfig config = BenchmarkSupport.aesConfig();
+        config.setStreaming(streaming);
+        AESUtils aesUtils = BenchmarkSupport.aesUtils(config);
+        ObjectMapper objectMapper = new ObjectMapper();
+
+        RouteClassifier routeClassifier = new RouteClassifier(BenchmarkSupport.securityPathConfig(), "");
+        EncryptionPolicyResolver policyResolver = new EncryptionPolicyResolver(new StaticApplicationContext(), "");
+        filter = new AESCryptoFilter(config, aesUtils, objectMapper, routeClassifier, policyResolver,
+                new RequestBodyConfig());
+
+        String payload = BenchmarkSupport.jsonPayload(payloadSize);
+        plainBody = payload.getBytes(StandardCharsets.UTF_8);
+        encryptedBody = objectMapper.writeValueAsBytes(aesUtils.encryptForAPI(payload));
+
+        readBodyChain = (request, response) -> StreamUtils.copyToByteArray(request.getInputStream());
+        writeBodyChain = (request, response) -> {
+            response.setContentType("application/json;charset=UTF-8");
+            response.getOutputStream().write(plainBody);
+        };
+    }
+
+    @Benchmark
+    public MockHttpServletResponse decryptRequest() throws ServletException, IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", API_PATH);
+        request.addHeader("X-Encrypted", "true");
+        request.setContentType("application/json");
+        request.setContent(encryptedBody);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, readBodyChain);
+        return response;
+    }
+
+    @Benchmark
+    public MockHttpServletResponse encryptResponse() throws ServletException, IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", API_PATH);
+        request.addHeader("X-Encrypted", "true");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, writeBodyChain);
+        return response;
+    }
+}
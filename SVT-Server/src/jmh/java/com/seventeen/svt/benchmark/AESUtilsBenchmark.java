@@ -0,0 +1,72 @@
+package com.seventeen.svt.benchmark;
+
+import com.seventeen.svt.common.exception.BusinessException;
+import com.seventeen.svt.common.util.AESUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * AES加解密基准测试
+ * 覆盖底层 encrypt/decrypt 以及过滤器使用的 encryptForAPI/decryptFromAPI
+ *
+ * @author SEVENTEEN
+ * @since 2026-10-17
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "--enable-preview")
+@State(Scope.Benchmark)
+public class AESUtilsBenchmark {
+
+    @Param({"1024", "65536", "1048576", "10485760"})
+    private int payloadSize;
+
+    private AESUtils aesUtils;
+    private String plainText;
+    private String iv;
+    private String cipherText;
+    private Map<String, Object> envelope;
+
+    @Setup
+    public void setup() throws BusinessException {
+        aesUtils = BenchmarkSupport.aesUtils(BenchmarkSupport.aesConfig());
+        plainText = BenchmarkSupport.jsonPayload(payloadSize);
+        iv = aesUtils.generateIV();
+        cipherText = aesUtils.encrypt(plainText, iv);
+        envelope = aesUtils.encryptForAPI(plainText);
+    }
+
+    @Benchmark
+    public String encrypt() throws BusinessException {
+        return aesUtils.encrypt(plainText, iv);
+    }
+
+    @Benchmark
+    public String decrypt() throws BusinessException {
+        return aesUtils.decrypt(cipherText, iv);
+    }
+
+    @Benchmark
+    public Map<String, Object> encryptForAPI() throws BusinessException {
+        return aesUtils.encryptForAPI(plainText);
+    }
+
+    @Benchmark
+    public String decryptFromAPI() throws BusinessException {
+        return aesUtils.decryptFromAPI(envelope);
+    }
+}
@@ -0,0 +1,112 @@
+package com.seventeen.svt.benchmark;
+
+import com.seventeen.svt.common.config.AESConfig;
+import com.seventeen.svt.common.config.SecurityPathConfig;
+import com.seventeen.svt.common.util.AESUtils;
+import com.seventeen.svt.frame.security.utils.JwtUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Random;
+
+/**
+ * 基准测试公共工具
+ * 构造与生产配置一致的加密组件和固定大小的JSON负载
+ *
+ * @author SEVENTEEN
+ * @since 2026-10-17
+ */
+final class BenchmarkSupport {
+
+    /**
+     * 固定的基准测试密钥（32字节，AES-256），仅用于本地测量
+     */
+    static final String AES_KEY = Base64.getEncoder().encodeToString(
+            "SVT-BENCHMARK-AES-KEY-32-BYTES!!".getBytes(StandardCharsets.UTF_8));
+
+    /**
+     * SM4密钥（16字节）
+     */
+    static final String SM4_KEY = "SVT2025SM4KEY128";
+
+    /**
+     * JWT密钥（32字节，HS256最低要求）
+     */
+    static final String JWT_SECRET = "SVT-BENCHMARK-JWT-SECRET-32BYTES";
+
+    private BenchmarkSupport() {
+    }
+
+    /**
+     * 基准测试用AES配置
+     * 放宽数据大小上限和时间戳容差，关闭防重放检查，使同一信封可以在整个测量期间重复解密
+     */
+    static AESConfig aesConfig() {
+        AESConfig config = new AESConfig();
+        config.setKey(AES_KEY);
+        config.setMaxDataSize(64L * 1024 * 1024);
+        config.setTimestampTolerance(24L * 60 * 60 * 1000);
+        config.setReplayProtection(false);
+        return config;
+    }
+
+    static AESUtils aesUtils(AESConfig config) {
+        AESUtils aesUtils = new AESUtils(config);
+        aesUtils.init();
+        return aesUtils;
+    }
+
+    /**
+     * 按生产配置初始化JWT工具（有效期1天，签发者与application.yml一致）
+     */
+    static JwtUtils jwtUtils() {
+        JwtUtils jwtUtils = new JwtUtils();
+        ReflectionTestUtils.setField(jwtUtils, "secret", JWT_SECRET);
+        ReflectionTestUtils.setField(jwtUtils, "expiration", 24L * 60 * 60);
+        ReflectionTestUtils.setField(jwtUtils, "issuer", "svt-issuer");
+        ReflectionTestUtils.setField(jwtUtils, "verifiedCacheMaximumSize", 10000L);
+        ReflectionTestUtils.invokeMethod(jwtUtils, "init");
+        return jwtUtils;
+    }
+
+    /**
+     * 初始化安全路径白名单（无上下文路径）
+     */
+    static SecurityPathConfig securityPathConfig() {
+        SecurityPathConfig config = new SecurityPathConfig();
+        ReflectionTestUtils.setField(config, "contextPath", "");
+        config.init();
+        return config;
+    }
+
+    /**
+     * 生成指定字节数的JSON响应体，结构接近列表查询接口的返回值
+     * 使用固定种子，保证每次运行的负载内容（及压缩率）一致；内容为ASCII，字节数不超过指定大小
+     */
+    static String jsonPayload(int size) {
+        Random random = new Random(17);
+        StringBuilder builder = new StringBuilder(size);
+        builder.append("{\"code\":200,\"message\":\"success\",\"data\":[");
+        StringBuilder item = new StringBuilder(128);
+        int id = 0;
+        while (true) {
+            item.setLength(0);
+            if (id > 0) {
+                item.append(',');
+            }
+            item.append("{\"id\":").append(id)
+                    .append(",\"userName\":\"user").append(random.nextInt(100000))
+                    .append("\",\"email\":\"user").append(random.nextInt(100000)).append("@example.com")
+                    .append("\",\"status\":").append(random.nextInt(2))
+                    .append(",\"remark\":\"").append(Long.toHexString(random.nextLong())).append("\"}");
+            if (builder.length() + item.length() + 2 > size) {
+                break;
+            }
+            builder.append(item);
+            id++;
+        }
+        builder.append("]}");
+        return builder.toString();
+    }
+}
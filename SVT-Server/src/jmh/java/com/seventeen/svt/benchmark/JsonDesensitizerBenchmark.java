@@ -0,0 +1,88 @@
+package com.seventeen.svt.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.seventeen.svt.common.util.JsonDesensitizer;
+import com.seventeen.svt.common.util.SensitiveUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JSON脱敏基准测试
+ * 对比原正则链（5次 String.replaceAll，每次重新编译正则并扫描全文）与 {@link JsonDesensitizer} 单次流式脱敏，
+ * pretty 组对应请求日志的完整路径（脱敏后再美化输出）
+ *
+ * @author SEVENTEEN
+ * @since 2026-10-17
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "--enable-preview")
+@State(Scope.Benchmark)
+public class JsonDesensitizerBenchmark {
+
+    @Param({"1024", "102400"})
+    private int payloadSize;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final JsonDesensitizer desensitizer = new JsonDesensitizer(JsonDesensitizer.DEFAULT_FIELDS);
+
+    private String json;
+    private byte[] jsonBytes;
+
+    @Setup
+    public void setup() {
+        json = BenchmarkSupport.jsonPayload(payloadSize);
+        jsonBytes = json.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public String regexChain() {
+        return legacyDesensitize(json);
+    }
+
+    @Benchmark
+    public String streaming() {
+        return SensitiveUtil.desensitizeJsonString(json);
+    }
+
+    @Benchmark
+    public String regexChainPretty() throws IOException {
+        Object value = objectMapper.readValue(legacyDesensitize(json), Object.class);
+        return objectMapper.writerWithDefaultPrettyPrinter().writeValueAsString(value);
+    }
+
+    @Benchmark
+    public String streamingPretty() throws IOException {
+        StringWriter out = new StringWriter(jsonBytes.length * 2);
+        desensitizer.write(jsonBytes, 0, jsonBytes.length, out, true);
+        return out.toString();
+    }
+
+    /**
+     * 原实现：正则链脱敏
+     */
+    private static String legacyDesensitize(String jsonString) {
+        return jsonString
+                .replaceAll("(?i)(\"?(?:password|pwd|pass|payPassword|confirmPassword)\"?\\s*[:=]\\s*\"?)[^,\\s\"\\}]+", "$1\"****\"")
+                .replaceAll("(?i)(\"?(?:phone|mobile|tel)\"?\\s*[:=]\\s*\"?)(1[3-9]\\d)(\\d{4})(\\d{4})", "$1$2****$4")
+                .replaceAll("(?i)(\"?(?:email|mail)\"?\\s*[:=]\\s*\"?)([^@\"\\s]{1,2})[^@\"\\s]*(@[^\"\\s,\\}]+)", "$1$2***$3")
+                .replaceAll("(?i)(\"?(?:idcard|id_card|identity)\"?\\s*[:=]\\s*\"?)(\\d{6})\\d{8}(\\d{4})", "$1$2********$3")
+                .replaceAll("(?i)(\"?(?:name|realName|userName)\"?\\s*[:=]\\s*\"?)([\\u4e00-\\u9fa5])([\\u4e00-\\u9fa5]+)", "$1$2**");
+    }
+}
@@ -0,0 +1,66 @@
+package com.seventeen.svt.benchmark;
+
+import com.seventeen.svt.frame.security.config.CustomAuthentication;
+import com.seventeen.svt.frame.security.utils.JwtUtils;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JWT验签基准测试
+ * 配合 -prof gc 查看每次验签的分配量（gc.alloc.rate.norm）：
+ * - perCallParser：原实现，每次调用重新创建密钥和解析器
+ * - sharedParser：共用启动时创建的密钥和解析器，每次仍完整解析和验签
+ * - verifiedCache：认证过滤器的实际路径，同一Token命中已验证缓存，只计算摘要
+ *
+ * @author SEVENTEEN
+ * @since 2026-10-17
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "--enable-preview")
+@State(Scope.Benchmark)
+public class JwtUtilsBenchmark {
+
+    private JwtUtils jwtUtils;
+    private String token;
+
+    @Setup
+    public void setup() {
+        jwtUtils = BenchmarkSupport.jwtUtils();
+        token = jwtUtils.generateToken(new CustomAuthentication("10000001", "benchmark-user"));
+    }
+
+    @Benchmark
+    public Claims perCallParser() {
+        return Jwts.parserBuilder()
+                .setSigningKey(Keys.hmacShaKeyFor(BenchmarkSupport.JWT_SECRET.getBytes()))
+                .build()
+                .parseClaimsJws(token)
+                .getBody();
+    }
+
+    @Benchmark
+    public boolean sharedParser() {
+        return jwtUtils.isValidSystemToken(token);
+    }
+
+    @Benchmark
+    public JwtUtils.VerifiedToken verifiedCache() {
+        return jwtUtils.verifyToken(token);
+    }
+}
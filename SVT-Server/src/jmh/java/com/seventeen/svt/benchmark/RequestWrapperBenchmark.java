@@ -0,0 +1,82 @@
+package com.seventeen.svt.benchmark;
+
+import com.seventeen.svt.common.config.RequestBodyConfig;
+import com.seventeen.svt.common.util.RequestBodyHolder;
+import com.seventeen.svt.common.util.RequestWrapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 请求包装器基准测试
+ * 测量包装请求、缓存请求体以及按字符串读取请求体的开销
+ * 按默认配置，超过1MB的请求体溢出到临时文件（10MB档位覆盖溢出路径）
+ *
+ * @author SEVENTEEN
+ * @since 2026-10-17
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "--enable-preview")
+@State(Scope.Benchmark)
+public class RequestWrapperBenchmark {
+
+    @Param({"1024", "65536", "1048576", "10485760"})
+    private int payloadSize;
+
+    private byte[] body;
+    private RequestBodyConfig config;
+
+    @Setup
+    public void setup() {
+        body = BenchmarkSupport.jsonPayload(payloadSize).getBytes(StandardCharsets.UTF_8);
+        config = new RequestBodyConfig();
+    }
+
+    /**
+     * 只包装不读取（没有环节访问请求体时的开销）
+     */
+    @Benchmark
+    public RequestWrapper construct() {
+        return new RequestWrapper(newRequest(), config);
+    }
+
+    @Benchmark
+    public RequestBodyHolder constructAndCapture() throws IOException {
+        RequestBodyHolder body = new RequestWrapper(newRequest(), config).getBodyHolder();
+        body.capture();
+        // 与请求结束时一致，删除溢出的临时文件
+        body.release();
+        return body;
+    }
+
+    @Benchmark
+    public String constructAndGetBody() {
+        return new RequestWrapper(newRequest(), config).getBody();
+    }
+
+    /**
+     * MockHttpServletRequest 的输入流只能读取一次，每次调用创建新请求（不复制请求体）
+     */
+    private MockHttpServletRequest newRequest() {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/system/user/list");
+        request.setContentType("application/json");
+        request.setContent(body);
+        return request;
+    }
+}
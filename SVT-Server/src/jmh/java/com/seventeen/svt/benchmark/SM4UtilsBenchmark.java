@@ -0,0 +1,53 @@
+package com.seventeen.svt.benchmark;
+
+import com.seventeen.svt.common.util.SM4Utils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * SM4 CBC加解密基准测试
+ *
+ * @author SEVENTEEN
+ * @since 2026-10-17
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "--enable-preview")
+@State(Scope.Benchmark)
+public class SM4UtilsBenchmark {
+
+    @Param({"1024", "65536", "1048576", "10485760"})
+    private int payloadSize;
+
+    private String plainText;
+    private String cipherText;
+
+    @Setup
+    public void setup() {
+        plainText = BenchmarkSupport.jsonPayload(payloadSize);
+        cipherText = SM4Utils.encryptCBC(plainText, BenchmarkSupport.SM4_KEY);
+    }
+
+    @Benchmark
+    public String encryptCBC() {
+        return SM4Utils.encryptCBC(plainText, BenchmarkSupport.SM4_KEY);
+    }
+
+    @Benchmark
+    public String decryptCBC() {
+        return SM4Utils.decryptCBC(cipherText, BenchmarkSupport.SM4_KEY);
+    }
+}
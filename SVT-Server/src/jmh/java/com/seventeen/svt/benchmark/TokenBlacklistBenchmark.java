@@ -0,0 +1,78 @@
+package com.seventeen.svt.benchmark;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.seventeen.svt.frame.security.config.CustomAuthentication;
+import com.seventeen.svt.frame.security.utils.JwtUtils;
+import com.seventeen.svt.frame.security.utils.TokenBlacklist;
+import com.seventeen.svt.frame.security.utils.TokenDigest;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token黑名单基准测试
+ * 黑名单中预置指定数量的已吊销Token，测量认证过滤器最常见的情况（Token不在黑名单中）的检查耗时：
+ * - stringKeyCache：原实现，以Token原文为键的Caffeine缓存，每次查找计算并比较整个Token字符串
+ * - digestBlacklist：按摘要索引的黑名单，摘要取自验签结果，布隆过滤器判定后直接返回
+ *
+ * @author SEVENTEEN
+ * @since 2026-10-17
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "--enable-preview")
+@State(Scope.Benchmark)
+public class TokenBlacklistBenchmark {
+
+    @Param({"1000", "100000"})
+    private int revokedTokens;
+
+    private Cache<String, String> stringKeyCache;
+    private TokenBlacklist blacklist;
+
+    private String token;
+    private TokenDigest digest;
+
+    @Setup
+    public void setup() {
+        JwtUtils jwtUtils = BenchmarkSupport.jwtUtils();
+        stringKeyCache = Caffeine.newBuilder()
+                .expireAfterWrite(24, TimeUnit.HOURS)
+                .build();
+        blacklist = new TokenBlacklist();
+
+        long now = System.currentTimeMillis();
+        long expiration = now + TimeUnit.HOURS.toMillis(24);
+        for (int i = 0; i < revokedTokens; i++) {
+            String revoked = jwtUtils.generateToken(new CustomAuthentication(String.valueOf(i), "revoked-" + i));
+            stringKeyCache.put(revoked, "INVALID");
+            blacklist.add(TokenDigest.of(revoked), expiration, now);
+        }
+
+        token = jwtUtils.generateToken(new CustomAuthentication("10000001", "benchmark-user"));
+        digest = jwtUtils.verifyToken(token).getDigest();
+    }
+
+    @Benchmark
+    public boolean stringKeyCache() {
+        return stringKeyCache.getIfPresent(token) != null;
+    }
+
+    @Benchmark
+    public boolean digestBlacklist() {
+        return blacklist.contains(digest, System.currentTimeMillis());
+    }
+}
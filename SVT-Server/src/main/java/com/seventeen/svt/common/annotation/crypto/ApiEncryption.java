@@ -0,0 +1,18 @@
+package com.seventeen.svt.common.annotation.crypto;
+
+import java.lang.annotation.*;
+
+/**
+ * 接口加密策略
+ * 可标注在Controller类或方法上，方法上的配置优先
+ * 启动时解析为路径查找表，请求处理时不做反射
+ */
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface ApiEncryption {
+    /**
+     * 加密策略
+     */
+    EncryptionPolicy value() default EncryptionPolicy.OPTIONAL;
+}
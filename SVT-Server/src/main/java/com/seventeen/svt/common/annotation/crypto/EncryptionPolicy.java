@@ -0,0 +1,23 @@
+package com.seventeen.svt.common.annotation.crypto;
+
+/**
+ * 接口加密策略
+ */
+public enum EncryptionPolicy {
+    /**
+     * 必须加密：拒绝未声明 X-Encrypted 的请求
+     * 适用于登录、修改密码等携带敏感数据的接口
+     */
+    REQUIRE,
+
+    /**
+     * 跟随客户端（默认）：客户端声明 X-Encrypted 时解密请求、加密响应
+     */
+    OPTIONAL,
+
+    /**
+     * 跳过响应加密：即使客户端声明 X-Encrypted 也返回明文响应
+     * 适用于菜单树、码值列表等体积大且不敏感的接口；加密的请求体仍会被解密
+     */
+    SKIP
+}
@@ -1,5 +1,6 @@
 package com.seventeen.svt.common.config;
 
+import com.seventeen.svt.common.util.AESMode;
 import lombok.Data;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.context.properties.ConfigurationProperties;
@@ -31,9 +32,10 @@ public class AESConfig {
     private String key = "SVT-DEFAULT-AES-KEY-256BITS-FOR-DEV";
 
     /**
-     * 加密算法
+     * 加密模式：CBC（默认，兼容现有客户端）或 GCM（认证加密）
+     * 同时决定响应的加密模式和请求可接受的模式，请求信封的模式标识与此配置不一致时拒绝解密（防止降级）
      */
-    private String algorithm = "AES/CBC/PKCS5Padding";
+    private AESMode mode = AESMode.CBC;
 
     /**
      * 密钥长度（位）
@@ -60,6 +62,43 @@ public class AESConfig {
      */
     private long timestampTolerance = 600000L; // 10分钟
 
+    /**
+     * 是否启用流式响应加密
+     * 启用后响应体边写边加密，直接输出到客户端，不再缓存完整响应
+     */
+    private boolean streaming = true;
+
+    /**
+     * Cipher实例池最大空闲数
+     */
+    private int cipherPoolSize = 64;
+
+    /**
+     * 是否启用响应压缩（客户端通过 X-Encrypted-Encoding: gzip 声明支持时生效）
+     * 加密后的数据无法再被HTTP层压缩，因此在加密前对明文进行GZIP压缩
+     */
+    private boolean compressionEnabled = true;
+
+    /**
+     * 压缩阈值（字节），明文达到该大小才压缩，小响应压缩收益低于开销
+     */
+    private int compressionThreshold = 4096;
+
+    /**
+     * 是否启用防重放检查（同一IV/nonce在时间戳容差窗口内只允许使用一次）
+     */
+    private boolean replayProtection = true;
+
+    /**
+     * 防重放缓存容量：每个时间戳容差窗口内预期的加密请求数
+     * 每代布隆过滤器约占 容量 × 3.6 字节（误判率1e-6时），共保留3代
+     */
+    private int replayCapacity = 1000000;
+
+    /**
+     * 防重放缓存误判率（误判时正常请求会被当作重放拒绝）
+     */
+    private double replayFalsePositiveRate = 1e-6;
 
 
     /**
@@ -74,8 +113,8 @@ public class AESConfig {
      */
     public String getConfigSummary() {
         return String.format(
-            "AES[enabled=%s, algorithm=%s, keyLength=%d, maxDataSize=%dMB]",
-            enabled, algorithm, keyLength, maxDataSize / 1024 / 1024
+            "AES[enabled=%s, mode=%s, keyLength=%d, maxDataSize=%dMB, replayProtection=%s]",
+            enabled, mode, keyLength, maxDataSize / 1024 / 1024, replayProtection
         );
     }
 
@@ -0,0 +1,35 @@
+package com.seventeen.svt.common.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 密码哈希配置类
+ * 控制 {@link com.seventeen.svt.frame.security.utils.PasswordHashExecutor} 的并发度和排队策略
+ *
+ * @author SEVENTEEN
+ * @since 2026-10-17
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "svt.security.password-hash")
+public class PasswordHashConfig {
+
+    /**
+     * 同时进行的密码校验数，0表示按CPU核数
+     * Argon2是CPU和内存密集的计算，超过核数的并发只会拉长每次校验的耗时
+     */
+    private int concurrency = 0;
+
+    /**
+     * 等待队列容量，队列满时立即返回503
+     * 排队请求仍占用Web容器线程，容量决定登录最多占用的线程数（并发度 + 队列容量）
+     */
+    private int queueCapacity = 32;
+
+    /**
+     * 排队时间上限（毫秒），超时仍未开始校验的请求返回503，不再计算哈希
+     */
+    private long queueTimeout = 2000;
+}
@@ -0,0 +1,34 @@
+package com.seventeen.svt.common.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 请求体缓存配置类
+ * 控制 {@link com.seventeen.svt.common.util.RequestWrapper} 缓存请求体的上限和溢出策略
+ *
+ * @author SEVENTEEN
+ * @since 2026-10-17
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "svt.request.body")
+public class RequestBodyConfig {
+
+    /**
+     * 请求体大小上限（字节），默认10MB
+     */
+    private int maxSize = 10 * 1024 * 1024;
+
+    /**
+     * 溢出阈值（字节），默认1MB
+     * 超过阈值的请求体写入临时文件并按需从文件读取，不占用堆内存；临时文件在请求结束时删除
+     */
+    private int spillThreshold = 1024 * 1024;
+
+    /**
+     * 临时文件目录，为空时使用系统临时目录（java.io.tmpdir）
+     */
+    private String spillDirectory;
+}
@@ -0,0 +1,92 @@
+package com.seventeen.svt.common.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 请求日志配置类
+ * 控制 {@link com.seventeen.svt.common.util.RequestLogUtils} 的请求日志输出方式，
+ * 以及 {@link com.seventeen.svt.common.util.RequestLogPolicy} 按接口采样和记录请求体的策略
+ *
+ * @author SEVENTEEN
+ * @since 2026-10-17
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "svt.request.log")
+public class RequestLogConfig {
+
+    /**
+     * 是否异步输出请求日志
+     * 开启后请求线程只采集原始数据，脱敏、格式化和输出由后台线程完成
+     */
+    private boolean async = true;
+
+    /**
+     * 异步队列（环形缓冲区）容量，必须为2的幂，非2的幂时向上取整
+     * 队列满时丢弃新的请求日志，不阻塞请求线程
+     */
+    private int ringBufferSize = 4096;
+
+    /**
+     * 默认采样率（0~1），1表示记录全部请求，0表示只记录错误和慢请求
+     */
+    private double sampleRate = 1.0;
+
+    /**
+     * 默认是否记录请求体
+     */
+    private boolean logBody = true;
+
+    /**
+     * 默认请求体最大记录长度（字节），超出部分截断，0表示不限制
+     * 业务未读取的请求体只读取该长度内的前缀；为0时不读取，只记录声明的长度
+     */
+    private int maxBodySize = 10240;
+
+    /**
+     * 错误请求（响应状态码>=400、处理时抛出异常或返回业务异常结果）是否不受采样限制，始终记录
+     */
+    private boolean alwaysLogErrors = true;
+
+    /**
+     * 慢请求阈值（毫秒），处理耗时超过阈值的请求不受采样限制，始终记录；0表示不启用
+     */
+    private long slowThreshold = 1000L;
+
+    /**
+     * 按接口覆盖的日志策略，按配置顺序匹配，第一个命中的生效
+     */
+    private List<Route> routes = new ArrayList<>();
+
+    /**
+     * 接口日志策略，未配置的项沿用默认值
+     */
+    @Data
+    public static class Route {
+
+        /**
+         * 请求路径（不含上下文路径），支持路径变量和通配符，如 /api/auth/verify-user-status、/api/system/**
+         */
+        private String pattern;
+
+        /**
+         * 采样率（0~1）
+         */
+        private Double sampleRate;
+
+        /**
+         * 是否记录请求体
+         */
+        private Boolean logBody;
+
+        /**
+         * 请求体最大记录长度（字节），0表示不限制
+         */
+        private Integer maxBodySize;
+    }
+}
@@ -1,5 +1,7 @@
 package com.seventeen.svt.common.config;
 
+import com.seventeen.svt.common.annotation.audit.SensitiveStrategy;
+import com.seventeen.svt.common.util.JsonDesensitizer;
 import lombok.Data;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.context.properties.ConfigurationProperties;
@@ -7,6 +9,9 @@ import org.springframework.context.annotation.Configuration;
 
 import jakarta.annotation.PostConstruct;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
+
 /**
  * 敏感数据脱敏配置类
  * 统一管理脱敏相关配置
@@ -27,6 +32,12 @@ public class SensitiveConfig {
      */
     private boolean enabled = true;
 
+    /**
+     * JSON请求体/审计日志中按字段名脱敏的字段及策略（字段名不区分大小写）
+     * 配置项在默认字段（密码、手机号、邮箱、身份证号、姓名）的基础上追加或覆盖
+     */
+    private Map<String, SensitiveStrategy> jsonFields = new LinkedHashMap<>(JsonDesensitizer.DEFAULT_FIELDS);
+
     /**
      * 配置初始化
      */
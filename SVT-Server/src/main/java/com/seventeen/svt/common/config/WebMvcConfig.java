@@ -1,6 +1,8 @@
 package com.seventeen.svt.common.config;
 
 import com.seventeen.svt.common.interceptor.TraceIdInterceptor;
+import com.seventeen.svt.common.util.RequestLogPolicy;
+import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
@@ -13,8 +15,11 @@ import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
  * Web MVC 配置
  */
 @Configuration
+@RequiredArgsConstructor
 public class WebMvcConfig implements WebMvcConfigurer {
 
+    private final RequestLogPolicy requestLogPolicy;
+
     /**
      * 跨域配置
      */
@@ -109,7 +114,7 @@ public class WebMvcConfig implements WebMvcConfigurer {
 
     @Override
     public void addInterceptors(InterceptorRegistry registry) {
-        registry.addInterceptor(new TraceIdInterceptor())
+        registry.addInterceptor(new TraceIdInterceptor(requestLogPolicy))
                 .addPathPatterns("/**")
                 .excludePathPatterns("/error");
     }
@@ -3,6 +3,8 @@ package com.seventeen.svt.common.exception;
 import com.seventeen.svt.common.response.Result;
 import com.seventeen.svt.common.response.ResultCode;
 import com.seventeen.svt.common.util.MessageUtils;
+import com.seventeen.svt.common.util.RequestLogPolicy;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.ConstraintViolationException;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.core.annotation.Order;
@@ -29,10 +31,22 @@ public class GlobalExceptionHandler {
 
     /**
      * 处理自定义异常
+     * 以HTTP 200返回失败结果，记录到请求属性，采样率较低的接口也按错误请求记录请求日志
      */
     @ExceptionHandler(BusinessException.class)
-    public Result<?> handleBusinessException(BusinessException e) {
+    public Result<?> handleBusinessException(BusinessException e, HttpServletRequest request) {
         log.error("业务异常: {}", e.getMessage(), e);
+        RequestLogPolicy.recordHandledException(request, e);
+        return Result.fail(e.getCode(), e.getMessage());
+    }
+
+    /**
+     * 处理服务繁忙异常（饱和时频繁出现，不记录堆栈）
+     */
+    @ExceptionHandler(ServiceBusyException.class)
+    @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+    public Result<?> handleServiceBusyException(ServiceBusyException e) {
+        log.warn("服务繁忙: {}", e.getMessage());
         return Result.fail(e.getCode(), e.getMessage());
     }
 
@@ -0,0 +1,23 @@
+package com.seventeen.svt.common.exception;
+
+import com.seventeen.svt.common.response.ResultCode;
+
+/**
+ * 服务繁忙异常
+ * 受限资源（如密码哈希线程）饱和时抛出，响应HTTP 503，客户端稍后重试
+ * 饱和时会被频繁抛出，不填充堆栈
+ *
+ * @author SEVENTEEN
+ * @since 2026-10-17
+ */
+public class ServiceBusyException extends BusinessException {
+
+    public ServiceBusyException(String message) {
+        super(ResultCode.SERVICE_UNAVAILABLE, message);
+    }
+
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        return this;
+    }
+}
@@ -1,8 +1,13 @@
 package com.seventeen.svt.common.filter;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.seventeen.svt.common.annotation.crypto.EncryptionPolicy;
 import com.seventeen.svt.common.config.AESConfig;
+import com.seventeen.svt.common.config.RequestBodyConfig;
+import com.seventeen.svt.common.util.AESEnvelopeFormat;
+import com.seventeen.svt.common.util.AESEnvelopeOutputStream;
 import com.seventeen.svt.common.util.AESUtils;
+import com.seventeen.svt.common.util.RequestBodyHolder;
 import com.seventeen.svt.common.util.RequestWrapper;
 import jakarta.servlet.*;
 import jakarta.servlet.http.HttpServletRequest;
@@ -13,12 +18,17 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.core.annotation.Order;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
 import java.io.PrintWriter;
 import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * AES加密解密过滤器
@@ -27,7 +37,22 @@ import java.util.Map;
  * 执行顺序：
  * 1. 检查是否启用AES加密
  * 2. 请求解密：检查请求头X-Encrypted，解密请求体
- * 3. 响应加密：检查是否需要加密响应
+ * 3. 响应加密：检查是否需要加密响应（默认流式加密，边写边加密直接输出）
+ * 
+ * 异步请求（DeferredResult、Callable、Servlet异步I/O）：
+ * - 首次分派开启异步处理后，保存解密请求和加密响应包装器，当前线程直接返回
+ * - 后续异步分派沿用同一组包装器，最后一次分派结束时写出信封尾部
+ * - 业务直接调用AsyncContext.complete()时，须在完成前关闭输出流，关闭时写出信封尾部
+ * - 包装器的输入输出流支持ReadListener/WriteListener非阻塞读写，加密输出缓冲后按原始输出流的可写状态写出
+ * 
+ * 信封格式：
+ * - JSON信封（默认）：密文Base64编码
+ * - 二进制信封：请求 Content-Type / 响应 Accept 为 application/x-svt-encrypted 时使用，详见 {@link AESEnvelopeFormat}
+ * 
+ * 响应压缩：请求头 X-Encrypted-Encoding: gzip 声明客户端支持时，达到阈值的响应先压缩再加密
+ * 
+ * 接口策略：Controller上的 {@link com.seventeen.svt.common.annotation.crypto.ApiEncryption} 在启动时
+ * 解析为查找表（见 {@link EncryptionPolicyResolver}），REQUIRE拒绝明文请求，SKIP跳过响应加密
  * 
  * @author SEVENTEEN
  * @since 2025-06-17
@@ -36,68 +61,192 @@ import java.util.Map;
 @Component
 @Order(10) // 在RequestWrapperFilter(50)之前执行
 @RequiredArgsConstructor
-public class AESCryptoFilter implements Filter {
+public class AESCryptoFilter extends OncePerRequestFilter {
 
     private final AESConfig aesConfig;
     private final AESUtils aesUtils;
     private final ObjectMapper objectMapper;
+    private final RouteClassifier routeClassifier;
+    private final EncryptionPolicyResolver encryptionPolicyResolver;
+    private final RequestBodyConfig requestBodyConfig;
+
+    /**
+     * 客户端声明支持的加密前压缩算法
+     * 不复用Accept-Encoding：浏览器总会自动携带，而压缩标记需要客户端在解密后自行解压
+     */
+    private static final String ENCRYPTED_ENCODING_HEADER = "X-Encrypted-Encoding";
+
+    /**
+     * 请求属性名：异步请求的加解密状态
+     */
+    private static final String ASYNC_STATE_ATTRIBUTE = AESCryptoFilter.class.getName() + ".ASYNC_STATE";
+
+    /**
+     * 异步请求需要在最后一次分派结束时完成响应加密，因此异步分派也要经过本过滤器
+     */
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
 
     @Override
-    public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain) 
+    protected void doFilterInternal(HttpServletRequest httpRequest, HttpServletResponse httpResponse, FilterChain chain)
             throws IOException, ServletException {
+
+        // 异步分派：沿用首次分派的解密请求和加密响应
+        if (isAsyncDispatch(httpRequest)) {
+            doFilterAsyncDispatch(httpRequest, httpResponse, chain);
+            return;
+        }
         
         // 检查是否启用AES加密
         if (!aesConfig.isEnabled()) {
             log.debug("AES加密未启用，跳过处理");
-            chain.doFilter(request, response);
+            chain.doFilter(httpRequest, httpResponse);
             return;
         }
 
-        if (request instanceof HttpServletRequest && response instanceof HttpServletResponse) {
-            HttpServletRequest httpRequest = (HttpServletRequest) request;
-            HttpServletResponse httpResponse = (HttpServletResponse) response;
-            
-            log.debug("处理请求: {} {}", httpRequest.getMethod(), httpRequest.getRequestURI());
-            
-            // 检查是否是API请求
-            if (!isApiRequest(httpRequest.getRequestURI())) {
-                log.debug("非API请求，跳过AES处理: {}", httpRequest.getRequestURI());
-                chain.doFilter(request, response);
+        log.debug("处理请求: {} {}", httpRequest.getMethod(), httpRequest.getRequestURI());
+        
+        // 检查是否是API请求
+        RouteTag routeTag = routeClassifier.classify(httpRequest);
+        if (!routeTag.isApi()) {
+            log.debug("非API请求，跳过AES处理: {}", httpRequest.getRequestURI());
+            chain.doFilter(httpRequest, httpResponse);
+            return;
+        }
+
+        // 接口加密策略（启动时已解析，此处只做查表）
+        EncryptionPolicy policy = encryptionPolicyResolver.resolve(httpRequest);
+        if (policy == EncryptionPolicy.REQUIRE && !routeTag.isEncrypted() && !aesConfig.isDebug()) {
+            log.warn("接口要求加密传输，拒绝明文请求: {}", httpRequest.getRequestURI());
+            handleError(httpResponse, "该接口要求加密传输", 400);
+            return;
+        }
+
+        try {
+            // 处理请求解密
+            ServletRequest processedRequest = processRequest(httpRequest, routeTag, policy);
+
+            // 非加密请求、SKIP接口或调试模式：响应无需加密，直接透传，不做任何缓存
+            if (!needsResponseEncryption(routeTag, policy)) {
+                chain.doFilter(processedRequest, httpResponse);
+                finishOrDefer(httpRequest, processedRequest, httpResponse, null);
                 return;
             }
 
-            try {
-                // 处理请求解密
-                ServletRequest processedRequest = processRequest(httpRequest);
-                
-                // 创建响应包装器用于加密响应
-                AESResponseWrapper responseWrapper = new AESResponseWrapper(httpResponse);
-                log.debug("创建AES响应包装器");
-                
-                // 继续过滤器链
-                chain.doFilter(processedRequest, responseWrapper);
-                
-                // 处理响应加密
-                log.debug("开始处理响应加密");
-                processResponse(httpRequest, httpResponse, responseWrapper);
-                
-            } catch (Exception e) {
-                log.error("AES加密解密处理失败: {}", e.getMessage(), e);
-                handleError(httpResponse, "数据加密解密失败", 500);
+            // 根据Accept协商响应信封格式
+            AESEnvelopeFormat responseFormat = AESEnvelopeFormat.fromMediaType(httpRequest.getHeader("Accept"));
+            boolean compress = acceptsCompression(httpRequest);
+
+            if (aesConfig.isStreaming()) {
+                // 流式加密：边写边加密，直接输出到客户端
+                AESStreamingResponseWrapper streamingWrapper =
+                        new AESStreamingResponseWrapper(httpResponse, aesUtils, responseFormat, compress);
+                log.debug("创建AES流式响应包装器");
+                chain.doFilter(processedRequest, streamingWrapper);
+                finishOrDefer(httpRequest, processedRequest, streamingWrapper,
+                        new ResponseFinisher(streamingWrapper::finish));
+                return;
             }
-        } else {
+
+            // 创建响应包装器用于加密响应
+            AESResponseWrapper responseWrapper = new AESResponseWrapper(httpRequest, httpResponse);
+            ResponseFinisher finisher = new ResponseFinisher(() -> {
+                log.debug("开始处理响应加密");
+                processResponse(httpResponse, responseWrapper, responseFormat, compress);
+            });
+            responseWrapper.finishOnClose(finisher);
+            log.debug("创建AES响应包装器");
+            
+            // 继续过滤器链
+            chain.doFilter(processedRequest, responseWrapper);
+            
+            // 处理响应加密（异步请求延迟到最后一次分派结束或业务关闭输出流）
+            finishOrDefer(httpRequest, processedRequest, responseWrapper, finisher);
+            
+        } catch (EncryptionRequiredException e) {
+            log.warn("{}: {}", e.getMessage(), httpRequest.getRequestURI());
+            handleError(httpResponse, e.getMessage(), 400);
+        } catch (Exception e) {
+            handleFailure(httpResponse, e);
+        }
+    }
+
+    /**
+     * 处理异步分派
+     * 请求体已在首次分派时解密，响应沿用首次分派创建的加密包装器；
+     * 最后一次分派结束（没有再次开启异步处理）时完成响应加密
+     */
+    private void doFilterAsyncDispatch(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws IOException, ServletException {
+        if (!(request.getAttribute(ASYNC_STATE_ATTRIBUTE) instanceof AsyncCryptoState state)) {
             chain.doFilter(request, response);
+            return;
+        }
+
+        // 以无参startAsync()开启的异步处理会用原始请求/响应分派，此时替换为首次分派时的包装器
+        ServletRequest dispatchRequest = wraps(request, state.request) ? request : state.request;
+        ServletResponse dispatchResponse = wraps(response, state.response) ? response : state.response;
+        try {
+            chain.doFilter(dispatchRequest, dispatchResponse);
+            if (!request.isAsyncStarted()) {
+                request.removeAttribute(ASYNC_STATE_ATTRIBUTE);
+                if (state.finisher != null) {
+                    state.finisher.finish();
+                }
+            }
+        } catch (Exception e) {
+            handleFailure(response, e);
+        }
+    }
+
+    /**
+     * 同步请求立即完成响应加密；异步请求保存状态，等待后续分派
+     * 业务直接调用AsyncContext.complete()而不再分派时，信封在业务关闭输出流时完成（见各响应包装器的close()），
+     * 异步请求完成后容器不保证响应仍可写，因此不在AsyncListener中补写
+     */
+    private void finishOrDefer(HttpServletRequest request, ServletRequest processedRequest,
+                               HttpServletResponse processedResponse, ResponseFinisher finisher) throws IOException {
+        if (!request.isAsyncStarted()) {
+            if (finisher != null) {
+                finisher.finish();
+            }
+            return;
+        }
+
+        log.debug("请求进入异步处理，响应加密延迟到异步处理结束: {}", request.getRequestURI());
+        request.setAttribute(ASYNC_STATE_ATTRIBUTE, new AsyncCryptoState(processedRequest, processedResponse, finisher));
+    }
+
+    /**
+     * 处理加解密失败
+     */
+    private void handleFailure(HttpServletResponse response, Exception e) throws IOException {
+        log.error("AES加密解密处理失败: {}", e.getMessage(), e);
+        if (response.isCommitted()) {
+            // 流式输出已开始，无法再改写响应
+            log.warn("响应已提交，无法返回加密错误信息");
+            return;
         }
+        handleError(response, "数据加密解密失败", 500);
+    }
+
+    private static boolean wraps(ServletRequest candidate, ServletRequest target) {
+        return candidate == target || (candidate instanceof ServletRequestWrapper wrapper && wrapper.isWrapperFor(target));
+    }
+
+    private static boolean wraps(ServletResponse candidate, ServletResponse target) {
+        return candidate == target || (candidate instanceof ServletResponseWrapper wrapper && wrapper.isWrapperFor(target));
     }
 
     /**
      * 处理请求解密
      */
-    private ServletRequest processRequest(HttpServletRequest request) throws IOException {
-        String encryptedHeader = request.getHeader("X-Encrypted");
-        
+    private ServletRequest processRequest(HttpServletRequest request, RouteTag routeTag,
+                                          EncryptionPolicy policy) throws IOException {
         // 检查是否为加密请求
-        if (!"true".equalsIgnoreCase(encryptedHeader)) {
+        if (!routeTag.isEncrypted()) {
             return request;
         }
 
@@ -107,74 +256,82 @@ public class AESCryptoFilter implements Filter {
             return request;
         }
 
+        // 创建请求包装器以支持多次读取（后续过滤器和拦截器共用此请求体，不再重复读取）
+        RequestWrapper requestWrapper = RequestWrapper.of(request, requestBodyConfig);
+
         try {
-            // 创建请求包装器以支持多次读取
-            RequestWrapper requestWrapper = new RequestWrapper(request);
-            String requestBody = requestWrapper.getBody();
+            // 二进制信封：固定头 + 原始密文
+            if (AESEnvelopeFormat.fromMediaType(request.getContentType()) == AESEnvelopeFormat.BINARY) {
+                byte[] envelope = requestWrapper.getContentAsByteArray();
+                if (envelope.length == 0) {
+                    log.debug("请求体为空，跳过解密");
+                    return requestWrapper;
+                }
+                log.debug("检测到二进制加密请求，开始解密处理");
+                byte[] decrypted = aesUtils.decryptFromBinary(envelope);
+                log.debug("请求数据解密成功，原始长度: {}, 解密后长度: {}", envelope.length, decrypted.length);
+                return new AESRequestWrapper(requestWrapper, decrypted);
+            }
+
+            RequestBodyHolder requestBody = requestWrapper.getBodyHolder();
             
-            if (!StringUtils.hasText(requestBody)) {
+            if (!requestBody.hasText()) {
                 log.debug("请求体为空，跳过解密");
                 return requestWrapper;
             }
 
             log.debug("检测到加密请求，开始解密处理");
             
-            // 解析加密数据
+            // 解析加密数据（直接解析请求体流，不生成请求体字符串，溢出到临时文件的请求体也不复制到堆内）
             @SuppressWarnings("unchecked")
-            Map<String, Object> encryptedData = objectMapper.readValue(requestBody, Map.class);
+            Map<String, Object> encryptedData = objectMapper.readValue(requestWrapper.getInputStream(), Map.class);
             
             // 验证加密数据格式
             if (!isValidEncryptedData(encryptedData)) {
                 log.warn("加密数据格式无效");
+                if (policy == EncryptionPolicy.REQUIRE && !aesConfig.isDebug()) {
+                    throw new EncryptionRequiredException("该接口要求加密传输，请求体不是有效的加密数据");
+                }
                 return requestWrapper;
             }
 
             // 执行解密
-            String decryptedJson = aesUtils.decryptFromAPI(encryptedData);
+            byte[] decryptedJson = aesUtils.decryptBytesFromAPI(encryptedData);
             
             // 创建新的请求包装器包含解密后的数据
             AESRequestWrapper aesRequestWrapper = new AESRequestWrapper(requestWrapper, decryptedJson);
             
             log.debug("请求数据解密成功，原始长度: {}, 解密后长度: {}", 
-                    requestBody.length(), decryptedJson.length());
+                    requestBody.size(), decryptedJson.length);
             
             return aesRequestWrapper;
             
+        } catch (EncryptionRequiredException e) {
+            throw e;
         } catch (Exception e) {
             log.error("请求解密失败: {}", e.getMessage(), e);
             // 调试模式下允许继续处理
             if (aesConfig.isDebug()) {
                 log.warn("调试模式：解密失败，使用原始请求");
-                return new RequestWrapper(request);
+                return requestWrapper;
             }
             throw new RuntimeException("请求数据解密失败", e);
         }
     }
 
     /**
-     * 处理响应加密
+     * 处理响应加密（缓冲模式）
+     * 仅在关闭流式加密时使用，调用前已确认响应需要加密
      */
-    private void processResponse(HttpServletRequest request, HttpServletResponse response, 
-                               AESResponseWrapper responseWrapper) throws IOException {
-        
-        String encryptedHeader = request.getHeader("X-Encrypted");
-        log.debug("检查请求头 X-Encrypted: {}", encryptedHeader);
-        
-        // 只对加密请求的响应进行加密
-        if (!"true".equalsIgnoreCase(encryptedHeader)) {
-            log.debug("非加密请求，返回原始响应");
-            responseWrapper.copyToOriginalResponse();
-            return;
-        }
-
-        // 🔧 调试模式检查：如果启用调试模式，直接返回明文响应
-        if (aesConfig.isDebug()) {
-            log.info("AES调试模式已启用，返回明文响应（未加密）");
-            responseWrapper.copyToOriginalResponse();
-            return;
-        }
+    private void processResponse(HttpServletResponse response, AESResponseWrapper responseWrapper,
+                                 AESEnvelopeFormat format, boolean compress) throws IOException {
 
         try {
+            if (format == AESEnvelopeFormat.BINARY) {
+                processBinaryResponse(response, responseWrapper, compress);
+                return;
+            }
+
             String responseContent = responseWrapper.getContent();
             log.debug("获取响应内容，长度: {}", responseContent != null ? responseContent.length() : 0);
             
@@ -188,24 +345,25 @@ public class AESCryptoFilter implements Filter {
             log.debug("响应内容预览: {}", responseContent.length() > 200 ? responseContent.substring(0, 200) + "..." : responseContent);
             
             // 执行加密
-            Map<String, Object> encryptedResponse = aesUtils.encryptForAPI(responseContent);
+            Map<String, Object> encryptedResponse = aesUtils.encryptForAPI(responseContent, compress);
             String encryptedJson = objectMapper.writeValueAsString(encryptedResponse);
             
+            byte[] encryptedBytes = encryptedJson.getBytes(StandardCharsets.UTF_8);
+            
             // 设置响应头（必须在写入响应之前设置）
             if (!response.isCommitted()) {
                 response.setHeader("X-Encrypted", "true");
                 response.setContentType("application/json;charset=UTF-8");
-                response.setContentLength(encryptedJson.getBytes(StandardCharsets.UTF_8).length);
+                response.setContentLength(encryptedBytes.length);
                 log.info("AES_FILTER: Set response headers - X-Encrypted=true");
             } else {
                 log.warn("AES_FILTER: Response already committed, cannot set headers");
             }
             
-            // 写入加密后的响应
-            try (PrintWriter writer = response.getWriter()) {
-                writer.write(encryptedJson);
-                writer.flush();
-            }
+            // 写入加密后的响应（原始输出流始终为阻塞写，见AESResponseWrapper）
+            ServletOutputStream outputStream = response.getOutputStream();
+            outputStream.write(encryptedBytes);
+            outputStream.flush();
             
             log.debug("响应数据加密成功，加密后长度: {}", encryptedJson.length());
             
@@ -222,20 +380,48 @@ public class AESCryptoFilter implements Filter {
     }
 
     /**
-     * 检查是否是API请求
+     * 以二进制信封加密响应（缓冲模式）
      */
-    private boolean isApiRequest(String uri) {
-        // 排除静态资源和监控页面
-        if (uri.contains("/druid/") || 
-            uri.contains("/swagger") || 
-            uri.contains("/v3/api-docs") || 
-            uri.contains("/doc.html") ||
-            uri.matches(".+\\.(js|css|html|jpg|jpeg|png|gif|ico|svg|woff|ttf|eot)$")) {
+    private void processBinaryResponse(HttpServletResponse response, AESResponseWrapper responseWrapper,
+                                       boolean compress) throws IOException {
+        byte[] responseContent = responseWrapper.getContentAsByteArray();
+        if (responseContent.length == 0) {
+            log.debug("响应内容为空，返回原始响应");
+            return;
+        }
+
+        byte[] envelope = aesUtils.encryptForBinary(responseContent, compress);
+        response.setHeader("X-Encrypted", "true");
+        response.setContentType(AESEnvelopeFormat.BINARY.getContentType());
+        response.setContentLength(envelope.length);
+        ServletOutputStream outputStream = response.getOutputStream();
+        outputStream.write(envelope);
+        outputStream.flush();
+        log.debug("响应数据二进制加密成功，加密后长度: {}", envelope.length);
+    }
+
+    /**
+     * 判断响应是否需要加密
+     * 只对加密请求的响应加密，SKIP接口和调试模式下返回明文
+     */
+    private boolean needsResponseEncryption(RouteTag routeTag, EncryptionPolicy policy) {
+        if (!routeTag.isEncrypted() || policy == EncryptionPolicy.SKIP) {
+            return false;
+        }
+        if (aesConfig.isDebug()) {
+            log.info("AES调试模式已启用，返回明文响应（未加密）");
             return false;
         }
         return true;
     }
 
+    /**
+     * 判断客户端是否支持加密前压缩
+     */
+    private boolean acceptsCompression(HttpServletRequest request) {
+        return AESUtils.COMPRESSION_GZIP.equalsIgnoreCase(request.getHeader(ENCRYPTED_ENCODING_HEADER));
+    }
+
     /**
      * 检查是否是可加密的请求方法
      */
@@ -258,90 +444,411 @@ public class AESCryptoFilter implements Filter {
 
     /**
      * 处理错误响应
+     * 响应尚未提交时先丢弃已缓冲的输出（如流式加密已写入的信封头），再经输出流写出错误信息：
+     * 加密输出可能已获取过原始输出流，此时再调用getWriter()会抛出IllegalStateException
      */
     private void handleError(HttpServletResponse response, String message, int status) throws IOException {
+        response.resetBuffer();
         response.setStatus(status);
         response.setContentType("application/json;charset=UTF-8");
+        if (response.containsHeader("X-Encrypted")) {
+            response.setHeader("X-Encrypted", "false");
+        }
         
         Map<String, Object> errorResponse = new HashMap<>();
         errorResponse.put("code", status);
         errorResponse.put("message", message);
         errorResponse.put("success", false);
         
-        String errorJson = objectMapper.writeValueAsString(errorResponse);
-        
-        try (PrintWriter writer = response.getWriter()) {
-            writer.write(errorJson);
-            writer.flush();
+        byte[] errorJson = objectMapper.writeValueAsBytes(errorResponse);
+        response.setContentLength(errorJson.length);
+
+        ServletOutputStream outputStream;
+        try {
+            outputStream = response.getOutputStream();
+        } catch (IllegalStateException e) {
+            // 未加密的透传响应中业务已通过getWriter()输出
+            try (PrintWriter writer = response.getWriter()) {
+                writer.write(new String(errorJson, StandardCharsets.UTF_8));
+                writer.flush();
+            }
+            return;
+        }
+        try (outputStream) {
+            outputStream.write(errorJson);
+            outputStream.flush();
+        }
+    }
+
+    /**
+     * REQUIRE接口的请求体不是有效的加密信封
+     * 属于客户端错误，与拒绝明文请求一样返回400，而不是按加解密失败返回500
+     */
+    private static final class EncryptionRequiredException extends RuntimeException {
+
+        private EncryptionRequiredException(String message) {
+            super(message);
+        }
+    }
+
+    /**
+     * 响应加密收尾动作，保证只执行一次
+     * 异步请求可能同时由最后一次分派和业务关闭输出流触发
+     */
+    private static final class ResponseFinisher {
+        private final FinishAction action;
+        private final AtomicBoolean finished = new AtomicBoolean();
+
+        private ResponseFinisher(FinishAction action) {
+            this.action = action;
+        }
+
+        private void finish() throws IOException {
+            if (finished.compareAndSet(false, true)) {
+                action.run();
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface FinishAction {
+        void run() throws IOException;
+    }
+
+    /**
+     * 异步请求的加解密状态
+     * 首次分派开启异步处理时保存，供后续异步分派沿用
+     */
+    private static final class AsyncCryptoState {
+        private final ServletRequest request;
+        private final HttpServletResponse response;
+        private final ResponseFinisher finisher;
+
+        private AsyncCryptoState(ServletRequest request, HttpServletResponse response, ResponseFinisher finisher) {
+            this.request = request;
+            this.response = response;
+            this.finisher = finisher;
         }
     }
 
     /**
      * AES请求包装器
+     * 只持有解密后的请求体，输入流、字符串视图等由 {@link RequestWrapper} 基于同一份数据提供
      */
     private static class AESRequestWrapper extends RequestWrapper {
-        private final String decryptedBody;
-        private final byte[] decryptedBodyBytes;
 
-        public AESRequestWrapper(HttpServletRequest request, String decryptedBody) throws IOException {
-            super(request);
-            this.decryptedBody = decryptedBody;
-            this.decryptedBodyBytes = decryptedBody.getBytes(StandardCharsets.UTF_8);
+        public AESRequestWrapper(HttpServletRequest request, byte[] decryptedBodyBytes) {
+            super(request, RequestBodyHolder.of(decryptedBodyBytes, StandardCharsets.UTF_8));
         }
 
+        /**
+         * 解密后的请求体固定为JSON（二进制信封请求的原始类型为 application/x-svt-encrypted）
+         */
         @Override
-        public ServletInputStream getInputStream() {
-            final java.io.ByteArrayInputStream byteArrayInputStream = new java.io.ByteArrayInputStream(this.decryptedBodyBytes);
-            return new ServletInputStream() {
-                @Override
-                public boolean isFinished() {
-                    return byteArrayInputStream.available() == 0;
-                }
+        public String getContentType() {
+            return "application/json;charset=UTF-8";
+        }
+    }
 
-                @Override
-                public boolean isReady() {
-                    return true;
-                }
+    /**
+     * AES流式响应包装器
+     * 响应体写入时即加密输出，不缓存完整响应；
+     * 首次写入时设置加密响应头，Content-Length由容器按分块传输处理
+     */
+    private static class AESStreamingResponseWrapper extends HttpServletResponseWrapper {
+        private final EncryptedOutputSink sink;
+        private final AESEnvelopeOutputStream envelopeStream;
+        private ServletOutputStream outputStream;
+        private PrintWriter writer;
+
+        public AESStreamingResponseWrapper(HttpServletResponse response, AESUtils aesUtils,
+                                           AESEnvelopeFormat format, boolean compress) {
+            super(response);
+            this.sink = new EncryptedOutputSink(response);
+            this.envelopeStream = aesUtils.createEnvelopeStream(() -> {
+                response.setHeader("X-Encrypted", "true");
+                response.setContentType(format.getContentType());
+                return sink;
+            }, format, compress);
+        }
 
-                @Override
-                public void setReadListener(ReadListener listener) {
-                    // Not implemented
-                }
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            if (writer != null) {
+                throw new IllegalStateException("getWriter() has already been called on this response");
+            }
+            if (outputStream == null) {
+                outputStream = new ServletOutputStream() {
+                    /**
+                     * 上一次写入产生的加密输出全部交给原始输出流、且原始输出流可写时才可写
+                     */
+                    @Override
+                    public boolean isReady() {
+                        try {
+                            return sink.isReady();
+                        } catch (IOException e) {
+                            return false;
+                        }
+                    }
+
+                    /**
+                     * 非阻塞写：原始输出流注册的是 {@link EncryptedOutputSink}，
+                     * 由它写出缓冲的加密输出后再回调业务的WriteListener
+                     */
+                    @Override
+                    public void setWriteListener(WriteListener listener) {
+                        try {
+                            sink.setWriteListener(listener);
+                        } catch (IOException e) {
+                            throw new IllegalStateException("获取原始输出流失败", e);
+                        }
+                    }
+
+                    @Override
+                    public void write(int b) throws IOException {
+                        envelopeStream.write(b);
+                        sink.drain();
+                    }
+
+                    @Override
+                    public void write(byte[] b, int off, int len) throws IOException {
+                        envelopeStream.write(b, off, len);
+                        sink.drain();
+                    }
+
+                    @Override
+                    public void flush() throws IOException {
+                        envelopeStream.flush();
+                        sink.drain();
+                    }
+
+                    /**
+                     * 关闭即结束响应体，写出信封尾部（异步请求可能不再经过过滤器）
+                     */
+                    @Override
+                    public void close() throws IOException {
+                        finish();
+                    }
+                };
+            }
+            return outputStream;
+        }
 
-                @Override
-                public int read() {
-                    return byteArrayInputStream.read();
-                }
-            };
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            if (outputStream != null && writer == null) {
+                throw new IllegalStateException("getOutputStream() has already been called on this response");
+            }
+            if (writer == null) {
+                writer = new PrintWriter(new OutputStreamWriter(envelopeStream, StandardCharsets.UTF_8));
+            }
+            return writer;
         }
-        
+
+        @Override
+        public void setContentLength(int len) {
+            // 加密后长度变化，忽略业务设置的长度
+        }
+
+        @Override
+        public void setContentLengthLong(long len) {
+            // 加密后长度变化，忽略业务设置的长度
+        }
+
+        @Override
+        public void setContentType(String type) {
+            // 加密响应的内容类型由信封格式决定，首次写入时设置
+        }
+
+        @Override
+        public void setHeader(String name, String value) {
+            if (!"Content-Length".equalsIgnoreCase(name) && !"Content-Type".equalsIgnoreCase(name)) {
+                super.setHeader(name, value);
+            }
+        }
+
+        @Override
+        public void addHeader(String name, String value) {
+            if (!"Content-Length".equalsIgnoreCase(name) && !"Content-Type".equalsIgnoreCase(name)) {
+                super.addHeader(name, value);
+            }
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            if (writer != null) {
+                writer.flush();
+            }
+            envelopeStream.flush();
+        }
+
         @Override
-        public java.io.BufferedReader getReader() {
-            return new java.io.BufferedReader(new java.io.InputStreamReader(this.getInputStream(), StandardCharsets.UTF_8));
+        public void resetBuffer() {
+            if (envelopeStream.isStarted()) {
+                throw new IllegalStateException("Encrypted response has already been committed");
+            }
+            super.resetBuffer();
         }
 
         @Override
-        public String getBody() {
-            return decryptedBody;
+        public void reset() {
+            if (envelopeStream.isStarted()) {
+                throw new IllegalStateException("Encrypted response has already been committed");
+            }
+            super.reset();
+        }
+
+        /**
+         * 结束加密输出，写出信封尾部
+         */
+        public void finish() throws IOException {
+            if (writer != null) {
+                writer.flush();
+            }
+            envelopeStream.close();
+            sink.drain();
+        }
+    }
+
+    /**
+     * 流式加密的目标输出流
+     * 阻塞写时直接写入原始输出流；业务注册WriteListener后切换为非阻塞写：
+     * 一次业务写入会产生多次加密输出（信封头、密文分块、信封尾部），而原始输出流每次可写只允许写入一次，
+     * 因此加密输出先缓冲在内存中，再以一次写入交给原始输出流；原始输出流暂不可写时，
+     * 由注册在原始输出流上的本监听器在可写后写出缓冲，缓冲清空后才回调业务的WriteListener
+     */
+    private static final class EncryptedOutputSink extends OutputStream implements WriteListener {
+        private final HttpServletResponse response;
+        private final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        private ServletOutputStream original;
+        private WriteListener listener;
+
+        private EncryptedOutputSink(HttpServletResponse response) {
+            this.response = response;
+        }
+
+        private ServletOutputStream original() throws IOException {
+            if (original == null) {
+                original = response.getOutputStream();
+            }
+            return original;
+        }
+
+        private void setWriteListener(WriteListener listener) throws IOException {
+            this.listener = listener;
+            original().setWriteListener(this);
+        }
+
+        /**
+         * 缓冲已清空且原始输出流可写
+         */
+        private boolean isReady() throws IOException {
+            return drain() && original().isReady();
+        }
+
+        /**
+         * 原始输出流可写时将缓冲的加密输出一次写出
+         *
+         * @return 缓冲是否已清空
+         */
+        private boolean drain() throws IOException {
+            if (buffer.size() == 0) {
+                return true;
+            }
+            if (!original().isReady()) {
+                return false;
+            }
+            buffer.writeTo(original());
+            buffer.reset();
+            return true;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            if (listener == null) {
+                original().write(b);
+            } else {
+                buffer.write(b);
+            }
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            if (listener == null) {
+                original().write(b, off, len);
+            } else {
+                buffer.write(b, off, len);
+            }
+        }
+
+        /**
+         * 非阻塞写时由 {@link #drain()} 写出，不单独刷新原始输出流
+         */
+        @Override
+        public void flush() throws IOException {
+            if (listener == null) {
+                original().flush();
+            }
+        }
+
+        @Override
+        public void onWritePossible() throws IOException {
+            if (isReady()) {
+                listener.onWritePossible();
+            }
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            listener.onError(t);
         }
     }
 
     /**
      * AES响应包装器
+     * 响应体缓冲在内存中，结束时整体加密后以阻塞写写入原始输出流；
+     * 业务关闭输出流即结束响应体（异步请求可能直接完成而不再经过过滤器）
      */
     private static class AESResponseWrapper extends HttpServletResponseWrapper {
-        private final java.io.ByteArrayOutputStream byteArrayOutputStream = new java.io.ByteArrayOutputStream();
+        private final ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
         private final java.io.StringWriter stringWriter = new java.io.StringWriter();
-        private final PrintWriter writer = new PrintWriter(stringWriter);
+        private final PrintWriter writer = new PrintWriter(stringWriter) {
+            @Override
+            public void close() {
+                flush();
+                try {
+                    finishContent();
+                } catch (IOException e) {
+                    log.warn("关闭响应时加密失败: {}", e.getMessage());
+                    setError();
+                }
+            }
+        };
+        private final HttpServletRequest request;
         private final HttpServletResponse originalResponse;
+        private ResponseFinisher finisher;
         private boolean usingOutputStream = false;
         private boolean usingWriter = false;
 
-        public AESResponseWrapper(HttpServletResponse response) {
+        public AESResponseWrapper(HttpServletRequest request, HttpServletResponse response) {
             super(response);
+            this.request = request;
             this.originalResponse = response;
         }
 
+        /**
+         * 业务关闭输出流或Writer时执行的加密收尾动作
+         */
+        public void finishOnClose(ResponseFinisher finisher) {
+            this.finisher = finisher;
+        }
+
+        private void finishContent() throws IOException {
+            if (finisher != null) {
+                finisher.finish();
+            }
+        }
+
         @Override
         public PrintWriter getWriter() throws IOException {
             if (usingOutputStream) {
@@ -358,14 +865,27 @@ public class AESCryptoFilter implements Filter {
             }
             usingOutputStream = true;
             return new ServletOutputStream() {
+                /**
+                 * 写入内存缓冲，始终可写
+                 */
                 @Override
                 public boolean isReady() {
                     return true;
                 }
 
+                /**
+                 * 非阻塞写：数据写入内存缓冲，始终可写，由容器线程回调一次onWritePossible；
+                 * 监听器不注册到原始输出流，原始输出流保持阻塞写，结束时整体写出加密信封
+                 */
                 @Override
                 public void setWriteListener(WriteListener listener) {
-                    // Not implemented
+                    request.getAsyncContext().start(() -> {
+                        try {
+                            listener.onWritePossible();
+                        } catch (Throwable t) {
+                            listener.onError(t);
+                        }
+                    });
                 }
 
                 @Override
@@ -382,9 +902,25 @@ public class AESCryptoFilter implements Filter {
                 public void write(byte[] b, int off, int len) throws IOException {
                     byteArrayOutputStream.write(b, off, len);
                 }
+
+                /**
+                 * 关闭即结束响应体，加密后写入原始输出流
+                 */
+                @Override
+                public void close() throws IOException {
+                    finishContent();
+                }
             };
         }
 
+        public byte[] getContentAsByteArray() {
+            writer.flush();
+            if (usingOutputStream) {
+                return byteArrayOutputStream.toByteArray();
+            }
+            return stringWriter.toString().getBytes(StandardCharsets.UTF_8);
+        }
+
         public String getContent() {
             writer.flush();
             if (usingOutputStream) {
@@ -397,11 +933,11 @@ public class AESCryptoFilter implements Filter {
         public void copyToOriginalResponse() throws IOException {
             String content = getContent();
             if (StringUtils.hasText(content)) {
-                originalResponse.setContentLength(content.getBytes(StandardCharsets.UTF_8).length);
-                try (PrintWriter originalWriter = originalResponse.getWriter()) {
-                    originalWriter.write(content);
-                    originalWriter.flush();
-                }
+                byte[] bytes = content.getBytes(StandardCharsets.UTF_8);
+                originalResponse.setContentLength(bytes.length);
+                ServletOutputStream outputStream = originalResponse.getOutputStream();
+                outputStream.write(bytes);
+                outputStream.flush();
             }
         }
     }
@@ -0,0 +1,205 @@
+package com.seventeen.svt.common.filter;
+
+import com.seventeen.svt.common.annotation.crypto.ApiEncryption;
+import com.seventeen.svt.common.annotation.crypto.EncryptionPolicy;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationContext;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.http.server.PathContainer;
+import org.springframework.stereotype.Component;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.mvc.method.RequestMappingInfo;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 接口加密策略解析器
+ * 启动时扫描 {@link RequestMappingHandlerMapping} 中的 {@link ApiEncryption} 注解，生成（HTTP方法, 路径）到策略的查找表
+ *
+ * 设计说明：
+ * - 记录所有映射（包括OPTIONAL），按HTTP方法和路径区分，SKIP不会波及同一路径的其他方法或更具体的路径
+ * - 固定路径走哈希查找，含路径变量或通配符的映射才按PathPattern匹配
+ * - 匹配顺序与Spring MVC一致：固定路径优先，模式路径按 {@link PathPattern#SPECIFICITY_COMPARATOR} 取最具体的，
+ *   同一路径声明了HTTP方法的映射优先于未声明的；HEAD请求可匹配GET映射
+ * - 仅按方法和路径区分，同一方法和路径仅靠参数、请求头等条件区分的映射策略不一致时，
+ *   按 REQUIRE &gt; OPTIONAL &gt; SKIP 取更严格的策略并告警
+ * - 过滤器在DispatcherServlet之前执行，因此不能依赖HandlerMapping的运行时查找
+ *
+ * @author SEVENTEEN
+ * @since 2026-10-17
+ */
+@Slf4j
+@Component
+public class EncryptionPolicyResolver implements SmartInitializingSingleton {
+
+    private static final String HANDLER_MAPPING_BEAN = "requestMappingHandlerMapping";
+
+    /**
+     * 同一路径的映射排序：声明了HTTP方法的优先
+     */
+    private static final Comparator<MappingPolicy> METHOD_SPECIFICITY =
+            Comparator.comparing(mapping -> mapping.methods.isEmpty());
+
+    private final ApplicationContext applicationContext;
+    private final String contextPath;
+
+    private volatile Map<String, List<MappingPolicy>> exactPolicies = Map.of();
+    private volatile List<MappingPolicy> patternPolicies = List.of();
+
+    public EncryptionPolicyResolver(ApplicationContext applicationContext,
+                                    @Value("${server.servlet.context-path:}") String contextPath) {
+        this.applicationContext = applicationContext;
+        this.contextPath = contextPath;
+    }
+
+    /**
+     * 所有单例初始化完成后（Web服务开始接收请求之前）构建查找表
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (!applicationContext.containsBean(HANDLER_MAPPING_BEAN)) {
+            log.warn("未找到RequestMappingHandlerMapping，接口加密策略全部按默认处理");
+            return;
+        }
+        RequestMappingHandlerMapping handlerMapping =
+                applicationContext.getBean(HANDLER_MAPPING_BEAN, RequestMappingHandlerMapping.class);
+
+        // 按（HTTP方法, 路径）合并映射
+        Map<String, MappingPolicy> mappings = new LinkedHashMap<>();
+        for (Map.Entry<RequestMappingInfo, HandlerMethod> entry : handlerMapping.getHandlerMethods().entrySet()) {
+            EncryptionPolicy policy = resolvePolicy(entry.getValue());
+            Set<RequestMethod> methods = entry.getKey().getMethodsCondition().getMethods();
+            for (String pattern : entry.getKey().getPatternValues()) {
+                MappingPolicy mapping = new MappingPolicy(pattern,
+                        isPattern(pattern) ? PathPatternParser.defaultInstance.parse(pattern) : null, methods, policy);
+                mappings.merge(methods + " " + pattern, mapping, EncryptionPolicyResolver::mergeConflict);
+            }
+        }
+
+        Map<String, List<MappingPolicy>> exact = new HashMap<>();
+        List<MappingPolicy> patterns = new ArrayList<>();
+        for (MappingPolicy mapping : mappings.values()) {
+            if (mapping.pattern != null) {
+                patterns.add(mapping);
+            } else {
+                exact.computeIfAbsent(mapping.path, path -> new ArrayList<>()).add(mapping);
+            }
+        }
+        exact.replaceAll((path, list) -> {
+            list.sort(METHOD_SPECIFICITY);
+            return List.copyOf(list);
+        });
+        patterns.sort(Comparator.<MappingPolicy, PathPattern>comparing(mapping -> mapping.pattern,
+                PathPattern.SPECIFICITY_COMPARATOR).thenComparing(METHOD_SPECIFICITY));
+
+        this.exactPolicies = Map.copyOf(exact);
+        this.patternPolicies = List.copyOf(patterns);
+        log.info("接口加密策略加载完成，固定路径: {}，模式路径: {}", exact.size(), patterns.size());
+    }
+
+    /**
+     * 获取请求对应的加密策略，未标注或未映射的接口返回 {@link EncryptionPolicy#OPTIONAL}
+     */
+    public EncryptionPolicy resolve(HttpServletRequest request) {
+        String path = request.getRequestURI();
+        if (!contextPath.isEmpty() && path.startsWith(contextPath)) {
+            path = path.substring(contextPath.length());
+        }
+        RequestMethod method = RequestMethod.resolve(request.getMethod());
+
+        List<MappingPolicy> exact = exactPolicies.get(path);
+        if (exact != null) {
+            for (MappingPolicy mapping : exact) {
+                if (mapping.matches(method)) {
+                    return mapping.policy;
+                }
+            }
+        }
+        List<MappingPolicy> patterns = patternPolicies;
+        if (!patterns.isEmpty()) {
+            PathContainer pathContainer = PathContainer.parsePath(path);
+            for (MappingPolicy mapping : patterns) {
+                if (mapping.matches(method) && mapping.pattern.matches(pathContainer)) {
+                    return mapping.policy;
+                }
+            }
+        }
+        return EncryptionPolicy.OPTIONAL;
+    }
+
+    /**
+     * 解析处理方法的加密策略，方法注解优先于类注解
+     */
+    private EncryptionPolicy resolvePolicy(HandlerMethod handlerMethod) {
+        ApiEncryption annotation = AnnotatedElementUtils.findMergedAnnotation(handlerMethod.getMethod(), ApiEncryption.class);
+        if (annotation == null) {
+            annotation = AnnotatedElementUtils.findMergedAnnotation(handlerMethod.getBeanType(), ApiEncryption.class);
+        }
+        return annotation != null ? annotation.value() : EncryptionPolicy.OPTIONAL;
+    }
+
+    /**
+     * 同一方法和路径的映射策略不一致时取更严格的策略
+     */
+    private static MappingPolicy mergeConflict(MappingPolicy previous, MappingPolicy current) {
+        if (previous.policy == current.policy) {
+            return previous;
+        }
+        MappingPolicy stricter = strictness(current.policy) > strictness(previous.policy) ? current : previous;
+        log.warn("接口加密策略冲突，方法: {}，路径: {}，{} 与 {}，按 {} 处理",
+                current.methods.isEmpty() ? "ALL" : current.methods, current.path,
+                previous.policy, current.policy, stricter.policy);
+        return stricter;
+    }
+
+    private static int strictness(EncryptionPolicy policy) {
+        return switch (policy) {
+            case REQUIRE -> 2;
+            case OPTIONAL -> 1;
+            case SKIP -> 0;
+        };
+    }
+
+    private static boolean isPattern(String path) {
+        return path.indexOf('{') >= 0 || path.indexOf('*') >= 0 || path.indexOf('?') >= 0;
+    }
+
+    /**
+     * 单个（HTTP方法, 路径）映射的策略
+     */
+    private static final class MappingPolicy {
+        private final String path;
+        private final PathPattern pattern;
+        private final Set<RequestMethod> methods;
+        private final EncryptionPolicy policy;
+
+        private MappingPolicy(String path, PathPattern pattern, Set<RequestMethod> methods, EncryptionPolicy policy) {
+            this.path = path;
+            this.pattern = pattern;
+            this.methods = methods;
+            this.policy = policy;
+        }
+
+        /**
+         * 未声明HTTP方法的映射匹配所有方法，HEAD请求可匹配GET映射（与Spring MVC一致）
+         */
+        private boolean matches(RequestMethod method) {
+            return methods.isEmpty()
+                    || (method != null && (methods.contains(method)
+                    || (method == RequestMethod.HEAD && methods.contains(RequestMethod.GET))));
+        }
+    }
+}
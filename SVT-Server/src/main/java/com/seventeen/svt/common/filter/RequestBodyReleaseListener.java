@@ -0,0 +1,26 @@
+package com.seventeen.svt.common.filter;
+
+import com.seventeen.svt.common.util.RequestBodyHolder;
+import jakarta.servlet.ServletRequestEvent;
+import jakarta.servlet.ServletRequestListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * 请求体释放监听器
+ * 请求结束时（异步请求在异步处理完成后）关闭溢出到临时文件的请求体，临时文件随即删除，
+ * 不依赖GC回收文件通道
+ *
+ * @author SEVENTEEN
+ * @since 2026-10-17
+ */
+@Component
+public class RequestBodyReleaseListener implements ServletRequestListener {
+
+    @Override
+    public void requestDestroyed(ServletRequestEvent event) {
+        if (event.getServletRequest().getAttribute(RequestBodyHolder.SPILLED_BODY_ATTRIBUTE)
+                instanceof RequestBodyHolder body) {
+            body.release();
+        }
+    }
+}
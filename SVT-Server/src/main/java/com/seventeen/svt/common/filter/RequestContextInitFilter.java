@@ -0,0 +1,65 @@
+package com.seventeen.svt.common.filter;
+
+import com.seventeen.svt.common.util.RequestContext;
+import com.seventeen.svt.common.util.RequestContextUtils;
+import com.seventeen.svt.common.util.TraceIdUtils;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * 请求上下文初始化过滤器
+ * 在Spring Security过滤器链之前执行，为每个请求解析一次 {@link RequestContext}（traceId、客户端IP、URL、路由标签），
+ * 并设置日志MDC和 X-Trace-Id 响应头，后续过滤器、拦截器、切面和日志直接读取，请求结束时统一清理
+ *
+ * @author SEVENTEEN
+ * @since 2026-10-17
+ */
+@Component
+@Order(SecurityProperties.DEFAULT_FILTER_ORDER - 10)
+@RequiredArgsConstructor
+public class RequestContextInitFilter extends OncePerRequestFilter {
+
+    /**
+     * traceId响应头
+     */
+    public static final String TRACE_ID_HEADER = "X-Trace-Id";
+
+    private final RouteClassifier routeClassifier;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        // 异步请求再次分派时沿用首次分派创建的上下文，只重新绑定到当前线程
+        RequestContext context = RequestContext.get(request);
+        if (context == null) {
+            context = new RequestContext(TraceIdUtils.generateTraceId(),
+                    RequestContextUtils.resolveIpAddress(request),
+                    null,
+                    request.getMethod(),
+                    request.getRequestURI(),
+                    request.getRequestURL().toString(),
+                    routeClassifier.classify(request));
+            response.setHeader(TRACE_ID_HEADER, context.getTraceId());
+        }
+        context.bind(request);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            RequestContext.unbind();
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+}
@@ -0,0 +1,150 @@
+package com.seventeen.svt.common.filter;
+
+import com.seventeen.svt.common.config.SecurityPathConfig;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 请求路由分类器
+ * 启动时根据 {@link SecurityPathConfig} 预编译匹配规则，所有过滤器共用同一份分类结果
+ *
+ * 分类规则：
+ * - 不在 /api 下的请求为 STATIC（前端路由、静态资源、接口文档、监控页面）
+ * - /api 下命中白名单的请求为 PERMIT_ALL
+ * - 其余 /api 请求为 API（需要认证）
+ * - 另外记录客户端是否声明了加密（X-Encrypted: true）
+ *
+ * 性能说明：
+ * - 白名单按模式形态预编译：精确路径走哈希查找，"/**" 前缀和 "/*.ext" 扩展名模式走字符串比较，
+ *   其余复杂模式才回退到 AntPathMatcher
+ * - 每个请求只分类一次，结果以常量标签存入请求属性，后续读取不产生对象分配
+ *
+ * @author SEVENTEEN
+ * @since 2026-10-17
+ */
+@Slf4j
+@Component
+public class RouteClassifier {
+
+    /**
+     * 请求属性名：路由标签
+     */
+    public static final String ROUTE_TAG_ATTRIBUTE = RouteClassifier.class.getName() + ".ROUTE_TAG";
+
+    /**
+     * 加密请求头
+     */
+    private static final String ENCRYPTED_HEADER = "X-Encrypted";
+
+    private final String apiPrefix;
+    private final Set<String> exactPaths = new HashSet<>();
+    private final List<PathRule> patternRules = new ArrayList<>();
+
+    public RouteClassifier(SecurityPathConfig securityPathConfig,
+                           @Value("${server.servlet.context-path:}") String contextPath) {
+        this.apiPrefix = contextPath + "/api";
+        // 注入SecurityPathConfig保证其白名单已初始化
+        compile(SecurityPathConfig.getPermitAllPaths());
+        log.debug("路由分类器初始化完成，精确路径: {}，模式规则: {}", exactPaths.size(), patternRules.size());
+    }
+
+    /**
+     * 获取请求的路由标签
+     * 首次调用时分类并缓存到请求属性，之后直接返回缓存结果
+     */
+    public RouteTag classify(HttpServletRequest request) {
+        Object cached = request.getAttribute(ROUTE_TAG_ATTRIBUTE);
+        if (cached instanceof RouteTag tag) {
+            return tag;
+        }
+        RouteTag tag = RouteTag.of(classifyPath(request.getRequestURI()),
+                "true".equalsIgnoreCase(request.getHeader(ENCRYPTED_HEADER)));
+        request.setAttribute(ROUTE_TAG_ATTRIBUTE, tag);
+        return tag;
+    }
+
+    /**
+     * 按请求URI分类
+     */
+    public RouteTag.Type classifyPath(String uri) {
+        if (!isUnderPrefix(uri, apiPrefix)) {
+            return RouteTag.Type.STATIC;
+        }
+        return isPermitAllPath(uri) ? RouteTag.Type.PERMIT_ALL : RouteTag.Type.API;
+    }
+
+    /**
+     * 是否命中白名单
+     */
+    public boolean isPermitAllPath(String uri) {
+        if (exactPaths.contains(uri)) {
+            return true;
+        }
+        for (PathRule rule : patternRules) {
+            if (rule.matches(uri)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 按模式形态预编译白名单
+     */
+    private void compile(String[] patterns) {
+        AntPathMatcher antPathMatcher = new AntPathMatcher();
+        for (String pattern : patterns) {
+            if (!antPathMatcher.isPattern(pattern)) {
+                exactPaths.add(pattern);
+                continue;
+            }
+
+            // "/prefix/**"：匹配前缀本身及其所有子路径
+            if (pattern.endsWith("/**")) {
+                String prefix = pattern.substring(0, pattern.length() - 3);
+                if (!antPathMatcher.isPattern(prefix)) {
+                    patternRules.add(uri -> isUnderPrefix(uri, prefix));
+                    continue;
+                }
+            }
+
+            // "/dir/*.ext"：匹配目录下（不含子目录）指定扩展名的文件
+            int wildcard = pattern.lastIndexOf("/*.");
+            if (wildcard >= 0) {
+                String directory = pattern.substring(0, wildcard + 1);
+                String suffix = pattern.substring(wildcard + 2);
+                if (!antPathMatcher.isPattern(directory) && !antPathMatcher.isPattern(suffix)) {
+                    patternRules.add(uri -> uri.startsWith(directory) && uri.endsWith(suffix)
+                            && uri.indexOf('/', directory.length()) < 0);
+                    continue;
+                }
+            }
+
+            log.debug("白名单模式回退到AntPathMatcher: {}", pattern);
+            patternRules.add(uri -> antPathMatcher.match(pattern, uri));
+        }
+    }
+
+    /**
+     * 按路径段判断前缀：等于前缀本身或以 "前缀/" 开头
+     */
+    private static boolean isUnderPrefix(String uri, String prefix) {
+        return uri.startsWith(prefix) && (uri.length() == prefix.length() || uri.charAt(prefix.length()) == '/');
+    }
+
+    /**
+     * 预编译的路径规则
+     */
+    @FunctionalInterface
+    private interface PathRule {
+        boolean matches(String uri);
+    }
+}
@@ -0,0 +1,86 @@
+package com.seventeen.svt.common.filter;
+
+/**
+ * 请求路由标签
+ * 由 {@link RouteClassifier} 在请求进入时计算一次，后续过滤器直接读取
+ *
+ * 所有组合均为预先创建的常量，打标签不产生对象分配
+ *
+ * @author SEVENTEEN
+ * @since 2026-10-17
+ */
+public final class RouteTag {
+
+    /**
+     * 路由类型
+     */
+    public enum Type {
+        /**
+         * 非API请求：前端路由、静态资源、接口文档、监控页面等
+         */
+        STATIC,
+        /**
+         * 白名单API：无需认证，但仍参与加解密和请求记录
+         */
+        PERMIT_ALL,
+        /**
+         * 需要认证的API
+         */
+        API
+    }
+
+    private static final RouteTag[] PLAIN = new RouteTag[Type.values().length];
+    private static final RouteTag[] ENCRYPTED = new RouteTag[Type.values().length];
+
+    static {
+        for (Type type : Type.values()) {
+            PLAIN[type.ordinal()] = new RouteTag(type, false);
+            ENCRYPTED[type.ordinal()] = new RouteTag(type, true);
+        }
+    }
+
+    private final Type type;
+    private final boolean encrypted;
+
+    private RouteTag(Type type, boolean encrypted) {
+        this.type = type;
+        this.encrypted = encrypted;
+    }
+
+    /**
+     * 获取标签常量
+     */
+    public static RouteTag of(Type type, boolean encrypted) {
+        return encrypted ? ENCRYPTED[type.ordinal()] : PLAIN[type.ordinal()];
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    /**
+     * 客户端是否声明了加密（X-Encrypted: true）
+     */
+    public boolean isEncrypted() {
+        return encrypted;
+    }
+
+    /**
+     * 是否为API请求（白名单API或需要认证的API）
+     */
+    public boolean isApi() {
+        return type != Type.STATIC;
+    }
+
+    /**
+     * 是否需要认证
+     */
+    public boolean requiresAuthentication() {
+        return type == Type.API;
+    }
+
+    @Override
+    public String toString() {
+        return encrypted ? type + "(encrypted)" : type.name();
+    }
+}
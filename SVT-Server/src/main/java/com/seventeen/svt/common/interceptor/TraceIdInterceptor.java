@@ -1,38 +1,65 @@
 package com.seventeen.svt.common.interceptor;
 
+import com.seventeen.svt.common.util.RequestLogEvent;
+import com.seventeen.svt.common.util.RequestLogPolicy;
 import com.seventeen.svt.common.util.RequestLogUtils;
 import com.seventeen.svt.common.util.RequestWrapper;
-import com.seventeen.svt.common.util.TraceIdUtils;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
 import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.util.WebUtils;
+
+import java.util.concurrent.TimeUnit;
 
 /**
  * TraceId拦截器
+ * traceId由 {@link com.seventeen.svt.common.filter.RequestContextInitFilter} 在请求进入时生成并写入MDC和响应头，
+ * 此处只负责计时和请求日志
+ * 请求体由 {@link com.seventeen.svt.common.filter.RequestWrapperFilter} 缓存，此处直接复用，不再读取原始输入流
+ * 请求日志在请求结束时按 {@link RequestLogPolicy} 决定是否记录：按接口采样，错误和慢请求始终记录
  */
+@RequiredArgsConstructor
 public class TraceIdInterceptor implements HandlerInterceptor {
 
+    /**
+     * 请求属性名：请求开始时间（纳秒）
+     */
+    private static final String START_TIME_ATTRIBUTE = TraceIdInterceptor.class.getName() + ".START_TIME";
+
+    private final RequestLogPolicy requestLogPolicy;
+
     @Override
     public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws Exception {
-        // 包装请求,支持多次读取请求体
-        RequestWrapper requestWrapper = new RequestWrapper(request);
-        
-        // 生成traceId
-        String traceId = TraceIdUtils.generateTraceId();
-        // 设置traceId
-        TraceIdUtils.setTraceId(traceId);
-        // 设置响应头
-        response.setHeader("X-Trace-Id", traceId);
-        
-        // 记录请求信息
-        RequestLogUtils.logRequest(requestWrapper);
+        // 记录开始时间（异步请求再次分派时保留首次分派的时间）
+        if (request.getAttribute(START_TIME_ATTRIBUTE) == null) {
+            request.setAttribute(START_TIME_ATTRIBUTE, System.nanoTime());
+        }
         
         return true;
     }
 
     @Override
     public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
-        // 清除MDC
-        TraceIdUtils.clear();
+        // MDC由RequestContextInitFilter在请求结束时清除
+        logRequest(request, response, ex);
+    }
+
+    /**
+     * 按日志策略记录请求信息（非API请求未缓存请求体，只记录请求行和请求头）
+     */
+    private void logRequest(HttpServletRequest request, HttpServletResponse response, Exception ex) {
+        Object startTime = request.getAttribute(START_TIME_ATTRIBUTE);
+        long durationMillis = startTime instanceof Long start
+                ? TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) : -1;
+        int status = response.getStatus();
+
+        RequestLogPolicy.Route route = requestLogPolicy.resolve(request);
+        if (!requestLogPolicy.shouldLog(request, route, status, ex, durationMillis)) {
+            return;
+        }
+        RequestWrapper requestWrapper = WebUtils.getNativeRequest(request, RequestWrapper.class);
+        RequestLogUtils.logRequest(requestWrapper != null ? requestWrapper : request, route.isLogBody(),
+                new RequestLogEvent.Outcome(status, durationMillis, route.getMaxBodySize()));
     }
 } 
\ No newline at end of file
@@ -48,4 +48,9 @@ public class ResultCode {
      * 请求过多
      */
     public static final int TOO_MANY_REQUESTS = 429;
+
+    /**
+     * 服务繁忙，稍后重试
+     */
+    public static final int SERVICE_UNAVAILABLE = 503;
 } 
\ No newline at end of file
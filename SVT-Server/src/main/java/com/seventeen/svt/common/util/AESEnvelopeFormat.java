@@ -0,0 +1,197 @@
+package com.seventeen.svt.common.util;
+
+import lombok.Getter;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * AES加密信封格式
+ *
+ * JSON：{"encrypted":true,"iv":"...","timestamp":...,"version":"1.0","data":"...","mac":"..."}，密文和认证码Base64编码
+ * BINARY：固定头 + 原始密文（+ CBC认证码），免去Base64膨胀和信封JSON解析
+ *
+ * 二进制信封头（大端序，共 12 + IV长度 字节）：
+ * <pre>
+ * 0      1      2        3         4 ... 11     12 ... 12+ivLen   之后
+ * +------+------+--------+---------+-----------+-----------------+-----------
+ * | 版本 | 标志 | IV长度 | 保留(0) | 时间戳ms  | IV              | 密文 (+ 32字节认证码)
+ * +------+------+--------+---------+-----------+-----------------+-----------
+ * </pre>
+ *
+ * 标志位：bit0 = 明文已GZIP压缩，bit1 = AES-GCM模式（未设置时为CBC），bit2 = 信封末尾带CBC认证码
+ *
+ * GCM模式的附加认证数据（AAD）：二进制信封为完整信封头（版本、标志、时间戳和IV），
+ * JSON信封为 {@link #jsonAad} 生成的 "版本|模式|时间戳|压缩"，篡改信封中的时间戳或标识时认证失败
+ *
+ * CBC模式采用先加密后认证（encrypt-then-MAC），认证码为 HMAC-SHA256：
+ * - 认证密钥：HMAC-SHA256(AES密钥, {@link #MAC_KEY_LABEL})，与加密密钥分离
+ * - JSON信封：HMAC(jsonAad ‖ IV ‖ 密文)，Base64编码后放在 "mac" 字段
+ * - 二进制信封：HMAC(信封头 ‖ 密文)，32字节追加在密文之后，并设置标志位 bit2
+ *
+ * 协商方式：请求 Content-Type / 响应 Accept 为 application/x-svt-encrypted 时使用二进制格式
+ *
+ * @author SEVENTEEN
+ * @since 2026-10-17
+ */
+@Getter
+public enum AESEnvelopeFormat {
+
+    JSON("application/json;charset=UTF-8"),
+    BINARY("application/x-svt-encrypted");
+
+    /**
+     * 二进制加密信封媒体类型
+     */
+    public static final String BINARY_MEDIA_TYPE = "application/x-svt-encrypted";
+
+    /**
+     * JSON信封版本
+     */
+    public static final String JSON_VERSION = "1.0";
+
+    /**
+     * 二进制信封版本
+     */
+    public static final byte BINARY_VERSION = 1;
+
+    /**
+     * 二进制信封标志位：明文已GZIP压缩
+     */
+    public static final byte FLAG_GZIP = 0x01;
+
+    /**
+     * 二进制信封标志位：AES-GCM模式
+     */
+    public static final byte FLAG_GCM = 0x02;
+
+    /**
+     * 二进制信封标志位：信封末尾带CBC认证码
+     */
+    public static final byte FLAG_MAC = 0x04;
+
+    /**
+     * CBC认证码长度（HMAC-SHA256）
+     */
+    public static final int MAC_LENGTH = 32;
+
+    /**
+     * CBC认证密钥派生标签
+     */
+    public static final String MAC_KEY_LABEL = "SVT-ENVELOPE-MAC";
+
+    /**
+     * 二进制信封固定头长度（不含IV）
+     */
+    public static final int BINARY_HEADER_LENGTH = 12;
+
+    private final String contentType;
+
+    AESEnvelopeFormat(String contentType) {
+        this.contentType = contentType;
+    }
+
+    /**
+     * 根据媒体类型（Content-Type 或 Accept）判断信封格式
+     */
+    public static AESEnvelopeFormat fromMediaType(String mediaType) {
+        if (mediaType != null && mediaType.toLowerCase().contains(BINARY_MEDIA_TYPE)) {
+            return BINARY;
+        }
+        return JSON;
+    }
+
+    /**
+     * 组合二进制信封标志位
+     */
+    public static byte flags(AESMode mode, boolean compressed) {
+        int flags = compressed ? FLAG_GZIP : 0;
+        if (mode == AESMode.GCM) {
+            flags |= FLAG_GCM;
+        } else {
+            flags |= FLAG_MAC;
+        }
+        return (byte) flags;
+    }
+
+    /**
+     * 生成二进制信封头
+     */
+    public static byte[] binaryHeader(byte flags, long timestamp, byte[] iv) {
+        ByteBuffer buffer = ByteBuffer.allocate(BINARY_HEADER_LENGTH + iv.length);
+        buffer.put(BINARY_VERSION);
+        buffer.put(flags);
+        buffer.put((byte) iv.length);
+        buffer.put((byte) 0);
+        buffer.putLong(timestamp);
+        buffer.put(iv);
+        return buffer.array();
+    }
+
+    /**
+     * 生成JSON信封的附加认证数据（GCM模式作为AAD，CBC模式作为认证码输入的前缀）
+     * 格式：版本|模式|时间戳|压缩算法（未压缩时为空），UTF-8编码
+     */
+    public static byte[] jsonAad(AESMode mode, long timestamp, boolean compressed) {
+        String aad = JSON_VERSION + "|" + mode.name() + "|" + timestamp + "|" + (compressed ? "gzip" : "");
+        return aad.getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * 解析二进制信封头
+     *
+     * @param envelope 完整的二进制信封
+     * @return 信封头信息，格式无效时返回null
+     */
+    public static BinaryHeader parseBinaryHeader(byte[] envelope) {
+        if (envelope == null || envelope.length < BINARY_HEADER_LENGTH) {
+            return null;
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(envelope);
+        byte version = buffer.get();
+        byte flags = buffer.get();
+        int ivLength = buffer.get() & 0xFF;
+        buffer.get();
+        long timestamp = buffer.getLong();
+        if (version != BINARY_VERSION || ivLength == 0 || envelope.length < BINARY_HEADER_LENGTH + ivLength) {
+            return null;
+        }
+        byte[] iv = new byte[ivLength];
+        buffer.get(iv);
+        return new BinaryHeader(version, flags, timestamp, iv, BINARY_HEADER_LENGTH + ivLength);
+    }
+
+    /**
+     * 二进制信封头信息
+     */
+    @Getter
+    public static class BinaryHeader {
+        private final byte version;
+        private final byte flags;
+        private final long timestamp;
+        private final byte[] iv;
+        private final int payloadOffset;
+
+        public BinaryHeader(byte version, byte flags, long timestamp, byte[] iv, int payloadOffset) {
+            this.version = version;
+            this.flags = flags;
+            this.timestamp = timestamp;
+            this.iv = iv;
+            this.payloadOffset = payloadOffset;
+        }
+
+        /**
+         * 信封使用的加密模式
+         */
+        public AESMode getMode() {
+            return (flags & FLAG_GCM) != 0 ? AESMode.GCM : AESMode.CBC;
+        }
+
+        /**
+         * 信封末尾是否带CBC认证码
+         */
+        public boolean hasMac() {
+            return (flags & FLAG_MAC) != 0;
+        }
+    }
+}
@@ -0,0 +1,300 @@
+package com.seventeen.svt.common.util;
+
+import lombok.extern.slf4j.Slf4j;
+
+import javax.crypto.Cipher;
+import javax.crypto.CipherOutputStream;
+import javax.crypto.Mac;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * AES加密信封输出流
+ * 以流式方式生成加密信封，支持JSON信封（与 {@link AESUtils#encryptForAPI(String)} 格式一致）
+ * 和二进制信封（见 {@link AESEnvelopeFormat}）
+ *
+ * 设计说明：
+ * - 明文按块经Cipher加密、Base64编码后直接写入目标流，不缓存完整响应体
+ * - 首次写入时才打开目标流（此时设置响应头），空响应不输出任何内容
+ * - 单个请求的内存占用只与Cipher块和编码缓冲相关，与响应大小无关
+ * - 启用压缩时先缓冲至阈值：未达到阈值按原文加密，达到阈值则先GZIP压缩再加密，
+ *   并在信封中标记（JSON字段 "compressed":"gzip"，二进制标志位 {@link AESEnvelopeFormat#FLAG_GZIP}），
+ *   阈值判断与缓冲加密共用 {@link AESUtils#shouldCompress(long, int)}
+ * - GCM模式下认证标签在close时随Cipher.doFinal一并写出，信封标记 "mode":"GCM" / {@link AESEnvelopeFormat#FLAG_GCM}，
+ *   信封头（版本、模式、时间戳、压缩标识）作为附加认证数据计入认证标签
+ * - CBC模式下密文在写出的同时计入HMAC，close时在信封尾部写出认证码（JSON字段 "mac"，
+ *   二进制信封追加在密文之后并设置标志位 {@link AESEnvelopeFormat#FLAG_MAC}）
+ *
+ * JSON输出格式：{"encrypted":true,"iv":"...","timestamp":...,"version":"1.0","data":"...","mac":"..."}
+ * 二进制输出格式：信封头 + 原始密文（+ CBC认证码）
+ *
+ * @author SEVENTEEN
+ * @since 2026-10-17
+ */
+@Slf4j
+public class AESEnvelopeOutputStream extends OutputStream {
+
+    /**
+     * 目标输出流提供者
+     * 首次写入数据时调用，用于延迟设置响应头并获取真实输出流
+     */
+    @FunctionalInterface
+    public interface Sink {
+        OutputStream open() throws IOException;
+    }
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private final Sink sink;
+    private final Cipher cipher;
+    private final CipherPool cipherPool;
+    private final Mac mac;
+    private final AESEnvelopeFormat format;
+    private final AESMode mode;
+    private final byte[] iv;
+    private final long timestamp;
+    private final long maxDataSize;
+    private final int compressionThreshold;
+    private final byte[] singleByte = new byte[1];
+
+    private OutputStream target;
+    private OutputStream body;
+    private byte[] pending;
+    private int pendingCount;
+    private boolean compressed;
+    private long plainLength;
+    private boolean closed;
+
+    /**
+     * @param mac                  CBC认证码计算实例（已用认证密钥初始化），GCM模式为null
+     * @param compressionThreshold 压缩阈值（字节），小于等于0表示不压缩
+     */
+    public AESEnvelopeOutputStream(Sink sink, Cipher cipher, CipherPool cipherPool, Mac mac, AESEnvelopeFormat format,
+                                   AESMode mode, byte[] iv, long maxDataSize, int compressionThreshold) {
+        this.sink = sink;
+        this.cipher = cipher;
+        this.cipherPool = cipherPool;
+        this.mac = mac;
+        this.format = format;
+        this.mode = mode;
+        this.iv = iv;
+        this.timestamp = System.currentTimeMillis();
+        this.maxDataSize = maxDataSize;
+        this.compressionThreshold = compressionThreshold;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        singleByte[0] = (byte) b;
+        write(singleByte, 0, 1);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        if (closed) {
+            throw new IOException("加密输出流已关闭");
+        }
+        if (len == 0) {
+            return;
+        }
+        plainLength += len;
+        if (plainLength > maxDataSize) {
+            throw new IOException("响应数据大小超过限制: " + maxDataSize + " bytes");
+        }
+        if (body == null) {
+            if (compressionThreshold > 0 && !AESUtils.shouldCompress((long) pendingCount + len, compressionThreshold)) {
+                // 尚未达到压缩阈值，先缓冲
+                buffer(b, off, len);
+                return;
+            }
+            start(compressionThreshold > 0);
+        }
+        body.write(b, off, len);
+    }
+
+    /**
+     * 刷新输出
+     * 仍在缓冲阶段时按未压缩方式开始输出，保证主动flush的数据能及时送达客户端
+     */
+    @Override
+    public void flush() throws IOException {
+        if (closed) {
+            return;
+        }
+        if (body == null && pendingCount > 0) {
+            start(false);
+        }
+        if (body != null) {
+            body.flush();
+        }
+    }
+
+    /**
+     * 结束加密并写出信封尾部
+     * 未写入任何数据时不输出内容
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            if (body == null && pendingCount > 0) {
+                // 总长度未达到压缩阈值，按原文加密
+                start(false);
+            }
+            if (body == null) {
+                return;
+            }
+            // 依次完成Cipher.doFinal和Base64补位，目标流本身保持打开
+            body.close();
+            if (format == AESEnvelopeFormat.JSON) {
+                String tail = mac != null
+                        ? "\",\"mac\":\"" + Base64.getEncoder().encodeToString(mac.doFinal()) + "\"}"
+                        : "\"}";
+                target.write(tail.getBytes(StandardCharsets.US_ASCII));
+            } else if (mac != null) {
+                target.write(mac.doFinal());
+            }
+            target.flush();
+            log.debug("流式加密完成，明文长度: {}，是否压缩: {}", plainLength, compressed);
+        } finally {
+            cipherPool.release(cipher);
+        }
+    }
+
+    /**
+     * 是否已开始输出（响应已提交）
+     */
+    public boolean isStarted() {
+        return body != null;
+    }
+
+    /**
+     * 信封格式
+     */
+    public AESEnvelopeFormat getFormat() {
+        return format;
+    }
+
+    /**
+     * 是否已压缩
+     */
+    public boolean isCompressed() {
+        return compressed;
+    }
+
+    /**
+     * 已写入的明文字节数
+     */
+    public long getPlainLength() {
+        return plainLength;
+    }
+
+    private void buffer(byte[] b, int off, int len) {
+        if (pending == null) {
+            pending = new byte[compressionThreshold];
+        }
+        System.arraycopy(b, off, pending, pendingCount, len);
+        pendingCount += len;
+    }
+
+    private void start(boolean compress) throws IOException {
+        this.compressed = compress;
+        target = sink.open();
+        OutputStream encrypted;
+        if (format == AESEnvelopeFormat.BINARY) {
+            byte flags = AESEnvelopeFormat.flags(mode, compress);
+            byte[] header = AESEnvelopeFormat.binaryHeader(flags, timestamp, iv);
+            if (mode == AESMode.GCM) {
+                cipher.updateAAD(header);
+            }
+            if (mac != null) {
+                mac.update(header);
+            }
+            target.write(header);
+            encrypted = new CipherOutputStream(authenticated(new NonClosingOutputStream(target)), cipher);
+        } else {
+            byte[] aad = AESEnvelopeFormat.jsonAad(mode, timestamp, compress);
+            if (mode == AESMode.GCM) {
+                cipher.updateAAD(aad);
+            } else if (mac != null) {
+                mac.update(aad);
+                mac.update(iv);
+            }
+            String header = "{\"encrypted\":true,\"iv\":\"" + Base64.getEncoder().encodeToString(iv)
+                    + "\",\"timestamp\":" + timestamp
+                    + (compress ? ",\"compressed\":\"gzip\"" : "")
+                    + (mode == AESMode.GCM ? ",\"mode\":\"GCM\"" : "")
+                    + ",\"version\":\"" + AESEnvelopeFormat.JSON_VERSION + "\",\"data\":\"";
+            target.write(header.getBytes(StandardCharsets.US_ASCII));
+            OutputStream base64 = Base64.getEncoder().wrap(new NonClosingOutputStream(target));
+            encrypted = new CipherOutputStream(authenticated(base64), cipher);
+        }
+        // 先压缩后加密：明文 -> GZIP -> Cipher -> (Base64) -> 目标流
+        body = compress ? new GZIPOutputStream(encrypted, BUFFER_SIZE, true) : encrypted;
+
+        if (pendingCount > 0) {
+            body.write(pending, 0, pendingCount);
+            pending = null;
+            pendingCount = 0;
+        }
+    }
+
+    /**
+     * CBC模式下在密文写出途中计算认证码
+     */
+    private OutputStream authenticated(OutputStream out) {
+        return mac != null ? new MacOutputStream(out, mac) : out;
+    }
+
+    /**
+     * 将经过的字节计入认证码的输出流包装
+     */
+    private static class MacOutputStream extends FilterOutputStream {
+
+        private final Mac mac;
+
+        MacOutputStream(OutputStream out, Mac mac) {
+            super(out);
+            this.mac = mac;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            mac.update((byte) b);
+            out.write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            mac.update(b, off, len);
+            out.write(b, off, len);
+        }
+    }
+
+    /**
+     * 屏蔽close的输出流包装，保证编码器关闭时不关闭Servlet输出流
+     */
+    private static class NonClosingOutputStream extends FilterOutputStream {
+
+        NonClosingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+        }
+
+        @Override
+        public void close() throws IOException {
+            out.flush();
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.seventeen.svt.common.util;
+
+import lombok.Getter;
+
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.IvParameterSpec;
+import java.security.spec.AlgorithmParameterSpec;
+
+/**
+ * AES工作模式
+ *
+ * CBC：兼容现有客户端，16字节IV，先加密后以HMAC-SHA256认证信封元数据、IV和密文（见 {@link AESEnvelopeFormat}）
+ * GCM：认证加密（AEAD），12字节随机nonce + 128位认证标签，密文被篡改时解密直接失败；
+ *      JDK在支持AES-NI/PCLMULQDQ的CPU上使用硬件内建实现，吞吐高于CBC
+ *
+ * 信封标识：JSON信封字段 "mode":"GCM"，二进制信封标志位 {@link AESEnvelopeFormat#FLAG_GCM}，
+ * 未标识时按CBC处理；请求信封的模式必须与配置的模式一致，不能降级为CBC
+ *
+ * @author SEVENTEEN
+ * @since 2026-10-17
+ */
+@Getter
+public enum AESMode {
+
+    CBC("AES/CBC/PKCS5Padding", 16),
+    GCM("AES/GCM/NoPadding", 12);
+
+    /**
+     * GCM认证标签长度（位）
+     */
+    public static final int GCM_TAG_LENGTH = 128;
+
+    private final String transformation;
+    private final int ivLength;
+
+    AESMode(String transformation, int ivLength) {
+        this.transformation = transformation;
+        this.ivLength = ivLength;
+    }
+
+    /**
+     * 生成Cipher初始化参数
+     */
+    public AlgorithmParameterSpec parameterSpec(byte[] iv) {
+        return this == GCM ? new GCMParameterSpec(GCM_TAG_LENGTH, iv) : new IvParameterSpec(iv);
+    }
+
+    /**
+     * 根据信封中的模式标识解析工作模式，未标识时为CBC（兼容未携带该字段的现有客户端）
+     *
+     * @throws IllegalArgumentException 无法识别的模式标识
+     */
+    public static AESMode fromName(String name) {
+        if (name == null || name.isEmpty()) {
+            return CBC;
+        }
+        for (AESMode mode : values()) {
+            if (mode.name().equalsIgnoreCase(name)) {
+                return mode;
+            }
+        }
+        throw new IllegalArgumentException("Unknown AES mode: " + name);
+    }
+}
@@ -3,25 +3,45 @@ package com.seventeen.svt.common.util;
 import cn.hutool.core.codec.Base64;
 import com.seventeen.svt.common.config.AESConfig;
 import com.seventeen.svt.common.exception.BusinessException;
+import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.Cipher;
 import javax.crypto.KeyGenerator;
+import javax.crypto.Mac;
 import javax.crypto.SecretKey;
 import javax.crypto.spec.IvParameterSpec;
 import javax.crypto.spec.SecretKeySpec;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.security.SecureRandom;
+import java.util.Arrays;
+import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.zip.GZIPOutputStream;
 
 /**
  * AES加密工具类
- * 支持AES-256-CBC加密算法
+ * 支持AES-256-CBC和AES-256-GCM加密算法（见 {@link AESMode}）
  * 用于API请求响应数据的加密解密
  * 
+ * 性能说明：
+ * - 密钥在启动或配置变更时解码校验一次，之后直接复用
+ * - Cipher实例池化复用，每次请求只承担加解密本身的计算
+ * - 响应可选先GZIP压缩再加密（达到阈值时），密文不可压缩，压缩必须在加密之前完成
+ * - 请求解密成功后按IV/nonce做防重放检查（见 {@link NonceReplayCache}），启用防重放时信封必须携带时间戳
+ * - GCM模式下信封的版本、模式、时间戳（及压缩标识）作为附加认证数据计入认证标签，篡改后解密失败
+ * - CBC模式采用先加密后认证，信封附带覆盖元数据、IV和密文的HMAC-SHA256认证码，先校验认证码再解密；
+ *   启用防重放时拒绝未携带认证码的CBC信封（否则时间戳可被改写，防重放窗口形同虚设）
+ * - 请求和响应都使用配置的模式，信封中的模式标识与配置不一致的请求被拒绝（防止降级为无认证的CBC）
+ * 
  * @author SEVENTEEN
  * @since 2025-06-17
  */
@@ -33,11 +53,11 @@ public class AESUtils {
      * 加密算法
      */
     private static final String ALGORITHM = "AES";
-    
+
     /**
-     * 加密/解密算法/工作模式/填充方式
+     * CBC信封认证算法
      */
-    private static final String TRANSFORMATION = "AES/CBC/PKCS5Padding";
+    private static final String MAC_ALGORITHM = "HmacSHA256";
     
     /**
      * 密钥长度
@@ -54,16 +74,59 @@ public class AESUtils {
      */
     private static final int MAX_DATA_SIZE = 10 * 1024 * 1024;
 
+    /**
+     * 信封压缩算法标识
+     */
+    public static final String COMPRESSION_GZIP = "gzip";
+
     /**
      * AES配置管理
      */
     private final AESConfig aesConfig;
 
+    /**
+     * 当前密钥材料，配置中的密钥变化时整体原子替换
+     */
+    private final AtomicReference<KeyMaterial> keyMaterial = new AtomicReference<>();
+
+    /**
+     * Cipher实例池（按工作模式区分）
+     */
+    private final Map<AESMode, CipherPool> cipherPools = new EnumMap<>(AESMode.class);
+
+    /**
+     * 防重放缓存，未启用时为null
+     */
+    private final NonceReplayCache replayCache;
+
     /**
      * 构造函数注入AES配置
      */
     public AESUtils(AESConfig aesConfig) {
         this.aesConfig = aesConfig;
+        for (AESMode mode : AESMode.values()) {
+            cipherPools.put(mode, new CipherPool(mode.getTransformation(), aesConfig.getCipherPoolSize()));
+        }
+        this.replayCache = aesConfig.isReplayProtection()
+                ? new NonceReplayCache(aesConfig.getTimestampTolerance(), aesConfig.getReplayCapacity(),
+                        aesConfig.getReplayFalsePositiveRate())
+                : null;
+    }
+
+    /**
+     * 启动时预先解码并校验密钥，避免首个请求承担密钥处理开销
+     */
+    @PostConstruct
+    public void init() {
+        if (!aesConfig.isEnabled()) {
+            return;
+        }
+        try {
+            getKeySpec();
+            log.info("AES密钥材料加载完成");
+        } catch (BusinessException e) {
+            log.error("AES密钥材料加载失败: {}", e.getMessage());
+        }
     }
 
     /**
@@ -138,9 +201,6 @@ public class AESUtils {
         }
 
         try {
-            // 准备密钥
-            SecretKeySpec keySpec = new SecretKeySpec(getKeyBytes(), ALGORITHM);
-            
             // 准备IV
             byte[] iv = Base64.decode(ivString);
             if (iv.length != IV_LENGTH) {
@@ -149,9 +209,15 @@ public class AESUtils {
             IvParameterSpec ivSpec = new IvParameterSpec(iv);
 
             // 执行加密
-            Cipher cipher = Cipher.getInstance(TRANSFORMATION);
-            cipher.init(Cipher.ENCRYPT_MODE, keySpec, ivSpec);
-            byte[] encryptedData = cipher.doFinal(data);
+            byte[] encryptedData;
+            CipherPool cipherPool = cipherPools.get(AESMode.CBC);
+            Cipher cipher = cipherPool.borrow();
+            try {
+                cipher.init(Cipher.ENCRYPT_MODE, getKeySpec(), ivSpec);
+                encryptedData = cipher.doFinal(data);
+            } finally {
+                cipherPool.release(cipher);
+            }
 
             String result = Base64.encode(encryptedData);
             log.debug("AES加密成功，原文长度: {}，密文长度: {}", data.length, encryptedData.length);
@@ -182,9 +248,6 @@ public class AESUtils {
         }
 
         try {
-            // 准备密钥
-            SecretKeySpec keySpec = new SecretKeySpec(getKeyBytes(), ALGORITHM);
-            
             // 准备IV
             byte[] iv = Base64.decode(ivString);
             if (iv.length != IV_LENGTH) {
@@ -199,9 +262,15 @@ public class AESUtils {
             }
 
             // 执行解密
-            Cipher cipher = Cipher.getInstance(TRANSFORMATION);
-            cipher.init(Cipher.DECRYPT_MODE, keySpec, ivSpec);
-            byte[] decryptedData = cipher.doFinal(cipherData);
+            byte[] decryptedData;
+            CipherPool cipherPool = cipherPools.get(AESMode.CBC);
+            Cipher cipher = cipherPool.borrow();
+            try {
+                cipher.init(Cipher.DECRYPT_MODE, getKeySpec(), ivSpec);
+                decryptedData = cipher.doFinal(cipherData);
+            } finally {
+                cipherPool.release(cipher);
+            }
 
             String result = new String(decryptedData, StandardCharsets.UTF_8);
             log.debug("AES解密成功，密文长度: {}，明文长度: {}", cipherData.length, decryptedData.length);
@@ -234,8 +303,8 @@ public class AESUtils {
      */
     public boolean validateKey() {
         try {
-            byte[] keyBytes = getKeyBytes();
-            return keyBytes.length == 32; // AES-256需要32字节密钥
+            getKeySpec(); // 解码时已校验AES-256需要的32字节长度
+            return true;
         } catch (Exception e) {
             log.warn("密钥验证失败: {}", e.getMessage());
             return false;
@@ -243,34 +312,86 @@ public class AESUtils {
     }
 
     /**
-     * 获取密钥字节数组
+     * 获取当前密钥
+     * 配置未变化时直接返回已解码的密钥；配置变化时重新解码并原子替换
      *
-     * @return 密钥字节数组
+     * @return 密钥
+     * @throws BusinessException 密钥处理失败
+     */
+    private SecretKeySpec getKeySpec() throws BusinessException {
+        return currentKeyMaterial().keySpec;
+    }
+
+    /**
+     * 获取当前密钥材料（加密密钥及派生的CBC认证密钥）
+     * 配置未变化时直接返回已解码的密钥材料；配置变化时重新解码、派生并原子替换
+     *
+     * @return 密钥材料
      * @throws BusinessException 密钥处理失败
      */
-    private byte[] getKeyBytes() throws BusinessException {
+    private KeyMaterial currentKeyMaterial() throws BusinessException {
         String secretKey = aesConfig.getKey();
-        if (secretKey == null || secretKey.isEmpty()) {
-            throw new BusinessException("AES密钥未在配置中设置 (svt.security.aes.key)");
+        KeyMaterial current = keyMaterial.get();
+        if (current != null && current.source.equals(secretKey)) {
+            return current;
         }
 
+        // 并发下可能重复解码同一密钥，结果一致，后写入者生效
+        byte[] keyBytes = decodeKey(secretKey);
+        KeyMaterial rebuilt = new KeyMaterial(secretKey, new SecretKeySpec(keyBytes, ALGORITHM), deriveMacKey(keyBytes));
+        keyMaterial.set(rebuilt);
+        if (current != null) {
+            log.info("检测到AES密钥配置变更，已切换为新的密钥材料");
+        }
+        return rebuilt;
+    }
+
+    /**
+     * 由AES密钥派生CBC信封认证密钥：HMAC-SHA256(AES密钥, 派生标签)
+     * 加密与认证使用不同的密钥，客户端按相同方式派生
+     *
+     * @param keyBytes AES密钥字节
+     * @return 认证密钥
+     * @throws BusinessException 派生失败
+     */
+    private static SecretKeySpec deriveMacKey(byte[] keyBytes) throws BusinessException {
         try {
-            log.debug("从配置加载的AES密钥 (Base64): {}", secretKey);
-            byte[] keyBytes = Base64.decode(secretKey);
+            Mac mac = Mac.getInstance(MAC_ALGORITHM);
+            mac.init(new SecretKeySpec(keyBytes, MAC_ALGORITHM));
+            byte[] macKey = mac.doFinal(AESEnvelopeFormat.MAC_KEY_LABEL.getBytes(StandardCharsets.UTF_8));
+            return new SecretKeySpec(macKey, MAC_ALGORITHM);
+        } catch (GeneralSecurityException e) {
+            log.error("AES认证密钥派生失败: {}", e.getMessage(), e);
+            throw new BusinessException("AES认证密钥派生失败");
+        }
+    }
 
-            if (keyBytes.length != 32) {
-                String errorMessage = String.format("无效的AES密钥长度。期望32字节（AES-256），实际为 %d 字节。请检查Base64密钥配置。", keyBytes.length);
-                log.error(errorMessage);
-                throw new BusinessException(errorMessage);
-            }
-            
-            log.debug("成功解码AES密钥，长度: {} 字节", keyBytes.length);
-            return keyBytes;
+    /**
+     * 解码并校验密钥
+     *
+     * @param secretKey Base64编码的密钥
+     * @return 密钥字节数组
+     * @throws BusinessException 密钥处理失败
+     */
+    private byte[] decodeKey(String secretKey) throws BusinessException {
+        if (secretKey == null || secretKey.isEmpty()) {
+            throw new BusinessException("AES密钥未在配置中设置 (svt.security.aes.key)");
+        }
 
+        byte[] keyBytes;
+        try {
+            keyBytes = Base64.decode(secretKey);
         } catch (Exception e) {
             log.error("AES密钥处理失败：无法将配置的密钥解码为有效的Base64格式。请检查 svt.security.aes.key 的配置。", e);
             throw new BusinessException("AES密钥配置无效，必须是有效的Base64编码字符串。");
         }
+
+        if (keyBytes.length != 32) {
+            String errorMessage = String.format("无效的AES密钥长度。期望32字节（AES-256），实际为 %d 字节。请检查Base64密钥配置。", keyBytes.length);
+            log.error(errorMessage);
+            throw new BusinessException(errorMessage);
+        }
+        return keyBytes;
     }
 
     /**
@@ -282,23 +403,57 @@ public class AESUtils {
      * @throws BusinessException 加密失败
      */
     public Map<String, Object> encryptForAPI(String jsonData) throws BusinessException {
+        return encryptForAPI(jsonData, false);
+    }
+
+    /**
+     * API专用加密方法（可选压缩）
+     * 客户端声明支持且数据达到压缩阈值时，先GZIP压缩明文再加密，并在信封中标记 "compressed":"gzip"
+     *
+     * @param jsonData JSON字符串数据
+     * @param compress 客户端是否支持压缩
+     * @return 加密后的API格式数据
+     * @throws BusinessException 加密失败
+     */
+    public Map<String, Object> encryptForAPI(String jsonData, boolean compress) throws BusinessException {
         if (jsonData == null || jsonData.isEmpty()) {
             throw new BusinessException("待加密数据不能为空");
         }
 
+        byte[] plainData = jsonData.getBytes(StandardCharsets.UTF_8);
+        if (!aesConfig.isDataSizeValid(plainData.length)) {
+            throw new BusinessException("数据大小超过限制: " + aesConfig.getMaxDataSize() + " bytes");
+        }
+
         try {
-            // 生成IV并加密
-            EncryptionResult result = encryptWithIV(jsonData);
-            
+            AESMode mode = aesConfig.getMode();
+            byte[] iv = newIV(mode);
+            long timestamp = System.currentTimeMillis();
+            boolean compressed = shouldCompress(compress, plainData.length);
+            byte[] aad = mode == AESMode.GCM ? AESEnvelopeFormat.jsonAad(mode, timestamp, compressed) : null;
+            byte[] encryptedData = encryptBytes(mode, compressed ? gzip(plainData) : plainData, iv, aad);
+
             // 构造API格式的加密数据
             Map<String, Object> encryptedResponse = new HashMap<>();
             encryptedResponse.put("encrypted", true);
-            encryptedResponse.put("data", result.getEncryptedData());
-            encryptedResponse.put("iv", result.getIv());
-            encryptedResponse.put("timestamp", System.currentTimeMillis());
-            encryptedResponse.put("version", "1.0");
-            
-            log.debug("API数据加密成功，原始长度: {}", jsonData.length());
+            encryptedResponse.put("data", Base64.encode(encryptedData));
+            encryptedResponse.put("iv", Base64.encode(iv));
+            encryptedResponse.put("timestamp", timestamp);
+            if (compressed) {
+                encryptedResponse.put("compressed", COMPRESSION_GZIP);
+            }
+            if (mode == AESMode.GCM) {
+                encryptedResponse.put("mode", mode.name());
+            } else {
+                // CBC先加密后认证：认证码覆盖版本、模式、时间戳、压缩标识、IV和密文
+                Mac mac = newMac();
+                mac.update(AESEnvelopeFormat.jsonAad(mode, timestamp, compressed));
+                mac.update(iv);
+                encryptedResponse.put("mac", Base64.encode(mac.doFinal(encryptedData)));
+            }
+            encryptedResponse.put("version", AESEnvelopeFormat.JSON_VERSION);
+
+            log.debug("API数据加密成功，原始长度: {}，是否压缩: {}", plainData.length, compressed);
             return encryptedResponse;
             
         } catch (Exception e) {
@@ -307,6 +462,62 @@ public class AESUtils {
         }
     }
 
+    /**
+     * API专用流式加密方法
+     * 返回的输出流按块加密写入的明文，并以与 {@link #encryptForAPI(String)} 相同的信封格式输出
+     *
+     * @param sink 目标输出流提供者，首次写入时调用
+     * @return 加密信封输出流
+     * @throws BusinessException 加密初始化失败
+     */
+    public AESEnvelopeOutputStream createEnvelopeStream(AESEnvelopeOutputStream.Sink sink) throws BusinessException {
+        return createEnvelopeStream(sink, AESEnvelopeFormat.JSON);
+    }
+
+    /**
+     * API专用流式加密方法（指定信封格式）
+     *
+     * @param sink   目标输出流提供者，首次写入时调用
+     * @param format 信封格式
+     * @return 加密信封输出流
+     * @throws BusinessException 加密初始化失败
+     */
+    public AESEnvelopeOutputStream createEnvelopeStream(AESEnvelopeOutputStream.Sink sink,
+                                                        AESEnvelopeFormat format) throws BusinessException {
+        return createEnvelopeStream(sink, format, false);
+    }
+
+    /**
+     * API专用流式加密方法（指定信封格式，可选压缩）
+     * 写入数据达到压缩阈值时先GZIP压缩再加密，未达到阈值时按原文加密
+     *
+     * @param sink     目标输出流提供者，首次写入时调用
+     * @param format   信封格式
+     * @param compress 客户端是否支持压缩
+     * @return 加密信封输出流
+     * @throws BusinessException 加密初始化失败
+     */
+    public AESEnvelopeOutputStream createEnvelopeStream(AESEnvelopeOutputStream.Sink sink, AESEnvelopeFormat format,
+                                                        boolean compress) throws BusinessException {
+        int compressionThreshold = compress && aesConfig.isCompressionEnabled()
+                ? Math.max(1, aesConfig.getCompressionThreshold()) : 0;
+        AESMode mode = aesConfig.getMode();
+        byte[] iv = newIV(mode);
+        try {
+            CipherPool cipherPool = cipherPools.get(mode);
+            Cipher cipher = cipherPool.borrow();
+            cipher.init(Cipher.ENCRYPT_MODE, getKeySpec(), mode.parameterSpec(iv));
+            Mac mac = mode == AESMode.CBC ? newMac() : null;
+            return new AESEnvelopeOutputStream(sink, cipher, cipherPool, mac, format, mode, iv,
+                    aesConfig.getMaxDataSize(), compressionThreshold);
+        } catch (BusinessException e) {
+            throw e;
+        } catch (Exception e) {
+            log.error("流式加密初始化失败: {}", e.getMessage(), e);
+            throw new BusinessException("数据加密失败");
+        }
+    }
+
     /**
      * API专用解密方法
      * 将API传输格式的加密数据解密为JSON
@@ -316,6 +527,18 @@ public class AESUtils {
      * @throws BusinessException 解密失败
      */
     public String decryptFromAPI(Map<String, Object> encryptedData) throws BusinessException {
+        return new String(decryptBytesFromAPI(encryptedData), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * API专用解密方法（字节形式）
+     * 直接返回解密后的UTF-8字节，供请求包装器使用，避免先转字符串再编码回字节
+     *
+     * @param encryptedData API格式的加密数据
+     * @return 解密后的JSON字节
+     * @throws BusinessException 解密失败
+     */
+    public byte[] decryptBytesFromAPI(Map<String, Object> encryptedData) throws BusinessException {
         if (encryptedData == null || encryptedData.isEmpty()) {
             throw new BusinessException("待解密数据不能为空");
         }
@@ -327,34 +550,57 @@ public class AESUtils {
             }
 
             String data = (String) encryptedData.get("data");
-            String iv = (String) encryptedData.get("iv");
+            String ivString = (String) encryptedData.get("iv");
             
-            if (data == null || iv == null) {
+            if (data == null || ivString == null) {
                 throw new BusinessException("加密数据格式不完整");
             }
 
-            // 验证时间戳（防重放攻击）
+            AESMode mode = AESMode.fromName((String) encryptedData.get("mode"));
+            checkMode(mode);
+
+            // 验证时间戳（防重放攻击）：启用防重放、GCM模式或携带认证码（时间戳均计入认证）时必须携带
             Object timestampObj = encryptedData.get("timestamp");
-            if (timestampObj instanceof Number) {
-                long timestamp = ((Number) timestampObj).longValue();
-                long currentTime = System.currentTimeMillis();
-                long timeDiff = Math.abs(currentTime - timestamp);
-                
-                // 检查时间戳容差（默认10分钟）
-                if (timeDiff > aesConfig.getTimestampTolerance()) {
-                    log.warn("时间戳验证失败，时间差: {}ms", timeDiff);
-                    // 在调试模式下只警告，不阻止解密
-                    if (!aesConfig.isDebug()) {
-                        throw new BusinessException("请求时间戳超出允许范围");
-                    }
+            Object macObj = encryptedData.get("mac");
+            if (!(timestampObj instanceof Number)) {
+                if (replayCache != null || mode == AESMode.GCM || macObj != null) {
+                    throw new BusinessException("加密数据缺少时间戳");
+                }
+            } else {
+                validateTimestamp(((Number) timestampObj).longValue());
+            }
+            byte[] iv = Base64.decode(ivString);
+            if (iv.length != mode.getIvLength()) {
+                throw new BusinessException("IV长度不正确，期望" + mode.getIvLength() + "字节");
+            }
+            byte[] cipherData = Base64.decode(data);
+            if (!aesConfig.isDataSizeValid(cipherData.length)) {
+                throw new BusinessException("数据大小超过限制: " + aesConfig.getMaxDataSize() + " bytes");
+            }
+
+            byte[] aad = timestampObj instanceof Number
+                    ? AESEnvelopeFormat.jsonAad(mode, ((Number) timestampObj).longValue(),
+                            AESUtils.COMPRESSION_GZIP.equals(encryptedData.get("compressed")))
+                    : null;
+            if (mode == AESMode.CBC) {
+                // 先校验认证码再解密，元数据或密文被篡改的信封不进入解密和填充校验
+                if (macObj == null) {
+                    checkMacMissing();
+                } else {
+                    Mac mac = newMac();
+                    mac.update(aad);
+                    mac.update(iv);
+                    checkMac(mac.doFinal(cipherData), Base64.decode((String) macObj));
                 }
             }
 
-            // 执行解密
-            String result = decrypt(data, iv);
+            // 执行解密，成功后再记录nonce，避免伪造数据占用防重放缓存
+            byte[] decryptedData = decryptBytes(mode, cipherData, 0, cipherData.length, iv,
+                    mode == AESMode.GCM ? aad : null);
+            checkReplay(iv);
             
-            log.debug("API数据解密成功，解密后长度: {}", result.length());
-            return result;
+            log.debug("API数据解密成功，模式: {}，解密后长度: {}", mode, decryptedData.length);
+            return decryptedData;
             
         } catch (Exception e) {
             log.error("API数据解密失败: {}", e.getMessage(), e);
@@ -362,6 +608,309 @@ public class AESUtils {
         }
     }
 
+    /**
+     * 二进制信封加密方法
+     * 输出格式见 {@link AESEnvelopeFormat}
+     *
+     * @param plainData 明文字节
+     * @return 二进制加密信封
+     * @throws BusinessException 加密失败
+     */
+    public byte[] encryptForBinary(byte[] plainData) throws BusinessException {
+        return encryptForBinary(plainData, false);
+    }
+
+    /**
+     * 二进制信封加密方法（可选压缩）
+     * 压缩时设置信封标志位 {@link AESEnvelopeFormat#FLAG_GZIP}；CBC模式在密文之后追加认证码
+     *
+     * @param plainData 明文字节
+     * @param compress  客户端是否支持压缩
+     * @return 二进制加密信封
+     * @throws BusinessException 加密失败
+     */
+    public byte[] encryptForBinary(byte[] plainData, boolean compress) throws BusinessException {
+        if (plainData == null || plainData.length == 0) {
+            throw new BusinessException("待加密数据不能为空");
+        }
+        if (!aesConfig.isDataSizeValid(plainData.length)) {
+            throw new BusinessException("数据大小超过限制: " + aesConfig.getMaxDataSize() + " bytes");
+        }
+
+        AESMode mode = aesConfig.getMode();
+        byte[] iv = newIV(mode);
+        boolean compressed = shouldCompress(compress, plainData.length);
+        byte flags = AESEnvelopeFormat.flags(mode, compressed);
+        byte[] header = AESEnvelopeFormat.binaryHeader(flags, System.currentTimeMillis(), iv);
+        try {
+            if (compressed) {
+                plainData = gzip(plainData);
+            }
+            CipherPool cipherPool = cipherPools.get(mode);
+            Cipher cipher = cipherPool.borrow();
+            try {
+                cipher.init(Cipher.ENCRYPT_MODE, getKeySpec(), mode.parameterSpec(iv));
+                if (mode == AESMode.GCM) {
+                    cipher.updateAAD(header);
+                }
+                // 密文直接写入信封头之后，CBC认证码紧随密文，避免额外拷贝
+                int macLength = mode == AESMode.CBC ? AESEnvelopeFormat.MAC_LENGTH : 0;
+                byte[] envelope = new byte[header.length + cipher.getOutputSize(plainData.length) + macLength];
+                System.arraycopy(header, 0, envelope, 0, header.length);
+                int length = header.length + cipher.doFinal(plainData, 0, plainData.length, envelope, header.length);
+                if (mode == AESMode.CBC) {
+                    Mac mac = newMac();
+                    mac.update(envelope, 0, length);
+                    mac.doFinal(envelope, length);
+                    length += macLength;
+                }
+                return length == envelope.length ? envelope : Arrays.copyOf(envelope, length);
+            } finally {
+                cipherPool.release(cipher);
+            }
+        } catch (Exception e) {
+            log.error("二进制信封加密失败: {}", e.getMessage(), e);
+            throw new BusinessException("API数据加密失败");
+        }
+    }
+
+    /**
+     * 二进制信封解密方法
+     *
+     * @param envelope 二进制加密信封
+     * @return 明文字节
+     * @throws BusinessException 解密失败
+     */
+    public byte[] decryptFromBinary(byte[] envelope) throws BusinessException {
+        AESEnvelopeFormat.BinaryHeader header = AESEnvelopeFormat.parseBinaryHeader(envelope);
+        if (header == null) {
+            throw new BusinessException("加密数据格式不完整");
+        }
+        AESMode mode = header.getMode();
+        if (header.getIv().length != mode.getIvLength()) {
+            throw new BusinessException("加密数据格式不完整");
+        }
+        checkMode(mode);
+
+        try {
+            // 验证时间戳（防重放攻击）
+            validateTimestamp(header.getTimestamp());
+
+            int offset = header.getPayloadOffset();
+            if (!aesConfig.isDataSizeValid(envelope.length - offset)) {
+                throw new BusinessException("数据大小超过限制: " + aesConfig.getMaxDataSize() + " bytes");
+            }
+
+            // CBC先校验认证码（覆盖信封头和密文）再解密
+            int end = envelope.length;
+            if (mode == AESMode.CBC) {
+                if (header.hasMac()) {
+                    end -= AESEnvelopeFormat.MAC_LENGTH;
+                    if (end < offset) {
+                        throw new BusinessException("加密数据格式不完整");
+                    }
+                    Mac mac = newMac();
+                    mac.update(envelope, 0, end);
+                    checkMac(mac.doFinal(), Arrays.copyOfRange(envelope, end, envelope.length));
+                } else {
+                    checkMacMissing();
+                }
+            }
+
+            byte[] aad = mode == AESMode.GCM ? Arrays.copyOf(envelope, offset) : null;
+            byte[] result = decryptBytes(mode, envelope, offset, end - offset, header.getIv(), aad);
+            checkReplay(header.getIv());
+            log.debug("二进制信封解密成功，模式: {}，密文长度: {}，明文长度: {}",
+                    mode, end - offset, result.length);
+            return result;
+        } catch (Exception e) {
+            log.error("二进制信封解密失败: {}", e.getMessage(), e);
+            throw new BusinessException("API数据解密失败");
+        }
+    }
+
+    /**
+     * 是否对本次响应进行压缩
+     */
+    private boolean shouldCompress(boolean compress, int length) {
+        return compress && aesConfig.isCompressionEnabled() && shouldCompress(length, aesConfig.getCompressionThreshold());
+    }
+
+    /**
+     * 明文长度是否达到压缩阈值
+     * 缓冲加密和流式加密（见 {@link AESEnvelopeOutputStream}）共用此判断，同一响应两种方式的压缩结果一致
+     */
+    static boolean shouldCompress(long length, int threshold) {
+        return length >= threshold;
+    }
+
+    /**
+     * 生成指定模式所需长度的随机IV/nonce
+     */
+    private byte[] newIV(AESMode mode) {
+        byte[] iv = new byte[mode.getIvLength()];
+        SECURE_RANDOM.nextBytes(iv);
+        return iv;
+    }
+
+    /**
+     * 加密字节数据
+     *
+     * @param aad 附加认证数据（仅GCM），为null时不设置
+     */
+    private byte[] encryptBytes(AESMode mode, byte[] data, byte[] iv, byte[] aad) throws Exception {
+        CipherPool cipherPool = cipherPools.get(mode);
+        Cipher cipher = cipherPool.borrow();
+        try {
+            cipher.init(Cipher.ENCRYPT_MODE, getKeySpec(), mode.parameterSpec(iv));
+            if (aad != null) {
+                cipher.updateAAD(aad);
+            }
+            return cipher.doFinal(data);
+        } finally {
+            cipherPool.release(cipher);
+        }
+    }
+
+    /**
+     * 解密字节数据
+     * GCM模式下认证标签（含附加认证数据）校验失败会抛出AEADBadTagException
+     *
+     * @param aad 附加认证数据（仅GCM），为null时不设置
+     */
+    private byte[] decryptBytes(AESMode mode, byte[] data, int offset, int length, byte[] iv, byte[] aad)
+            throws Exception {
+        CipherPool cipherPool = cipherPools.get(mode);
+        Cipher cipher = cipherPool.borrow();
+        try {
+            cipher.init(Cipher.DECRYPT_MODE, getKeySpec(), mode.parameterSpec(iv));
+            if (aad != null) {
+                cipher.updateAAD(aad);
+            }
+            return cipher.doFinal(data, offset, length);
+        } finally {
+            cipherPool.release(cipher);
+        }
+    }
+
+    /**
+     * 检查请求信封的加密模式与配置一致
+     * 配置GCM时不接受CBC信封，否则攻击者可将请求降级为无完整性保护的CBC
+     *
+     * @throws BusinessException 模式不一致
+     */
+    private void checkMode(AESMode mode) throws BusinessException {
+        if (mode != aesConfig.getMode()) {
+            log.warn("拒绝加密模式与配置不一致的请求，信封模式: {}，配置模式: {}", mode, aesConfig.getMode());
+            throw new BusinessException("加密模式与服务端配置不一致");
+        }
+    }
+
+    /**
+     * 创建CBC信封认证码计算实例（Mac不是线程安全的，每个信封单独创建）
+     *
+     * @return 以当前认证密钥初始化的Mac
+     * @throws BusinessException 初始化失败
+     */
+    private Mac newMac() throws BusinessException {
+        try {
+            Mac mac = Mac.getInstance(MAC_ALGORITHM);
+            mac.init(currentKeyMaterial().macKey);
+            return mac;
+        } catch (GeneralSecurityException e) {
+            log.error("认证码计算初始化失败: {}", e.getMessage(), e);
+            throw new BusinessException("数据认证失败");
+        }
+    }
+
+    /**
+     * 以常量时间比较CBC信封认证码
+     *
+     * @throws BusinessException 认证码不一致
+     */
+    private static void checkMac(byte[] actual, byte[] expected) throws BusinessException {
+        if (!MessageDigest.isEqual(actual, expected)) {
+            log.warn("CBC加密数据认证码校验失败");
+            throw new BusinessException("加密数据认证失败");
+        }
+    }
+
+    /**
+     * 处理未携带认证码的CBC信封
+     * 启用防重放时拒绝：时间戳未经认证可被改写，防重放窗口会被绕过；未启用时按旧客户端兼容处理
+     *
+     * @throws BusinessException 启用了防重放
+     */
+    private void checkMacMissing() throws BusinessException {
+        if (replayCache != null) {
+            log.warn("拒绝未携带认证码的CBC加密请求");
+            throw new BusinessException("加密数据缺少认证码");
+        }
+    }
+
+    /**
+     * 防重放检查：同一IV/nonce在时间戳容差窗口内只允许使用一次
+     * 调试模式下只警告，不阻止请求
+     *
+     * @param iv 信封IV/nonce
+     * @throws BusinessException 检测到重放
+     */
+    private void checkReplay(byte[] iv) throws BusinessException {
+        if (replayCache == null || replayCache.checkAndRecord(iv, System.currentTimeMillis())) {
+            return;
+        }
+        log.warn("检测到重放的加密请求");
+        if (!aesConfig.isDebug()) {
+            throw new BusinessException("重复的加密请求");
+        }
+    }
+
+    /**
+     * GZIP压缩
+     */
+    private static byte[] gzip(byte[] data) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, data.length / 4));
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out, 8192)) {
+            gzip.write(data);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * 验证时间戳是否在容差范围内（防重放攻击）
+     * 调试模式下只警告，不阻止解密
+     *
+     * @param timestamp 信封时间戳
+     * @throws BusinessException 时间戳超出允许范围
+     */
+    private void validateTimestamp(long timestamp) throws BusinessException {
+        long timeDiff = Math.abs(System.currentTimeMillis() - timestamp);
+
+        // 检查时间戳容差（默认10分钟）
+        if (timeDiff > aesConfig.getTimestampTolerance()) {
+            log.warn("时间戳验证失败，时间差: {}ms", timeDiff);
+            if (!aesConfig.isDebug()) {
+                throw new BusinessException("请求时间戳超出允许范围");
+            }
+        }
+    }
+
+    /**
+     * 密钥材料快照
+     * 保存原始配置值、解码后的密钥与派生的认证密钥，作为整体原子替换
+     */
+    private static final class KeyMaterial {
+        private final String source;
+        private final SecretKeySpec keySpec;
+        private final SecretKeySpec macKey;
+
+        private KeyMaterial(String source, SecretKeySpec keySpec, SecretKeySpec macKey) {
+            this.source = source;
+            this.keySpec = keySpec;
+            this.macKey = macKey;
+        }
+    }
+
     /**
      * 加密结果封装类
      */
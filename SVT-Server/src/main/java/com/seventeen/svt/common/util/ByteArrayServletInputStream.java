@@ -0,0 +1,109 @@
+package com.seventeen.svt.common.util;
+
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.ServletRequest;
+
+import java.nio.ByteBuffer;
+import java.util.Objects;
+
+/**
+ * 基于内存缓冲区的Servlet输入流
+ * 用于请求体已缓存在堆内（或已解密）的请求包装器，支持Servlet异步非阻塞读取
+ * 溢出到临时文件的请求体由 {@link RequestBodyHolder} 按位置读取文件，不经过此类
+ *
+ * 非阻塞读取说明：
+ * - 数据已全部就绪，isReady() 始终为true，读取不会阻塞
+ * - 设置ReadListener时通过AsyncContext在容器线程中回调：有数据时先调用onDataAvailable，
+ *   数据读完后调用onAllDataRead，回调异常交给onError
+ *
+ * @author SEVENTEEN
+ * @since 2026-10-17
+ */
+public class ByteArrayServletInputStream extends ServletInputStream {
+
+    private final ByteBuffer data;
+    private final ServletRequest request;
+    private ReadListener readListener;
+
+    /**
+     * @param data    请求体数据
+     * @param request 所属请求，用于非阻塞读取时获取AsyncContext
+     */
+    public ByteArrayServletInputStream(byte[] data, ServletRequest request) {
+        this(ByteBuffer.wrap(data), request);
+    }
+
+    /**
+     * @param data    请求体数据，从当前位置读到limit；流持有独立的读取位置，不影响传入的缓冲区
+     * @param request 所属请求，用于非阻塞读取时获取AsyncContext
+     */
+    public ByteArrayServletInputStream(ByteBuffer data, ServletRequest request) {
+        this.data = data.duplicate();
+        this.request = request;
+    }
+
+    @Override
+    public boolean isFinished() {
+        return !data.hasRemaining();
+    }
+
+    @Override
+    public boolean isReady() {
+        return true;
+    }
+
+    @Override
+    public void setReadListener(ReadListener listener) {
+        Objects.requireNonNull(listener, "ReadListener不能为空");
+        if (!request.isAsyncStarted()) {
+            throw new IllegalStateException("只有异步请求才能设置ReadListener");
+        }
+        if (readListener != null) {
+            throw new IllegalStateException("ReadListener已设置");
+        }
+        this.readListener = listener;
+        request.getAsyncContext().start(this::notifyListener);
+    }
+
+    @Override
+    public int read() {
+        return data.hasRemaining() ? data.get() & 0xFF : -1;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) {
+        Objects.checkFromIndexSize(off, len, b.length);
+        if (!data.hasRemaining()) {
+            return -1;
+        }
+        int count = Math.min(len, data.remaining());
+        data.get(b, off, count);
+        return count;
+    }
+
+    @Override
+    public long skip(long n) {
+        int count = (int) Math.max(0, Math.min(n, data.remaining()));
+        data.position(data.position() + count);
+        return count;
+    }
+
+    @Override
+    public int available() {
+        return data.remaining();
+    }
+
+    private void notifyListener() {
+        try {
+            if (!isFinished()) {
+                readListener.onDataAvailable();
+            }
+            if (isFinished()) {
+                readListener.onAllDataRead();
+            }
+        } catch (Throwable t) {
+            readListener.onError(t);
+        }
+    }
+}
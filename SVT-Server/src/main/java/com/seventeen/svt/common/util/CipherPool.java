@@ -0,0 +1,64 @@
+package com.seventeen.svt.common.util;
+
+import javax.crypto.Cipher;
+import java.security.GeneralSecurityException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Cipher实例池
+ * 复用 {@link Cipher} 实例，避免每次加解密都执行 Cipher.getInstance 的Provider查找
+ *
+ * 使用说明：
+ * - 借出的实例在使用前必须重新 init，池内不保留任何密钥或IV状态
+ * - 空闲实例数超过上限时直接丢弃，池大小有界
+ * - 实例未归还（如异常中断）不影响正确性，只是少复用一次
+ *
+ * @author SEVENTEEN
+ * @since 2026-10-17
+ */
+public class CipherPool {
+
+    private final String transformation;
+    private final int maxIdle;
+    private final ConcurrentLinkedQueue<Cipher> idle = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger idleCount = new AtomicInteger();
+
+    public CipherPool(String transformation, int maxIdle) {
+        this.transformation = transformation;
+        this.maxIdle = maxIdle;
+    }
+
+    /**
+     * 借出Cipher实例，池为空时新建
+     */
+    public Cipher borrow() throws GeneralSecurityException {
+        Cipher cipher = idle.poll();
+        if (cipher != null) {
+            idleCount.decrementAndGet();
+            return cipher;
+        }
+        return Cipher.getInstance(transformation);
+    }
+
+    /**
+     * 归还Cipher实例
+     */
+    public void release(Cipher cipher) {
+        if (cipher == null) {
+            return;
+        }
+        if (idleCount.incrementAndGet() <= maxIdle) {
+            idle.offer(cipher);
+        } else {
+            idleCount.decrementAndGet();
+        }
+    }
+
+    /**
+     * 当前空闲实例数
+     */
+    public int getIdleCount() {
+        return idleCount.get();
+    }
+}
@@ -0,0 +1,49 @@
+package com.seventeen.svt.common.util;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 粗粒度时钟
+ * 由后台守护线程每 {@value #TICK_MILLIS} 毫秒刷新一次当前时间，读取只是一次volatile读
+ *
+ * 设计说明：
+ * - 用于每个请求都会记录、但不需要毫秒精度的时间戳（如会话活动时间）
+ * - 同一刻度内的多次读取得到相同的值，调用方可据此合并重复写入
+ * - 刷新线程为守护线程，不影响应用停止
+ *
+ * @author SEVENTEEN
+ * @since 2026-10-17
+ */
+public final class CoarseClock {
+
+    /**
+     * 刷新间隔（毫秒）
+     */
+    public static final long TICK_MILLIS = 10;
+
+    private static volatile long now = System.currentTimeMillis();
+
+    static {
+        Thread ticker = new Thread(CoarseClock::tick, "svt-coarse-clock");
+        ticker.setDaemon(true);
+        ticker.start();
+    }
+
+    private CoarseClock() {
+    }
+
+    /**
+     * 当前时间（毫秒），误差不超过一个刷新间隔
+     */
+    public static long currentTimeMillis() {
+        return now;
+    }
+
+    private static void tick() {
+        long tickNanos = TICK_MILLIS * 1_000_000L;
+        while (true) {
+            LockSupport.parkNanos(tickNanos);
+            now = System.currentTimeMillis();
+        }
+    }
+}
@@ -0,0 +1,307 @@
+package com.seventeen.svt.common.util;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.StreamWriteFeature;
+import com.seventeen.svt.common.annotation.audit.SensitiveStrategy;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * JSON流式脱敏器
+ * 基于Jackson流式API逐个复制JSON令牌，遇到配置的敏感字段时替换字段值，一次遍历完成脱敏（可同时美化输出）
+ *
+ * 设计说明：
+ * - 不构建树模型，不产生中间字符串，普通字符串值直接复制解析器的字符缓冲区
+ * - 字段名按配置精确匹配（不区分大小写），只脱敏该字段的直接标量值，嵌套对象中的字段各自按字段名判断
+ * - 输入不完整（如日志截断）或中途格式错误时，保留已输出的脱敏内容，其余部分不输出
+ * - 实例不可变，可在多线程中共享
+ *
+ * @author SEVENTEEN
+ * @since 2026-10-17
+ */
+@Slf4j
+public final class JsonDesensitizer {
+
+    /**
+     * 默认敏感字段
+     */
+    public static final Map<String, SensitiveStrategy> DEFAULT_FIELDS = defaultFields();
+
+    /**
+     * 不脱敏，只复制（或美化）JSON，脱敏功能关闭时使用
+     */
+    public static final JsonDesensitizer NONE = new JsonDesensitizer(Map.of());
+
+    private static final JsonFactory JSON_FACTORY = JsonFactory.builder()
+            .disable(StreamWriteFeature.AUTO_CLOSE_CONTENT)
+            .disable(StreamWriteFeature.AUTO_CLOSE_TARGET)
+            .build();
+
+    private static final String MASKED_PASSWORD = "****";
+
+    private final Map<String, SensitiveStrategy> fields;
+
+    /**
+     * @param fields 敏感字段名及脱敏策略，字段名不区分大小写
+     */
+    public JsonDesensitizer(Map<String, SensitiveStrategy> fields) {
+        TreeMap<String, SensitiveStrategy> map = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        map.putAll(fields);
+        this.fields = map;
+    }
+
+    /**
+     * 脱敏JSON字符串并写出
+     *
+     * @param json   JSON字符串
+     * @param out    输出目标
+     * @param pretty 是否美化输出
+     * @return 输入是否为JSON对象或数组；返回false时不写出任何内容，由调用方按文本处理
+     */
+    public boolean write(String json, Writer out, boolean pretty) throws IOException {
+        try (JsonParser parser = JSON_FACTORY.createParser(json)) {
+            return copy(parser, out, pretty);
+        }
+    }
+
+    /**
+     * 脱敏UTF-8编码的JSON字节并写出，无需先解码为字符串
+     *
+     * @param json   JSON字节
+     * @param offset 起始位置
+     * @param length 字节数
+     * @param out    输出目标
+     * @param pretty 是否美化输出
+     * @return 输入是否为JSON对象或数组；返回false时不写出任何内容，由调用方按文本处理
+     */
+    public boolean write(byte[] json, int offset, int length, Writer out, boolean pretty) throws IOException {
+        try (JsonParser parser = JSON_FACTORY.createParser(json, offset, length)) {
+            return copy(parser, out, pretty);
+        }
+    }
+
+    private boolean copy(JsonParser parser, Writer out, boolean pretty) throws IOException {
+        JsonToken first;
+        try {
+            first = parser.nextToken();
+        } catch (JsonProcessingException e) {
+            return false;
+        }
+        if (first != JsonToken.START_OBJECT && first != JsonToken.START_ARRAY) {
+            return false;
+        }
+
+        try (JsonGenerator generator = JSON_FACTORY.createGenerator(out)) {
+            if (pretty) {
+                generator.useDefaultPrettyPrinter();
+            }
+            try {
+                copyValue(parser, generator);
+            } catch (JsonProcessingException e) {
+                log.debug("JSON不完整或格式错误，只输出已解析部分: {}", e.getOriginalMessage());
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 复制当前位置开始的一个完整JSON值，结束后忽略剩余内容
+     */
+    private void copyValue(JsonParser parser, JsonGenerator generator) throws IOException {
+        SensitiveStrategy strategy = null;
+        int depth = 0;
+        for (JsonToken token = parser.currentToken(); token != null; token = parser.nextToken()) {
+            if (strategy != null && token.isScalarValue()) {
+                writeMasked(parser, generator, strategy);
+            } else {
+                generator.copyCurrentEvent(parser);
+            }
+            strategy = token == JsonToken.FIELD_NAME ? fields.get(parser.currentName()) : null;
+
+            if (token.isStructStart()) {
+                depth++;
+            } else if (token.isStructEnd() && --depth == 0) {
+                return;
+            }
+        }
+    }
+
+    private static void writeMasked(JsonParser parser, JsonGenerator generator, SensitiveStrategy strategy)
+            throws IOException {
+        JsonToken token = parser.currentToken();
+        if (token == JsonToken.VALUE_NULL) {
+            generator.writeNull();
+            return;
+        }
+        if (strategy == SensitiveStrategy.PASSWORD) {
+            generator.writeString(MASKED_PASSWORD);
+            return;
+        }
+        if (token != JsonToken.VALUE_STRING && !token.isNumeric()) {
+            generator.copyCurrentEvent(parser);
+            return;
+        }
+        String value = parser.getText();
+        String masked = mask(value, strategy);
+        if (masked.equals(value)) {
+            generator.copyCurrentEvent(parser);
+        } else {
+            generator.writeString(masked);
+        }
+    }
+
+    /**
+     * 按策略脱敏字段值，不符合格式的值原样返回
+     */
+    static String mask(String value, SensitiveStrategy strategy) {
+        if (value.isEmpty()) {
+            return value;
+        }
+        return switch (strategy) {
+            case PASSWORD -> MASKED_PASSWORD;
+            case PHONE -> maskPhone(value);
+            case EMAIL -> maskEmail(value);
+            case ID_CARD -> maskIdCard(value);
+            case NAME -> maskName(value);
+            default -> SensitiveUtil.desensitizeValue(value, strategy);
+        };
+    }
+
+    /**
+     * 手机号：保留前3位和后4位
+     */
+    private static String maskPhone(String value) {
+        if (value.length() < 11 || value.charAt(0) != '1' || value.charAt(1) < '3' || value.charAt(1) > '9'
+                || !isDigits(value, 2, 11)) {
+            return value;
+        }
+        return value.substring(0, 3) + "****" + value.substring(7);
+    }
+
+    /**
+     * 邮箱：保留用户名前2个字符和@后内容
+     */
+    private static String maskEmail(String value) {
+        int at = value.indexOf('@');
+        if (at < 1 || at == value.length() - 1) {
+            return value;
+        }
+        for (int i = 0; i < at; i++) {
+            if (Character.isWhitespace(value.charAt(i))) {
+                return value;
+            }
+        }
+        return value.substring(0, Math.min(2, at)) + "***" + value.substring(at);
+    }
+
+    /**
+     * 身份证号：保留前6位和后4位
+     */
+    private static String maskIdCard(String value) {
+        if (value.length() < 18 || !isDigits(value, 0, 17)) {
+            return value;
+        }
+        char last = value.charAt(17);
+        if (!Character.isDigit(last) && last != 'X' && last != 'x') {
+            return value;
+        }
+        return value.substring(0, 6) + "********" + value.substring(14);
+    }
+
+    /**
+     * 中文姓名：保留姓氏
+     */
+    private static String maskName(String value) {
+        if (value.length() < 2 || !isHan(value.charAt(0)) || !isHan(value.charAt(1))) {
+            return value;
+        }
+        int end = 2;
+        while (end < value.length() && isHan(value.charAt(end))) {
+            end++;
+        }
+        return value.charAt(0) + "**" + value.substring(end);
+    }
+
+    private static boolean isDigits(String value, int from, int to) {
+        for (int i = from; i < to; i++) {
+            char c = value.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isHan(char c) {
+        return c >= '\u4e00' && c <= '\u9fa5';
+    }
+
+    private static Map<String, SensitiveStrategy> defaultFields() {
+        Map<String, SensitiveStrategy> fields = new LinkedHashMap<>();
+        for (String name : new String[]{"password", "pwd", "pass", "payPassword", "confirmPassword"}) {
+            fields.put(name, SensitiveStrategy.PASSWORD);
+        }
+        for (String name : new String[]{"phone", "mobile", "tel"}) {
+            fields.put(name, SensitiveStrategy.PHONE);
+        }
+        for (String name : new String[]{"email", "mail"}) {
+            fields.put(name, SensitiveStrategy.EMAIL);
+        }
+        for (String name : new String[]{"idcard", "id_card", "identity"}) {
+            fields.put(name, SensitiveStrategy.ID_CARD);
+        }
+        for (String name : new String[]{"name", "realName", "userName"}) {
+            fields.put(name, SensitiveStrategy.NAME);
+        }
+        return Map.copyOf(fields);
+    }
+
+    /**
+     * 写入 {@link StringBuilder} 的Writer，生成器直接写入调用方的缓冲区，不产生中间字符串
+     */
+    static final class StringBuilderWriter extends Writer {
+
+        private final StringBuilder builder;
+
+        StringBuilderWriter(StringBuilder builder) {
+            this.builder = builder;
+        }
+
+        @Override
+        public void write(int c) {
+            builder.append((char) c);
+        }
+
+        @Override
+        public void write(char[] cbuf, int off, int len) {
+            builder.append(cbuf, off, len);
+        }
+
+        @Override
+        public void write(String str, int off, int len) {
+            builder.append(str, off, off + len);
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() {
+        }
+
+        @Override
+        public String toString() {
+            return builder.toString();
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.seventeen.svt.common.util;
+
+import com.google.common.hash.BloomFilter;
+import com.google.common.hash.Funnels;
+import com.google.common.util.concurrent.Striped;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.Lock;
+
+/**
+ * 加密请求防重放缓存
+ * 以IV/nonce为键记录已处理的加密信封，在时间戳容差窗口内拒绝重复提交的同一信封
+ *
+ * 设计说明：
+ * - 按时间分代的布隆过滤器：每代覆盖一个窗口（等于时间戳容差），保留最近3代，
+ *   保证在时间戳仍被接受的整个期间（最长2个窗口）内都能识别重放
+ * - 每次检查只做固定次数的哈希位运算，耗时O(1)，内存只与每代容量有关，与请求量无关
+ * - 分段锁保证同一nonce的"检查+记录"原子完成，并发提交同一信封时只有一个能通过
+ * - 布隆过滤器存在极低误判率（可配置），误判时正常请求会被当作重放拒绝
+ *
+ * @author SEVENTEEN
+ * @since 2026-10-17
+ */
+@Slf4j
+public class NonceReplayCache {
+
+    /**
+     * 保留的代数
+     */
+    private static final int GENERATIONS = 3;
+
+    private final long windowMillis;
+    private final int expectedInsertions;
+    private final double falsePositiveRate;
+    private final AtomicReferenceArray<Generation> ring = new AtomicReferenceArray<>(GENERATIONS);
+    private final Striped<Lock> locks = Striped.lock(64);
+
+    /**
+     * @param windowMillis       每代覆盖的时间窗口（毫秒）
+     * @param expectedInsertions 每个窗口预期的加密请求数
+     * @param falsePositiveRate  布隆过滤器误判率
+     */
+    public NonceReplayCache(long windowMillis, int expectedInsertions, double falsePositiveRate) {
+        this.windowMillis = Math.max(1000L, windowMillis);
+        this.expectedInsertions = expectedInsertions;
+        this.falsePositiveRate = falsePositiveRate;
+    }
+
+    /**
+     * 检查nonce是否已出现过，未出现则记录
+     *
+     * @param nonce 信封IV/nonce
+     * @param now   当前时间（毫秒）
+     * @return 首次出现返回true，重放返回false
+     */
+    public boolean checkAndRecord(byte[] nonce, long now) {
+        long generationId = now / windowMillis;
+        Generation current = currentGeneration(generationId);
+
+        Lock lock = locks.get(Arrays.hashCode(nonce));
+        lock.lock();
+        try {
+            for (int i = 0; i < GENERATIONS; i++) {
+                Generation generation = ring.get(i);
+                if (generation != null && generationId - generation.id < GENERATIONS
+                        && generation.filter.mightContain(nonce)) {
+                    return false;
+                }
+            }
+            current.filter.put(nonce);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 获取当前代，进入新窗口时替换最旧的一代
+     */
+    private Generation currentGeneration(long generationId) {
+        int slot = (int) Math.floorMod(generationId, (long) GENERATIONS);
+        Generation generation = ring.get(slot);
+        if (generation != null && generation.id == generationId) {
+            return generation;
+        }
+        synchronized (this) {
+            generation = ring.get(slot);
+            if (generation == null || generation.id != generationId) {
+                generation = new Generation(generationId,
+                        BloomFilter.create(Funnels.byteArrayFunnel(), expectedInsertions, falsePositiveRate));
+                ring.set(slot, generation);
+                log.debug("防重放缓存切换到新窗口: {}", generationId);
+            }
+            return generation;
+        }
+    }
+
+    /**
+     * 单个时间窗口的记录
+     */
+    private static final class Generation {
+        private final long id;
+        private final BloomFilter<byte[]> filter;
+
+        private Generation(long id, BloomFilter<byte[]> filter) {
+            this.id = id;
+            this.filter = filter;
+        }
+    }
+}
@@ -0,0 +1,510 @@
+package com.seventeen.svt.common.util;
+
+import com.seventeen.svt.common.config.RequestBodyConfig;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.util.StringUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * 请求体持有者
+ * 一个请求的请求体只读取一次，之后所有过滤器、拦截器和日志共用同一份数据
+ *
+ * 设计说明：
+ * - 延迟读取：创建时不读取输入流，第一次访问请求体时才缓存；没有任何环节读取请求体时不产生缓存
+ * - 不超过溢出阈值的请求体缓存在堆内，声明了Content-Length时按实际长度一次分配，避免扩容拷贝
+ * - 超过溢出阈值的请求体写入临时文件，通过文件通道按位置读取，不占用堆内存，也不做内存映射
+ * - 临时文件以DELETE_ON_CLOSE方式打开，请求结束（包括异步请求完成）时由
+ *   {@link com.seventeen.svt.common.filter.RequestBodyReleaseListener} 调用 {@link #release()} 关闭并删除，
+ *   上传高峰时临时目录的占用不随未回收的对象累积
+ * - 只保存一份字节数据，字符串视图在调用 {@link #asString()} 时才解码，不随请求常驻
+ * - 由 {@link RequestWrapper} 持有，后续包装同一请求时直接复用，见 {@link RequestWrapper#of}
+ *
+ * @author SEVENTEEN
+ * @since 2026-10-17
+ */
+@Slf4j
+public final class RequestBodyHolder {
+
+    /**
+     * 请求属性名：已溢出到临时文件的请求体，请求结束时释放
+     */
+    public static final String SPILLED_BODY_ATTRIBUTE = RequestBodyHolder.class.getName() + ".SPILLED";
+
+    private static final String SPILL_FILE_PREFIX = "svt-body-";
+    private static final int SPILL_CHUNK_SIZE = 64 * 1024;
+
+    private final Charset charset;
+    private final RequestBodyConfig config;
+    private HttpServletRequest request;
+    /**
+     * 堆内缓存的请求体，已溢出到临时文件时为null
+     */
+    private volatile ByteBuffer content;
+    /**
+     * 溢出的临时文件（关闭时删除），未溢出时为null
+     */
+    private volatile FileChannel spillChannel;
+    private int spillSize;
+    private volatile boolean released;
+    /**
+     * 原始输入流已被 {@link #readPrefix} 部分读取，不能再缓存完整请求体
+     */
+    private boolean prefixRead;
+
+    private RequestBodyHolder(ByteBuffer content, Charset charset, HttpServletRequest request,
+                              RequestBodyConfig config) {
+        this.content = content;
+        this.charset = charset;
+        this.request = request;
+        this.config = config;
+    }
+
+    /**
+     * 使用已有数据创建（如解密后的请求体），不复制数组
+     */
+    public static RequestBodyHolder of(byte[] content, Charset charset) {
+        return new RequestBodyHolder(ByteBuffer.wrap(content != null ? content : new byte[0]), charset, null, null);
+    }
+
+    /**
+     * 创建延迟读取的请求体持有者，第一次访问请求体时才读取输入流
+     *
+     * @param request 原始请求
+     * @param config  请求体缓存配置
+     */
+    public static RequestBodyHolder lazy(HttpServletRequest request, RequestBodyConfig config) {
+        return new RequestBodyHolder(null, resolveCharset(request.getCharacterEncoding()), request, config);
+    }
+
+    /**
+     * 请求体是否已缓存
+     */
+    public boolean isCaptured() {
+        return content != null || spillChannel != null;
+    }
+
+    /**
+     * 请求体是否已溢出到临时文件
+     */
+    public boolean isSpilled() {
+        return spillChannel != null;
+    }
+
+    /**
+     * 缓存请求体（已缓存时直接返回）
+     *
+     * @throws IllegalStateException 请求体超过上限
+     */
+    public void capture() throws IOException {
+        if (isCaptured()) {
+            return;
+        }
+        synchronized (this) {
+            if (!isCaptured()) {
+                if (prefixRead) {
+                    throw new IllegalStateException("请求体已被部分读取，不能再缓存");
+                }
+                read(request);
+                request = null;
+            }
+        }
+    }
+
+    /**
+     * 读取尚未缓存的请求体的前 maxBytes 个字节，不缓存也不溢出完整请求体
+     * 只用于请求处理结束后业务没有读取请求体的场景（如请求日志）：读取会消耗原始输入流，之后不能再缓存请求体
+     *
+     * @param maxBytes 最大读取字节数
+     * @return 请求体前缀；已缓存时等同于 {@link #copyBytes}
+     */
+    public synchronized byte[] readPrefix(int maxBytes) {
+        if (isCaptured()) {
+            return copyBytes(maxBytes);
+        }
+        if (prefixRead) {
+            throw new IllegalStateException("请求体已被部分读取");
+        }
+        prefixRead = true;
+        try {
+            return request.getInputStream().readNBytes(maxBytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException("读取请求体失败", e);
+        } finally {
+            request = null;
+        }
+    }
+
+    /**
+     * 请求体的输入流，每次调用返回独立的读取位置
+     */
+    public ServletInputStream openStream(ServletRequest owner) throws IOException {
+        capture();
+        ByteBuffer current = content;
+        return current != null ? new ByteArrayServletInputStream(current, owner) : new SpilledInputStream(this, owner);
+    }
+
+    /**
+     * 请求体字节
+     * 堆内缓存时返回共享数组（调用方不得修改）；已溢出到临时文件时复制到堆内，大请求体应优先使用 {@link #openStream}
+     */
+    public byte[] getBytes() {
+        ByteBuffer current = heapContent();
+        return current != null ? current.array() : readSpilled(spillSize);
+    }
+
+    /**
+     * 复制请求体的前 maxBytes 个字节，供请求结束后仍需使用请求体的场景（如异步日志）
+     *
+     * @param maxBytes 最大复制字节数，0表示不限制
+     */
+    public byte[] copyBytes(int maxBytes) {
+        int size = size();
+        int length = maxBytes > 0 ? Math.min(size, maxBytes) : size;
+        ByteBuffer current = content;
+        if (current == null) {
+            return readSpilled(length);
+        }
+        byte[] copy = new byte[length];
+        current.duplicate().get(copy);
+        return copy;
+    }
+
+    /**
+     * 按请求编码解码的字符串视图，每次调用重新解码，需要多次使用时由调用方保存结果
+     */
+    public String asString() {
+        return new String(getBytes(), charset);
+    }
+
+    /**
+     * 按请求编码解码的字符串视图，只解码前 maxBytes 个字节（截断处的不完整字符以替换字符表示）
+     *
+     * @param maxBytes 最大解码字节数，0表示不限制
+     */
+    public String asString(int maxBytes) {
+        if (maxBytes <= 0 || size() <= maxBytes) {
+            return asString();
+        }
+        ByteBuffer current = content;
+        if (current == null) {
+            return new String(readSpilled(maxBytes), charset);
+        }
+        ByteBuffer prefix = current.duplicate();
+        prefix.limit(prefix.position() + maxBytes);
+        return charset.decode(prefix).toString();
+    }
+
+    public Charset getCharset() {
+        return charset;
+    }
+
+    public int size() {
+        ByteBuffer current = heapContent();
+        return current != null ? current.remaining() : spillSize;
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * 是否包含非空白内容，无需解码为字符串
+     */
+    public boolean hasText() {
+        ByteBuffer current = heapContent();
+        if (current != null) {
+            return hasText(current);
+        }
+        // 溢出的请求体按块读取，通常第一块即可判定
+        ByteBuffer chunk = ByteBuffer.allocate(Math.min(spillSize, SPILL_CHUNK_SIZE));
+        for (long position = 0; position < spillSize; position += chunk.limit()) {
+            chunk.clear();
+            int read = readSpilled(chunk, position);
+            if (read <= 0) {
+                return false;
+            }
+            chunk.flip();
+            if (hasText(chunk)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 释放溢出的临时文件（关闭通道即删除），未溢出时不做任何处理
+     * 请求结束时调用，之后不能再读取已溢出的请求体
+     */
+    public synchronized void release() {
+        FileChannel channel = spillChannel;
+        if (channel == null || released) {
+            return;
+        }
+        released = true;
+        try {
+            channel.close();
+            log.debug("请求结束，已删除请求体临时文件，大小: {} bytes", spillSize);
+        } catch (IOException e) {
+            log.warn("关闭请求体临时文件失败: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 缓存请求体，返回堆内缓存；已溢出到临时文件时返回null
+     */
+    private ByteBuffer heapContent() {
+        try {
+            capture();
+        } catch (IOException e) {
+            throw new UncheckedIOException("读取请求体失败", e);
+        }
+        return content;
+    }
+
+    private static boolean hasText(ByteBuffer buffer) {
+        for (int i = buffer.position(); i < buffer.limit(); i++) {
+            byte b = buffer.get(i);
+            if (b != ' ' && b != '\t' && b != '\r' && b != '\n') {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 读取溢出请求体的前 length 个字节到堆内
+     */
+    private byte[] readSpilled(int length) {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (readSpilled(buffer, buffer.position()) < 0) {
+                break;
+            }
+        }
+        return buffer.array();
+    }
+
+    /**
+     * 从溢出请求体的指定位置读取，不改变通道的当前位置，可并发读取
+     */
+    private int readSpilled(ByteBuffer target, long position) {
+        if (released) {
+            throw new IllegalStateException("请求体临时文件已在请求结束时释放");
+        }
+        try {
+            return spillChannel.read(target, position);
+        } catch (IOException e) {
+            throw new UncheckedIOException("读取请求体临时文件失败", e);
+        }
+    }
+
+    /**
+     * 读取请求体：不超过阈值的缓存在堆内，超过阈值的溢出到临时文件
+     */
+    private void read(HttpServletRequest request) throws IOException {
+        int maxSize = config.getMaxSize();
+        int spillThreshold = Math.min(config.getSpillThreshold(), maxSize);
+        long contentLength = request.getContentLengthLong();
+        if (contentLength > maxSize) {
+            throw tooLarge(maxSize);
+        }
+
+        InputStream inputStream = request.getInputStream();
+        if (contentLength > spillThreshold) {
+            spill(request, inputStream, new byte[0]);
+            return;
+        }
+        if (contentLength >= 0) {
+            byte[] bytes = new byte[(int) contentLength];
+            int read = inputStream.readNBytes(bytes, 0, bytes.length);
+            content = ByteBuffer.wrap(read < bytes.length ? Arrays.copyOf(bytes, read) : bytes);
+            return;
+        }
+
+        // 未声明长度：先在堆内读取到阈值，超出部分再溢出
+        byte[] head = inputStream.readNBytes(spillThreshold + 1);
+        if (head.length <= spillThreshold) {
+            content = ByteBuffer.wrap(head);
+            return;
+        }
+        spill(request, inputStream, head);
+    }
+
+    /**
+     * 将请求体写入临时文件，并登记到请求属性，请求结束时释放
+     *
+     * @param head 已读取到堆内的开头部分
+     */
+    private void spill(HttpServletRequest request, InputStream inputStream, byte[] head) throws IOException {
+        int maxSize = config.getMaxSize();
+        FileChannel channel = openSpillFile(config);
+        long size = head.length;
+        try {
+            writeFully(channel, ByteBuffer.wrap(head));
+            byte[] chunk = new byte[SPILL_CHUNK_SIZE];
+            int read;
+            while ((read = inputStream.read(chunk)) != -1) {
+                size += read;
+                if (size > maxSize) {
+                    throw tooLarge(maxSize);
+                }
+                writeFully(channel, ByteBuffer.wrap(chunk, 0, read));
+            }
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+        spillSize = (int) size;
+        spillChannel = channel;
+        request.setAttribute(SPILLED_BODY_ATTRIBUTE, this);
+        log.debug("请求体超过溢出阈值，已写入临时文件，大小: {} bytes", size);
+    }
+
+    /**
+     * 创建临时文件，关闭通道时自动删除
+     */
+    private static FileChannel openSpillFile(RequestBodyConfig config) throws IOException {
+        Path file = Files.createTempFile(spillDirectory(config), SPILL_FILE_PREFIX, ".tmp");
+        try {
+            return FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE,
+                    StandardOpenOption.DELETE_ON_CLOSE);
+        } catch (IOException e) {
+            Files.deleteIfExists(file);
+            throw e;
+        }
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    private static Path spillDirectory(RequestBodyConfig config) throws IOException {
+        if (!StringUtils.hasText(config.getSpillDirectory())) {
+            return Paths.get(System.getProperty("java.io.tmpdir"));
+        }
+        return Files.createDirectories(Paths.get(config.getSpillDirectory()));
+    }
+
+    /**
+     * 解析字符编码，未指定或不支持时使用UTF-8
+     */
+    private static Charset resolveCharset(String encoding) {
+        if (encoding == null) {
+            return StandardCharsets.UTF_8;
+        }
+        try {
+            return Charset.forName(encoding);
+        } catch (IllegalArgumentException e) {
+            return StandardCharsets.UTF_8;
+        }
+    }
+
+    private static IllegalStateException tooLarge(int maxSize) {
+        return new IllegalStateException("Request body is too large, max size is " + maxSize + " bytes");
+    }
+
+    /**
+     * 溢出请求体的Servlet输入流
+     * 按位置读取临时文件，每个流持有独立的读取位置；与 {@link ByteArrayServletInputStream} 一样支持非阻塞读取
+     */
+    private static final class SpilledInputStream extends ServletInputStream {
+
+        private final RequestBodyHolder body;
+        private final ServletRequest request;
+        private final byte[] singleByte = new byte[1];
+        private long position;
+        private ReadListener readListener;
+
+        private SpilledInputStream(RequestBodyHolder body, ServletRequest request) {
+            this.body = body;
+            this.request = request;
+        }
+
+        @Override
+        public boolean isFinished() {
+            return position >= body.spillSize;
+        }
+
+        @Override
+        public boolean isReady() {
+            return true;
+        }
+
+        @Override
+        public void setReadListener(ReadListener listener) {
+            Objects.requireNonNull(listener, "ReadListener不能为空");
+            if (!request.isAsyncStarted()) {
+                throw new IllegalStateException("只有异步请求才能设置ReadListener");
+            }
+            if (readListener != null) {
+                throw new IllegalStateException("ReadListener已设置");
+            }
+            this.readListener = listener;
+            request.getAsyncContext().start(this::notifyListener);
+        }
+
+        @Override
+        public int read() {
+            return read(singleByte, 0, 1) < 0 ? -1 : singleByte[0] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            Objects.checkFromIndexSize(off, len, b.length);
+            if (isFinished()) {
+                return -1;
+            }
+            int count = (int) Math.min(len, body.spillSize - position);
+            int read = body.readSpilled(ByteBuffer.wrap(b, off, count), position);
+            if (read < 0) {
+                return -1;
+            }
+            position += read;
+            return read;
+        }
+
+        @Override
+        public long skip(long n) {
+            long count = Math.max(0, Math.min(n, body.spillSize - position));
+            position += count;
+            return count;
+        }
+
+        @Override
+        public int available() {
+            return (int) (body.spillSize - position);
+        }
+
+        private void notifyListener() {
+            try {
+                if (!isFinished()) {
+                    readListener.onDataAvailable();
+                }
+                if (isFinished()) {
+                    readListener.onAllDataRead();
+                }
+            } catch (Throwable t) {
+                readListener.onError(t);
+            }
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package com.seventeen.svt.common.util;
+
+import com.seventeen.svt.common.filter.RouteTag;
+import jakarta.servlet.ServletRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+/**
+ * 请求上下文
+ * 由 {@link com.seventeen.svt.common.filter.RequestContextInitFilter} 在请求进入时解析一次，之后各处直接读取
+ *
+ * 设计说明：
+ * - 不可变对象，客户端IP、请求URL、路由标签只在请求进入时计算一次，不再重复扫描请求头
+ * - 认证通过后由认证过滤器通过 {@link #withUserId} 生成新实例并重新绑定
+ * - 同时保存在请求属性和当前线程中：持有请求对象时用 {@link #get(ServletRequest)}，否则用 {@link #current()}
+ * - 异步分派时由过滤器从请求属性重新绑定到新线程
+ *
+ * @author SEVENTEEN
+ * @since 2026-10-17
+ */
+public final class RequestContext {
+
+    /**
+     * 请求属性名：请求上下文
+     */
+    public static final String ATTRIBUTE = RequestContext.class.getName();
+
+    private static final ThreadLocal<RequestContext> CURRENT = new ThreadLocal<>();
+
+    private final String traceId;
+    private final String clientIp;
+    private final String userId;
+    private final String method;
+    private final String requestUri;
+    private final String requestUrl;
+    private final RouteTag routeTag;
+
+    public RequestContext(String traceId, String clientIp, String userId, String method,
+                          String requestUri, String requestUrl, RouteTag routeTag) {
+        this.traceId = traceId;
+        this.clientIp = clientIp;
+        this.userId = userId;
+        this.method = method;
+        this.requestUri = requestUri;
+        this.requestUrl = requestUrl;
+        this.routeTag = routeTag;
+    }
+
+    /**
+     * 获取当前线程绑定的请求上下文
+     * 当前线程未绑定时从请求属性读取（如子线程继承了请求属性），都没有时返回null
+     */
+    public static RequestContext current() {
+        RequestContext context = CURRENT.get();
+        if (context != null) {
+            return context;
+        }
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes != null
+                && attributes.getAttribute(ATTRIBUTE, RequestAttributes.SCOPE_REQUEST) instanceof RequestContext attached) {
+            return attached;
+        }
+        return null;
+    }
+
+    /**
+     * 获取请求的上下文，未初始化时返回null
+     */
+    public static RequestContext get(ServletRequest request) {
+        return request.getAttribute(ATTRIBUTE) instanceof RequestContext context ? context : null;
+    }
+
+    /**
+     * 绑定到请求和当前线程，同时写入日志MDC
+     */
+    public void bind(ServletRequest request) {
+        request.setAttribute(ATTRIBUTE, this);
+        CURRENT.set(this);
+        TraceIdUtils.setTraceId(traceId);
+        if (userId != null) {
+            TraceIdUtils.setUserId(userId);
+        }
+    }
+
+    /**
+     * 解除当前线程的绑定并清除日志MDC
+     */
+    public static void unbind() {
+        CURRENT.remove();
+        TraceIdUtils.clear();
+    }
+
+    /**
+     * 生成带用户ID的新上下文
+     */
+    public RequestContext withUserId(String userId) {
+        return new RequestContext(traceId, clientIp, userId, method, requestUri, requestUrl, routeTag);
+    }
+
+    public String getTraceId() {
+        return traceId;
+    }
+
+    public String getClientIp() {
+        return clientIp;
+    }
+
+    /**
+     * 当前用户ID，未认证时为null
+     */
+    public String getUserId() {
+        return userId;
+    }
+
+    public String getMethod() {
+        return method;
+    }
+
+    public String getRequestUri() {
+        return requestUri;
+    }
+
+    public String getRequestUrl() {
+        return requestUrl;
+    }
+
+    public RouteTag getRouteTag() {
+        return routeTag;
+    }
+
+    @Override
+    public String toString() {
+        return "RequestContext{traceId=" + traceId + ", clientIp=" + clientIp + ", userId=" + userId
+                + ", " + method + ' ' + requestUri + ", route=" + routeTag + '}';
+    }
+}
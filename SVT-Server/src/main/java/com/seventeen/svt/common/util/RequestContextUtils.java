@@ -15,6 +15,7 @@ import java.util.Map;
 
 /**
  * 请求上下文工具类
+ * 客户端IP、请求URL、用户ID优先从 {@link RequestContext} 读取（每个请求只解析一次），未初始化时才从请求中计算
  */
 @Slf4j
 public class RequestContextUtils {
@@ -40,11 +41,21 @@ public class RequestContextUtils {
      * 获取客户端IP地址
      */
     public static String getIpAddress() {
+        RequestContext context = RequestContext.current();
+        if (context != null) {
+            return context.getClientIp();
+        }
         HttpServletRequest request = getRequest();
         if (request == null) {
             return UNKNOWN;
         }
+        return resolveIpAddress(request);
+    }
 
+    /**
+     * 从请求头解析客户端IP地址
+     */
+    public static String resolveIpAddress(HttpServletRequest request) {
         // 从请求头中获取IP
         for (String header : IP_HEADERS) {
             String ip = request.getHeader(header);
@@ -97,6 +108,10 @@ public class RequestContextUtils {
      * 获取当前请求URL
      */
     public static String getRequestUrl() {
+        RequestContext context = RequestContext.current();
+        if (context != null) {
+            return context.getRequestUrl();
+        }
         HttpServletRequest request = getRequest();
         if (request == null) {
             return "";
@@ -132,6 +147,11 @@ public class RequestContextUtils {
      * @return 用户ID
      */
     public static String getRequestUserId(){
+        RequestContext context = RequestContext.current();
+        if (context != null && context.getUserId() != null) {
+            return context.getUserId();
+        }
+
         String userId = "";
         try {
             // 获取认证对象
@@ -0,0 +1,136 @@
+package com.seventeen.svt.common.util;
+
+import com.lmax.disruptor.BlockingWaitStrategy;
+import com.lmax.disruptor.EventTranslatorThreeArg;
+import com.lmax.disruptor.RingBuffer;
+import com.lmax.disruptor.TimeoutException;
+import com.lmax.disruptor.dsl.Disruptor;
+import com.lmax.disruptor.dsl.ProducerType;
+import com.seventeen.svt.common.config.RequestLogConfig;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 请求日志异步分发器
+ * 基于Disruptor环形缓冲区，请求线程只采集原始数据并发布事件，脱敏、JSON格式化和日志输出由单个后台线程完成
+ *
+ * 设计说明：
+ * - 事件对象预先分配并循环复用，发布时不创建额外的队列节点
+ * - 使用 tryPublishEvent 发布，队列满时丢弃该条请求日志并计数，请求线程永不阻塞
+ * - 后台线程输出前恢复请求线程的traceId/userId，日志格式和按用户分文件的路由保持不变
+ * - 应用关闭时等待队列中的日志输出完毕
+ *
+ * @author SEVENTEEN
+ * @since 2026-10-17
+ */
+@Slf4j
+@Component
+public class RequestLogDispatcher {
+
+    private static final long SHUTDOWN_TIMEOUT_SECONDS = 5;
+
+    /**
+     * 在请求线程中填充事件
+     */
+    private static final EventTranslatorThreeArg<RequestLogEvent, HttpServletRequest, RequestBodyHolder,
+            RequestLogEvent.Outcome> CAPTURE =
+            (event, sequence, request, body, outcome) -> event.capture(request, body, outcome);
+
+    private final RequestLogConfig requestLogConfig;
+    private final AtomicLong dropped = new AtomicLong();
+
+    private Disruptor<RequestLogEvent> disruptor;
+    private RingBuffer<RequestLogEvent> ringBuffer;
+
+    public RequestLogDispatcher(RequestLogConfig requestLogConfig) {
+        this.requestLogConfig = requestLogConfig;
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!requestLogConfig.isAsync()) {
+            log.info("请求日志异步输出未启用，使用同步输出");
+            return;
+        }
+        int bufferSize = ceilingPowerOfTwo(requestLogConfig.getRingBufferSize());
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("request-log-");
+        threadFactory.setDaemon(true);
+
+        disruptor = new Disruptor<>(RequestLogEvent::new, bufferSize, threadFactory,
+                ProducerType.MULTI, new BlockingWaitStrategy());
+        disruptor.handleEventsWith(this::onEvent);
+        ringBuffer = disruptor.start();
+        RequestLogUtils.setDispatcher(this);
+        log.info("请求日志异步输出已启用，队列容量: {}", bufferSize);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (disruptor == null) {
+            return;
+        }
+        RequestLogUtils.setDispatcher(null);
+        try {
+            disruptor.shutdown(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (TimeoutException e) {
+            log.warn("请求日志队列未在{}秒内输出完毕，剩余日志丢弃", SHUTDOWN_TIMEOUT_SECONDS);
+            disruptor.halt();
+        }
+        log.info("请求日志异步输出已停止，累计丢弃: {}", dropped.get());
+    }
+
+    /**
+     * 发布请求日志事件，必须在请求线程中调用
+     *
+     * @param request 当前请求
+     * @param body    已缓存的请求体，不记录请求体时为null
+     * @param outcome 请求处理结果
+     * @return 是否已发布；队列满时返回false（日志被丢弃）
+     */
+    public boolean publish(HttpServletRequest request, RequestBodyHolder body, RequestLogEvent.Outcome outcome) {
+        if (ringBuffer.tryPublishEvent(CAPTURE, request, body, outcome)) {
+            return true;
+        }
+        long count = dropped.incrementAndGet();
+        if (count == 1 || count % 1000 == 0) {
+            log.warn("请求日志队列已满，已丢弃 {} 条请求日志", count);
+        }
+        return false;
+    }
+
+    /**
+     * 累计丢弃的请求日志数
+     */
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    private void onEvent(RequestLogEvent event, long sequence, boolean endOfBatch) {
+        try {
+            if (event.traceId != null) {
+                TraceIdUtils.setTraceId(event.traceId);
+            }
+            if (event.userId != null) {
+                TraceIdUtils.setUserId(event.userId);
+            }
+            RequestLogUtils.write(event);
+        } catch (Exception e) {
+            log.error("记录请求日志失败", e);
+        } finally {
+            TraceIdUtils.clear();
+            event.clear();
+        }
+    }
+
+    private static int ceilingPowerOfTwo(int value) {
+        int size = Math.max(2, value);
+        return Integer.bitCount(size) == 1 ? size : Integer.highestOneBit(size) << 1;
+    }
+}
@@ -0,0 +1,194 @@
+package com.seventeen.svt.common.util;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+import java.io.UncheckedIOException;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Enumeration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 请求日志事件
+ * 在请求线程中采集格式化日志所需的原始数据，由 {@link RequestLogUtils#format} 在后台线程中完成脱敏和格式化
+ *
+ * 采集说明：
+ * - 只保存字符串引用和请求体前 maxBodySize 个字节的副本，不做脱敏、JSON解析和字符串拼接
+ * - 业务未读取的请求体只从输入流读取前 maxBodySize 个字节，不为记录日志缓存或溢出完整请求体
+ * - 不持有 {@link RequestBodyHolder}：队列中积压的事件不会长期占用完整请求体的堆内存或临时文件
+ * - 请求对象会被容器回收复用，因此请求头和参数必须在请求线程中复制出来
+ * - 事件对象由环形缓冲区预先分配并循环复用，处理完成后调用 {@link #clear()} 释放引用
+ *
+ * @author SEVENTEEN
+ * @since 2026-10-17
+ */
+public final class RequestLogEvent {
+
+    private static final byte[] EMPTY_BODY = new byte[0];
+
+    String method;
+    String requestUrl;
+    String requestUri;
+    String queryString;
+    /**
+     * 请求头，按 名称、值、名称、值... 顺序平铺存放
+     */
+    List<String> headers;
+    Map<String, String[]> parameters;
+    /**
+     * 请求体前 maxBodySize 个字节的副本，为null表示不记录请求体或请求未经 {@link RequestWrapper} 包装
+     */
+    byte[] body;
+    /**
+     * 请求体完整长度，大于 body 长度表示已截断，-1表示未读完且长度未知
+     */
+    int bodySize;
+    /**
+     * 业务未读取请求体且未设置记录上限，请求体没有被读取
+     */
+    boolean bodyUnread;
+    Charset bodyCharset;
+    boolean multipart;
+    long contentLength;
+    String clientIp;
+    String userAgent;
+    String traceId;
+    String userId;
+    int status;
+    long durationMillis;
+    int maxBodySize;
+
+    /**
+     * 从当前请求采集日志数据，必须在请求线程中调用
+     *
+     * @param request 当前请求
+     * @param body    请求体持有者，不记录请求体时为null
+     * @param outcome 请求处理结果
+     */
+    void capture(HttpServletRequest request, RequestBodyHolder body, Outcome outcome) {
+        this.method = request.getMethod();
+        this.requestUrl = request.getRequestURL().toString();
+        this.requestUri = request.getRequestURI();
+        this.queryString = request.getQueryString();
+
+        List<String> headerList = new ArrayList<>(32);
+        Enumeration<String> headerNames = request.getHeaderNames();
+        while (headerNames.hasMoreElements()) {
+            String headerName = headerNames.nextElement();
+            headerList.add(headerName);
+            headerList.add(request.getHeader(headerName));
+        }
+        this.headers = headerList;
+
+        Map<String, String[]> parameterMap = request.getParameterMap();
+        this.parameters = parameterMap.isEmpty() ? Map.of() : new LinkedHashMap<>(parameterMap);
+
+        if (body != null) {
+            this.bodyCharset = body.getCharset();
+            if (body.isCaptured()) {
+                this.body = body.copyBytes(outcome.maxBodySize);
+                this.bodySize = body.size();
+            } else {
+                captureUnread(request, body, outcome.maxBodySize);
+            }
+        }
+        this.multipart = RequestLogUtils.isMultipart(request);
+        this.contentLength = request.getContentLengthLong();
+        this.userAgent = request.getHeader("User-Agent");
+        RequestContext context = RequestContext.get(request);
+        if (context != null) {
+            this.clientIp = context.getClientIp();
+            this.traceId = context.getTraceId();
+            this.userId = context.getUserId();
+        } else {
+            this.clientIp = RequestContextUtils.resolveIpAddress(request);
+            this.traceId = TraceIdUtils.getTraceId();
+            this.userId = TraceIdUtils.getUserId();
+        }
+        this.status = outcome.status;
+        this.durationMillis = outcome.durationMillis;
+        this.maxBodySize = outcome.maxBodySize;
+    }
+
+    /**
+     * 采集业务未读取的请求体：只读取记录上限内的前缀（多读1个字节判断是否截断）
+     * 未设置记录上限时不读取，只记录声明的长度，避免为记录日志读取完整请求体
+     */
+    private void captureUnread(HttpServletRequest request, RequestBodyHolder body, int maxBodySize) {
+        long declared = request.getContentLengthLong();
+        int declaredSize = (int) Math.min(declared, Integer.MAX_VALUE);
+        if (maxBodySize > 0 && declared != 0) {
+            try {
+                byte[] prefix = body.readPrefix(maxBodySize < Integer.MAX_VALUE ? maxBodySize + 1 : maxBodySize);
+                if (prefix.length <= maxBodySize) {
+                    this.body = prefix;
+                    this.bodySize = prefix.length;
+                } else {
+                    this.body = Arrays.copyOf(prefix, maxBodySize);
+                    this.bodySize = declared > 0 ? declaredSize : -1;
+                }
+                return;
+            } catch (UncheckedIOException | IllegalStateException e) {
+                // 输入流不可读时按未读取记录
+            }
+        }
+        this.body = EMPTY_BODY;
+        this.bodySize = declaredSize;
+        this.bodyUnread = declared != 0;
+    }
+
+    /**
+     * 释放引用，避免环形缓冲区长期持有请求体
+     */
+    void clear() {
+        method = null;
+        requestUrl = null;
+        requestUri = null;
+        queryString = null;
+        headers = null;
+        parameters = null;
+        body = null;
+        bodySize = 0;
+        bodyUnread = false;
+        bodyCharset = null;
+        multipart = false;
+        contentLength = 0;
+        clientIp = null;
+        userAgent = null;
+        traceId = null;
+        userId = null;
+        status = 0;
+        durationMillis = 0;
+        maxBodySize = 0;
+    }
+
+    /**
+     * 请求处理结果及请求体记录上限
+     * 请求体在请求线程中按上限复制，超出部分不进入日志队列
+     */
+    public static final class Outcome {
+
+        /**
+         * 请求处理前记录（无状态码和耗时），请求体不截断
+         */
+        public static final Outcome NONE = new Outcome(-1, -1, 0);
+
+        private final int status;
+        private final long durationMillis;
+        private final int maxBodySize;
+
+        /**
+         * @param status         响应状态码，未知时为-1
+         * @param durationMillis 处理耗时（毫秒），未知时为-1
+         * @param maxBodySize    请求体最大记录长度（字节），0表示不限制
+         */
+        public Outcome(int status, long durationMillis, int maxBodySize) {
+            this.status = status;
+            this.durationMillis = durationMillis;
+            this.maxBodySize = maxBodySize;
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package com.seventeen.svt.common.util;
+
+import com.seventeen.svt.common.config.RequestLogConfig;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.server.PathContainer;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 请求日志策略
+ * 启动时按 {@link RequestLogConfig} 编译接口日志规则，请求结束时决定是否记录以及记录哪些内容
+ *
+ * 判定规则：
+ * - 错误请求（状态码>=400、抛出异常或业务异常）和慢请求不受采样限制，始终记录（可配置关闭）
+ * - 业务异常由全局异常处理器以HTTP 200返回失败结果，异常不会到达拦截器的afterCompletion，
+ *   由异常处理器通过 {@link #recordHandledException} 记录到请求属性
+ * - 其余请求按接口采样率随机采样，采样率为0的接口（如轮询接口）只在出错或变慢时记录
+ * - 接口规则按配置顺序匹配，第一个命中的生效，未命中的使用默认策略
+ *
+ * @author SEVENTEEN
+ * @since 2026-10-17
+ */
+@Slf4j
+@Component
+public class RequestLogPolicy {
+
+    /**
+     * 请求属性名：已被全局异常处理器处理的异常
+     */
+    private static final String HANDLED_EXCEPTION_ATTRIBUTE = RequestLogPolicy.class.getName() + ".HANDLED_EXCEPTION";
+
+    private final RequestLogConfig requestLogConfig;
+    private final String contextPath;
+    private final Route defaultRoute;
+    private final List<PatternRoute> routes = new ArrayList<>();
+
+    public RequestLogPolicy(RequestLogConfig requestLogConfig,
+                            @Value("${server.servlet.context-path:}") String contextPath) {
+        this.requestLogConfig = requestLogConfig;
+        this.contextPath = contextPath;
+        this.defaultRoute = new Route(requestLogConfig.getSampleRate(), requestLogConfig.isLogBody(),
+                requestLogConfig.getMaxBodySize());
+        for (RequestLogConfig.Route route : requestLogConfig.getRoutes()) {
+            if (!StringUtils.hasText(route.getPattern())) {
+                continue;
+            }
+            routes.add(new PatternRoute(PathPatternParser.defaultInstance.parse(route.getPattern()), new Route(
+                    route.getSampleRate() != null ? route.getSampleRate() : defaultRoute.sampleRate,
+                    route.getLogBody() != null ? route.getLogBody() : defaultRoute.logBody,
+                    route.getMaxBodySize() != null ? route.getMaxBodySize() : defaultRoute.maxBodySize)));
+        }
+        log.debug("请求日志策略加载完成，默认采样率: {}，接口规则: {}", defaultRoute.sampleRate, routes.size());
+    }
+
+    /**
+     * 获取请求对应的日志策略
+     */
+    public Route resolve(HttpServletRequest request) {
+        if (routes.isEmpty()) {
+            return defaultRoute;
+        }
+        String path = request.getRequestURI();
+        if (!contextPath.isEmpty() && path.startsWith(contextPath)) {
+            path = path.substring(contextPath.length());
+        }
+        PathContainer pathContainer = PathContainer.parsePath(path);
+        for (PatternRoute route : routes) {
+            if (route.pattern.matches(pathContainer)) {
+                return route.route;
+            }
+        }
+        return defaultRoute;
+    }
+
+    /**
+     * 记录已被异常处理器处理的异常，响应状态码不表示失败时（业务异常）请求仍按错误请求记录
+     */
+    public static void recordHandledException(HttpServletRequest request, Exception ex) {
+        request.setAttribute(HANDLED_EXCEPTION_ATTRIBUTE, ex);
+    }
+
+    /**
+     * 判断请求是否需要记录
+     *
+     * @param request        当前请求
+     * @param route          请求对应的日志策略
+     * @param status         响应状态码
+     * @param ex             处理过程中未被处理的异常，可为null
+     * @param durationMillis 处理耗时（毫秒）
+     */
+    public boolean shouldLog(HttpServletRequest request, Route route, int status, Exception ex, long durationMillis) {
+        if (requestLogConfig.isAlwaysLogErrors() && (ex != null || status >= 400
+                || request.getAttribute(HANDLED_EXCEPTION_ATTRIBUTE) != null)) {
+            return true;
+        }
+        long slowThreshold = requestLogConfig.getSlowThreshold();
+        if (slowThreshold > 0 && durationMillis >= slowThreshold) {
+            return true;
+        }
+        return route.sample();
+    }
+
+    /**
+     * 接口日志策略
+     */
+    public static final class Route {
+        private final double sampleRate;
+        private final boolean logBody;
+        private final int maxBodySize;
+
+        private Route(double sampleRate, boolean logBody, int maxBodySize) {
+            this.sampleRate = sampleRate;
+            this.logBody = logBody;
+            this.maxBodySize = maxBodySize;
+        }
+
+        /**
+         * 按采样率随机采样
+         */
+        public boolean sample() {
+            if (sampleRate >= 1.0) {
+                return true;
+            }
+            return sampleRate > 0 && ThreadLocalRandom.current().nextDouble() < sampleRate;
+        }
+
+        public boolean isLogBody() {
+            return logBody;
+        }
+
+        /**
+         * 请求体最大记录长度（字节），0表示不限制
+         */
+        public int getMaxBodySize() {
+            return maxBodySize;
+        }
+    }
+
+    /**
+     * 模式路径策略
+     */
+    private static final class PatternRoute {
+        private final PathPattern pattern;
+        private final Route route;
+
+        private PatternRoute(PathPattern pattern, Route route) {
+            this.pattern = pattern;
+            this.route = route;
+        }
+    }
+}
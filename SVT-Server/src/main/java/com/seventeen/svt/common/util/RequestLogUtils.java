@@ -1,21 +1,33 @@
 package com.seventeen.svt.common.util;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.context.request.ServletRequestAttributes;
 
-import java.util.Enumeration;
-import java.util.HashMap;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Map;
 
 /**
  * 请求日志工具类
+ * 请求线程只采集原始数据（见 {@link RequestLogEvent}），脱敏、JSON格式化和输出由 {@link RequestLogDispatcher} 在后台线程完成；
+ * 异步输出未启用时在请求线程中同步输出
  */
 @Slf4j
 public class RequestLogUtils {
-    private static final ObjectMapper objectMapper = new ObjectMapper();
+    private static volatile RequestLogDispatcher dispatcher;
+
+    /**
+     * 设置异步分发器，为null时同步输出
+     */
+    static void setDispatcher(RequestLogDispatcher requestLogDispatcher) {
+        dispatcher = requestLogDispatcher;
+    }
 
     /**
      * 记录请求日志
@@ -36,68 +48,153 @@ public class RequestLogUtils {
      * 记录请求日志
      */
     public static void logRequest(HttpServletRequest request) {
+        logRequest(request, true, RequestLogEvent.Outcome.NONE);
+    }
+
+    /**
+     * 记录请求日志
+     *
+     * @param request 当前请求
+     * @param logBody 是否记录请求体
+     * @param outcome 请求处理结果（状态码、耗时）及请求体记录上限
+     */
+    public static void logRequest(HttpServletRequest request, boolean logBody, RequestLogEvent.Outcome outcome) {
+        // 日志未开启时直接返回，不触发请求体读取
+        if (!log.isInfoEnabled()) {
+            return;
+        }
         try {
-            // 记录请求基本信息
-            StringBuilder logBuilder = new StringBuilder("\n");
-            logBuilder.append("-------------------- Request Begin --------------------\n");
-            logBuilder.append(String.format("Request URL    : %s %s\n", request.getMethod(), request.getRequestURL()));
-            logBuilder.append(String.format("Request URI    : %s\n", request.getRequestURI()));
-            
-            // 记录查询参数
-            String queryString = request.getQueryString();
-            if (queryString != null) {
-                logBuilder.append(String.format("Query String   : %s\n", queryString));
+            // 请求体在请求线程中按记录上限复制，业务未读取的请求体只读取前缀，不为记录日志缓存完整请求体
+            // （multipart请求由容器解析文件，读取请求体会使上传内容丢失，只记录大小）
+            RequestBodyHolder body = null;
+            if (logBody && request instanceof RequestWrapper wrapper && !isMultipart(request)) {
+                body = wrapper.getBodyHolder();
             }
 
-            // 记录请求头
-            Map<String, String> headers = new HashMap<>();
-            Enumeration<String> headerNames = request.getHeaderNames();
-            while (headerNames.hasMoreElements()) {
-                String headerName = headerNames.nextElement();
-                String headerValue = request.getHeader(headerName);
-                headers.put(headerName, headerValue);
+            RequestLogDispatcher current = dispatcher;
+            if (current != null) {
+                current.publish(request, body, outcome);
+                return;
+            }
+
+            RequestLogEvent event = new RequestLogEvent();
+            event.capture(request, body, outcome);
+            write(event);
+        } catch (Exception e) {
+            log.error("记录请求日志失败", e);
+        }
+    }
+
+    /**
+     * 输出请求日志
+     */
+    static void write(RequestLogEvent event) {
+        log.info(format(event));
+    }
+
+    /**
+     * 格式化请求日志：请求体脱敏、JSON美化
+     */
+    static String format(RequestLogEvent event) {
+        // 记录请求基本信息
+        StringBuilder logBuilder = new StringBuilder("\n");
+        logBuilder.append("-------------------- Request Begin --------------------\n");
+        logBuilder.append("Request URL    : ").append(event.method).append(' ').append(event.requestUrl).append('\n');
+        logBuilder.append("Request URI    : ").append(event.requestUri).append('\n');
+
+        // 记录查询参数
+        if (event.queryString != null) {
+            logBuilder.append("Query String   : ").append(event.queryString).append('\n');
+        }
+
+        // 记录请求头
+        logBuilder.append("Request Headers: {");
+        List<String> headers = event.headers;
+        for (int i = 0; i < headers.size(); i += 2) {
+            if (i > 0) {
+                logBuilder.append(", ");
             }
-            logBuilder.append(String.format("Request Headers: %s\n", headers));
+            logBuilder.append(headers.get(i)).append('=').append(headers.get(i + 1));
+        }
+        logBuilder.append("}\n");
 
-            // 记录请求参数
-            Map<String, String[]> parameters = request.getParameterMap();
-            if (!parameters.isEmpty()) {
-                logBuilder.append(String.format("Request Params : %s\n", parameters));
+        // 记录请求参数
+        if (!event.parameters.isEmpty()) {
+            logBuilder.append("Request Params : {");
+            boolean first = true;
+            for (Map.Entry<String, String[]> entry : event.parameters.entrySet()) {
+                if (!first) {
+                    logBuilder.append(", ");
+                }
+                logBuilder.append(entry.getKey()).append('=').append(Arrays.toString(entry.getValue()));
+                first = false;
             }
+            logBuilder.append("}\n");
+        }
 
-            // 记录请求体
-            if (request instanceof RequestWrapper) {
-                RequestWrapper wrapper = (RequestWrapper) request;
-                String body = wrapper.getBody();
-                if (body != null && !body.isEmpty()) {
-                    // 先进行脱敏处理
-                    String desensitizedBody = SensitiveUtil.desensitizeJsonString(body);
-                    
-                    logBuilder.append("Request Body   : ");
-                    // 尝试格式化JSON
-                    try {
-                        Object json = objectMapper.readValue(desensitizedBody, Object.class);
-                        logBuilder.append(objectMapper.writerWithDefaultPrettyPrinter().writeValueAsString(json));
-                    } catch (Exception e) {
-                        // 如果不是JSON格式,直接输出脱敏后的内容
-                        logBuilder.append(desensitizedBody);
-                    }
-                    logBuilder.append("\n");
+        // 记录请求体（超过记录上限时请求线程只复制了前 maxBodySize 个字节，此处标记截断）
+        if (event.body != null) {
+            int size = event.bodySize;
+            if (event.bodyUnread) {
+                logBuilder.append("Request Body   : (unread)\n");
+            } else if (size != 0) {
+                boolean truncated = size < 0 || size > event.body.length;
+                logBuilder.append("Request Body   : ");
+                appendBody(logBuilder, event.body, event.bodyCharset);
+                if (truncated) {
+                    logBuilder.append("...(truncated)");
                 }
-                // 记录请求体大小
-                logBuilder.append(String.format("Content Length : %d bytes\n", wrapper.getContentLength()));
+                logBuilder.append("\n");
             }
+            // 记录请求体大小
+            logBuilder.append("Content Length : ").append(size >= 0 ? size + " bytes" : "unknown").append('\n');
+        } else if (event.multipart) {
+            logBuilder.append("Content Length : ").append(event.contentLength).append(" bytes\n");
+        }
 
-            // 记录客户端信息
-            logBuilder.append(String.format("Client IP      : %s\n", RequestContextUtils.getIpAddress()));
-            logBuilder.append(String.format("User Agent     : %s\n", request.getHeader("User-Agent")));
-            logBuilder.append("-------------------- Request End   --------------------");
+        // 记录客户端信息
+        logBuilder.append("Client IP      : ").append(event.clientIp).append('\n');
+        logBuilder.append("User Agent     : ").append(event.userAgent).append('\n');
 
-            // 输出日志
-            log.info(logBuilder.toString());
-        } catch (Exception e) {
-            log.error("记录请求日志失败", e);
+        // 记录处理结果
+        if (event.status >= 0) {
+            logBuilder.append("Response Status: ").append(event.status).append('\n');
+        }
+        if (event.durationMillis >= 0) {
+            logBuilder.append("Duration       : ").append(event.durationMillis).append(" ms\n");
         }
+        logBuilder.append("-------------------- Request End   --------------------");
+        return logBuilder.toString();
+    }
+
+    /**
+     * 输出脱敏后的请求体
+     * JSON请求体一次遍历完成脱敏和美化，UTF-8编码时直接解析复制的字节；其他内容按文本规则脱敏
+     * （截断处的不完整字符以替换字符表示）
+     */
+    private static void appendBody(StringBuilder target, byte[] body, Charset charset) {
+        int start = target.length();
+        try {
+            JsonDesensitizer desensitizer = SensitiveUtil.getJsonDesensitizer();
+            Writer out = new JsonDesensitizer.StringBuilderWriter(target);
+            boolean json = StandardCharsets.UTF_8.equals(charset)
+                    ? desensitizer.write(body, 0, body.length, out, true)
+                    : desensitizer.write(new String(body, charset), out, true);
+            if (json) {
+                return;
+            }
+        } catch (IOException e) {
+            target.setLength(start);
+        }
+        target.append(SensitiveUtil.desensitizeJsonString(new String(body, charset)));
+    }
+
+    /**
+     * 是否为multipart请求
+     */
+    static boolean isMultipart(HttpServletRequest request) {
+        String contentType = request.getContentType();
+        return contentType != null && contentType.toLowerCase().startsWith("multipart/");
     }
 
     /**
@@ -1,115 +1,104 @@
 package com.seventeen.svt.common.util;
 
-import jakarta.servlet.ReadListener;
+import com.seventeen.svt.common.config.RequestBodyConfig;
 import jakarta.servlet.ServletInputStream;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletRequestWrapper;
-import org.springframework.util.StreamUtils;
+import org.springframework.web.util.WebUtils;
 
 import java.io.*;
-import java.nio.charset.StandardCharsets;
 
 /**
  * 请求包装器
  * 用于缓存请求体,支持多次读取
+ * 输入流支持Servlet异步非阻塞读取（见 {@link ByteArrayServletInputStream}）
+ * 同一请求的请求体只读取一次：包装链中已有RequestWrapper时直接共用其 {@link RequestBodyHolder}
+ * 请求体延迟读取：包装时不读取输入流，第一次访问请求体时才缓存，大请求体溢出到临时文件
  */
 public class RequestWrapper extends HttpServletRequestWrapper {
     /**
-     * 最大请求体大小 10MB
+     * 未注入配置时使用的默认配置（最大请求体10MB）
      */
-    private static final int MAX_BODY_SIZE = 10 * 1024 * 1024;
+    private static final RequestBodyConfig DEFAULT_CONFIG = new RequestBodyConfig();
 
-    private final byte[] content;
-    private final String characterEncoding;
+    private final RequestBodyHolder body;
 
-    public RequestWrapper(HttpServletRequest request) throws IOException {
+    public RequestWrapper(HttpServletRequest request) {
+        this(request, DEFAULT_CONFIG);
+    }
+
+    public RequestWrapper(HttpServletRequest request, RequestBodyConfig config) {
+        super(request);
+        // 包装链中已有请求体持有者时直接共用
+        RequestWrapper existing = WebUtils.getNativeRequest(request, RequestWrapper.class);
+        this.body = existing != null ? existing.body : RequestBodyHolder.lazy(request, config);
+    }
+
+    /**
+     * 使用已有请求体创建包装器（如解密后的请求体）
+     */
+    protected RequestWrapper(HttpServletRequest request, RequestBodyHolder body) {
         super(request);
-        // 获取字符编码,默认UTF-8
-        String encoding = request.getCharacterEncoding();
-        this.characterEncoding = encoding != null ? encoding : StandardCharsets.UTF_8.name();
-
-        // 读取请求体
-        byte[] bytes = StreamUtils.copyToByteArray(request.getInputStream());
-        // 检查请求体大小
-        if (bytes.length > MAX_BODY_SIZE) {
-            throw new IllegalStateException("Request body is too large, max size is " + MAX_BODY_SIZE + " bytes");
-        }
-        this.content = bytes;
+        this.body = body;
+    }
+
+    /**
+     * 获取请求对应的包装器
+     * 包装链中已有RequestWrapper时直接返回（最外层的一个），否则创建新的包装器
+     */
+    public static RequestWrapper of(HttpServletRequest request, RequestBodyConfig config) {
+        RequestWrapper existing = WebUtils.getNativeRequest(request, RequestWrapper.class);
+        return existing != null ? existing : new RequestWrapper(request, config);
     }
 
     @Override
-    public ServletInputStream getInputStream() {
-        final ByteArrayInputStream byteArrayInputStream = new ByteArrayInputStream(content);
-        return new ServletInputStream() {
-            @Override
-            public boolean isFinished() {
-                return byteArrayInputStream.available() == 0;
-            }
-
-            @Override
-            public boolean isReady() {
-                return true;
-            }
-
-            @Override
-            public void setReadListener(ReadListener readListener) {
-                throw new UnsupportedOperationException("setReadListener is not supported");
-            }
-
-            @Override
-            public int read() {
-                return byteArrayInputStream.read();
-            }
-
-            @Override
-            public int read(byte[] b, int off, int len) {
-                return byteArrayInputStream.read(b, off, len);
-            }
-
-            @Override
-            public void close() {
-                try {
-                    byteArrayInputStream.close();
-                } catch (IOException e) {
-                    // ignore
-                }
-            }
-        };
+    public ServletInputStream getInputStream() throws IOException {
+        return body.openStream(this);
     }
 
     @Override
-    public BufferedReader getReader() throws UnsupportedEncodingException {
-        return new BufferedReader(new InputStreamReader(getInputStream(), characterEncoding));
+    public BufferedReader getReader() throws IOException {
+        return new BufferedReader(new InputStreamReader(getInputStream(), body.getCharset()));
     }
 
     /**
      * 获取请求体内容
      */
     public String getBody() {
-        try {
-            return new String(content, characterEncoding);
-        } catch (UnsupportedEncodingException e) {
-            // 如果字符编码不支持,使用UTF-8
-            return new String(content, StandardCharsets.UTF_8);
-        }
+        return body.asString();
+    }
+
+    /**
+     * 获取请求体持有者
+     */
+    public RequestBodyHolder getBodyHolder() {
+        return body;
     }
 
     /**
      * 获取请求体字节数组
+     * 请求体已溢出到临时文件时会复制到堆内，大请求体应优先使用 {@link #getInputStream()}
      */
     public byte[] getContentAsByteArray() {
-        return content;
+        return body.getBytes();
     }
 
     /**
      * 获取请求体大小
+     * 请求体尚未读取时返回请求声明的长度，不触发读取
      */
+    @Override
     public int getContentLength() {
-        return content.length;
+        return body.isCaptured() ? body.size() : super.getContentLength();
+    }
+
+    @Override
+    public long getContentLengthLong() {
+        return body.isCaptured() ? body.size() : super.getContentLengthLong();
     }
 
     @Override
     public String getCharacterEncoding() {
-        return this.characterEncoding;
+        return body.getCharset().name();
     }
 } 
\ No newline at end of file
@@ -11,16 +11,44 @@ import org.springframework.stereotype.Component;
 import java.lang.reflect.Field;
 import java.util.Collection;
 import java.util.Map;
+import java.util.regex.Pattern;
 
 @Slf4j
 @Component
 public class SensitiveUtil {
     
+    /**
+     * 非JSON文本（如表单参数）的脱敏规则，预编译避免每次调用重新编译
+     */
+    private static final Pattern TEXT_PASSWORD = Pattern.compile(
+            "(?i)(\"?(?:password|pwd|pass|payPassword|confirmPassword)\"?\\s*[:=]\\s*\"?)[^,\\s\"\\}&]+");
+    private static final Pattern TEXT_PHONE = Pattern.compile(
+            "(?i)(\"?(?:phone|mobile|tel)\"?\\s*[:=]\\s*\"?)(1[3-9]\\d)(\\d{4})(\\d{4})");
+    private static final Pattern TEXT_EMAIL = Pattern.compile(
+            "(?i)(\"?(?:email|mail)\"?\\s*[:=]\\s*\"?)([^@\"\\s]{1,2})[^@\"\\s]*(@[^\"\\s,\\}]+)");
+    private static final Pattern TEXT_ID_CARD = Pattern.compile(
+            "(?i)(\"?(?:idcard|id_card|identity)\"?\\s*[:=]\\s*\"?)(\\d{6})\\d{8}(\\d{4})");
+    private static final Pattern TEXT_NAME = Pattern.compile(
+            "(?i)(\"?(?:name|realName|userName)\"?\\s*[:=]\\s*\"?)([\\u4e00-\\u9fa5])([\\u4e00-\\u9fa5]+)");
+
     private static SensitiveConfig sensitiveConfig;
+
+    private static volatile JsonDesensitizer jsonDesensitizer = new JsonDesensitizer(JsonDesensitizer.DEFAULT_FIELDS);
     
     @Autowired
     public void setSensitiveConfig(SensitiveConfig sensitiveConfig) {
         SensitiveUtil.sensitiveConfig = sensitiveConfig;
+        SensitiveUtil.jsonDesensitizer = new JsonDesensitizer(sensitiveConfig.getJsonFields());
+    }
+
+    /**
+     * 获取JSON流式脱敏器，脱敏功能关闭时返回只复制不脱敏的实例
+     */
+    public static JsonDesensitizer getJsonDesensitizer() {
+        if (sensitiveConfig != null && !sensitiveConfig.isEnabled()) {
+            return JsonDesensitizer.NONE;
+        }
+        return jsonDesensitizer;
     }
 
     /**
@@ -139,7 +167,7 @@ public class SensitiveUtil {
     /**
      * 根据策略对字符串进行脱敏
      */
-    private static String desensitizeValue(String value, SensitiveStrategy strategy) {
+    static String desensitizeValue(String value, SensitiveStrategy strategy) {
         if (ObjectUtil.isEmpty(value)) {
             return value;
         }
@@ -188,6 +216,7 @@ public class SensitiveUtil {
     /**
      * JSON字符串脱敏处理（新增）
      * 用于对JSON格式的请求体和响应体进行脱敏
+     * JSON对象或数组由 {@link JsonDesensitizer} 一次遍历完成脱敏，其他文本（如表单参数）按预编译的正则规则脱敏
      *
      * @param jsonString JSON字符串
      * @return 脱敏后的JSON字符串
@@ -204,18 +233,10 @@ public class SensitiveUtil {
         }
         
         try {
-            // 使用正则表达式进行简单脱敏，避免复杂的JSON解析
-            String result = jsonString
-                // 密码类字段脱敏
-                .replaceAll("(?i)(\"?(?:password|pwd|pass|payPassword|confirmPassword)\"?\\s*[:=]\\s*\"?)[^,\\s\"\\}]+", "$1\"****\"")
-                // 手机号脱敏 
-                .replaceAll("(?i)(\"?(?:phone|mobile|tel)\"?\\s*[:=]\\s*\"?)(1[3-9]\\d)(\\d{4})(\\d{4})", "$1$2****$4")
-                // 邮箱脱敏
-                .replaceAll("(?i)(\"?(?:email|mail)\"?\\s*[:=]\\s*\"?)([^@\"\\s]{1,2})[^@\"\\s]*(@[^\"\\s,\\}]+)", "$1$2***$3")
-                // 身份证号脱敏
-                .replaceAll("(?i)(\"?(?:idcard|id_card|identity)\"?\\s*[:=]\\s*\"?)(\\d{6})\\d{8}(\\d{4})", "$1$2********$3")
-                // 姓名脱敏（中文）
-                .replaceAll("(?i)(\"?(?:name|realName|userName)\"?\\s*[:=]\\s*\"?)([\\u4e00-\\u9fa5])([\\u4e00-\\u9fa5]+)", "$1$2**");
+            StringBuilder builder = new StringBuilder(jsonString.length());
+            String result = jsonDesensitizer.write(jsonString, new JsonDesensitizer.StringBuilderWriter(builder), false)
+                    ? builder.toString()
+                    : desensitizeText(jsonString);
             
             log.debug("JSON字符串脱敏完成，原始长度: {}, 脱敏后长度: {}", 
                      jsonString.length(), result.length());
@@ -226,4 +247,15 @@ public class SensitiveUtil {
             return "[敏感信息已屏蔽]";
         }
     }
+
+    /**
+     * 非JSON文本脱敏
+     */
+    private static String desensitizeText(String text) {
+        String result = TEXT_PASSWORD.matcher(text).replaceAll("$1\"****\"");
+        result = TEXT_PHONE.matcher(result).replaceAll("$1$2****$4");
+        result = TEXT_EMAIL.matcher(result).replaceAll("$1$2***$3");
+        result = TEXT_ID_CARD.matcher(result).replaceAll("$1$2********$3");
+        return TEXT_NAME.matcher(result).replaceAll("$1$2**");
+    }
 }
\ No newline at end of file
@@ -55,8 +55,11 @@ public class AuditAspect {
                 for (Object arg : logArgs) {
                     SensitiveUtil.desensitize(arg);
                 }
+                // 再按字段名脱敏（覆盖Map等未标注@SensitiveLog的参数）
+                auditLog.setRequestParams(SensitiveUtil.desensitizeJsonString(JSONUtil.toJsonStr(logArgs)));
+            } else {
+                auditLog.setRequestParams(JSONUtil.toJsonStr(logArgs));
             }
-            auditLog.setRequestParams(JSONUtil.toJsonStr(logArgs));
         }
 
         Object result = null;
@@ -74,8 +77,10 @@ public class AuditAspect {
                     // 深拷贝结果进行脱敏处理
                     logResult = ObjectUtil.cloneByStream(result);
                     SensitiveUtil.desensitize(logResult);
+                    auditLog.setResponseResult(SensitiveUtil.desensitizeJsonString(JSONUtil.toJsonStr(logResult)));
+                } else {
+                    auditLog.setResponseResult(JSONUtil.toJsonStr(logResult));
                 }
-                auditLog.setResponseResult(JSONUtil.toJsonStr(logResult));
             }
 
             auditLog.setOperationResult("0");
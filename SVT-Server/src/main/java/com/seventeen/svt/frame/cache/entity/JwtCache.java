@@ -1,12 +1,14 @@
 package com.seventeen.svt.frame.cache.entity;
 
+import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
-import lombok.Data;
-import lombok.NoArgsConstructor;
+import lombok.Getter;
+import lombok.extern.jackson.Jacksonized;
 
 import java.io.Serializable;
-import java.util.Date;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
 
 /**
  * JWT缓存实体类 (简化版本)
@@ -15,57 +17,130 @@ import java.util.Date;
  * - 移除废弃的续期机制字段
  * - 专注于活跃度管理的核心字段
  * - 保持序列化兼容性
+ * - 不可变对象，时间字段均为毫秒时间戳；状态变化通过 with 方法生成新实例，
+ *   由 {@link com.seventeen.svt.frame.cache.util.JwtCacheUtils#evaluate} 在缓存的原子操作中替换
+ * - 可通过Jackson序列化，供数据库会话存储保存
+ * - 唯一的可变状态是普通请求的活动时间戳，以宽松原子写入单独保存，不替换缓存条目；
+ *   读取最后活动时间或续期生成新实例时合并
  * 
  * @since v1.2 (2025-07-01) - 简化版本
  */
-@Data
+@Getter
 @Builder
-@NoArgsConstructor
-@AllArgsConstructor
-public class JwtCache implements Serializable {
+@Jacksonized
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public final class JwtCache implements Serializable {
 
-    private static final long serialVersionUID = 1L;
+    private static final long serialVersionUID = 2L;
 
     /**
      * 当前Token
      */
-    private String token;
+    private final String token;
 
     /**
      * 登录ID(用户ID)
      */
-    private String userId;
+    private final String userId;
 
     /**
      * 登录IP
      */
-    private String loginIp;
+    private final String loginIp;
 
     /**
-     * 创建时间
+     * 创建时间 (毫秒时间戳)
      */
-    private Date createdTime;
+    private final long createdTime;
 
     /**
-     * 过期时间
+     * 过期时间 (毫秒时间戳)
      */
-    private Date expirationTime;
+    private final long expirationTime;
 
     /**
      * 最后活动时间 (毫秒时间戳)
-     * 用于跟踪用户最后一次操作的时间
+     * 用于跟踪用户最后一次操作的时间；创建或续期时的值，之后的活动见 {@link #recordActivity}
      */
-    private Long lastActivityTime;
+    @Getter(AccessLevel.NONE)
+    private final long lastActivityTime;
 
     /**
      * 活跃度周期开始时间 (毫秒时间戳)
      * 用于计算当前活跃度周期的起始时间
      */
-    private Long activityCycleStartTime;
+    private final long activityCycleStartTime;
 
     /**
      * 活跃度续期次数 (统计用途)
      * 记录用户在当前会话中进行活跃度续期的次数
      */
-    private Integer activityRenewalCount;
+    private final int activityRenewalCount;
+
+    /**
+     * 普通请求的活动时间戳（不参与序列化和构建）
+     */
+    @Getter(AccessLevel.NONE)
+    private final transient ActivityStamp activity = new ActivityStamp();
+
+    /**
+     * 记录一次活动，不生成新实例
+     * 宽松写入（opaque），只在时间前进时写入，同一时钟刻度内的并发请求不重复写同一缓存行
+     *
+     * @param now 当前时间（毫秒），通常取自 {@link com.seventeen.svt.common.util.CoarseClock}
+     */
+    public void recordActivity(long now) {
+        if (activity != null) {
+            activity.advance(now);
+        }
+    }
+
+    /**
+     * 最后活动时间 (毫秒时间戳)，合并创建或续期时的值与之后记录的活动
+     */
+    public long getLastActivityTime() {
+        return activity != null ? Math.max(lastActivityTime, activity.get()) : lastActivityTime;
+    }
+
+    /**
+     * 生成记录了一次活动的新实例（续期时使用，普通请求使用 {@link #recordActivity}）
+     *
+     * @param now   当前时间
+     * @param renew 是否同时开始新的活跃度周期（续期）
+     */
+    public JwtCache withActivity(long now, boolean renew) {
+        return new JwtCache(token, userId, loginIp, createdTime, expirationTime, now,
+                renew ? now : activityCycleStartTime,
+                renew ? activityRenewalCount + 1 : activityRenewalCount);
+    }
+
+    /**
+     * 活动时间戳：一个long槽位，以opaque方式读写
+     * 只需保证最终可见，不需要与其他字段建立先后关系，比volatile写开销更低
+     */
+    private static final class ActivityStamp {
+
+        private static final VarHandle TIME;
+
+        static {
+            try {
+                TIME = MethodHandles.lookup().findVarHandle(ActivityStamp.class, "time", long.class);
+            } catch (ReflectiveOperationException e) {
+                throw new ExceptionInInitializerError(e);
+            }
+        }
+
+        @SuppressWarnings("unused")
+        private long time;
+
+        void advance(long now) {
+            if ((long) TIME.getOpaque(this) < now) {
+                TIME.setOpaque(this, now);
+            }
+        }
+
+        long get() {
+            return (long) TIME.getOpaque(this);
+        }
+    }
 }
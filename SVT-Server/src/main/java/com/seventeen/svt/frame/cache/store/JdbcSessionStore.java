@@ -0,0 +1,312 @@
+package com.seventeen.svt.frame.cache.store;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.Scheduler;
+import com.seventeen.svt.frame.cache.store.entity.SessionStoreEntry;
+import com.seventeen.svt.frame.cache.store.mapper.SessionStoreMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.UnaryOperator;
+
+/**
+ * 数据库会话存储
+ * 条目以JSON保存在 session_store 表中，所有节点共享；本地近缓存保存最近读写的条目
+ *
+ * 设计说明：
+ * - 读取优先命中近缓存，未命中时查询数据库
+ * - 写入按条目版本做乐观锁更新，版本冲突时从数据库重新读取后再次计算，多个节点的并发写入不会互相覆盖
+ * - 每次写入在同一事务中追加变更日志，其他节点轮询变更日志后失效对应的近缓存
+ * - 条目对象中不写入存储的状态（如会话活动时间戳）只存在于本节点近缓存的对象中
+ * - 近缓存设置较短的有效期，变更日志轮询遗漏（如事务提交顺序导致的序号空洞）时由过期兜底
+ * - 指定了 {@link SessionExpiry} 时，数据库过期时间和近缓存有效期都不超过条目自身的过期时间，
+ *   到期条目由定期清理逐条删除并触发到期回调，实际删除条目的节点执行回调，每个条目只回调一次
+ *
+ * @param <V> 条目类型
+ * @author SEVENTEEN
+ * @since 2026-10-17
+ */
+@Slf4j
+final class JdbcSessionStore<V> implements SessionStore<V> {
+
+    private static final int MAX_ATTEMPTS = 8;
+
+    private final String region;
+    private final Class<V> type;
+    private final long ttlMillis;
+    private final SessionExpiry<V> expiry;
+    private final SessionStoreMapper mapper;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final String nodeId;
+    private final Cache<String, Versioned<V>> nearCache;
+
+    JdbcSessionStore(String region, Class<V> type, long maximumSize, long ttlSeconds, SessionExpiry<V> expiry,
+                     long nearCacheTtlSeconds, SessionStoreMapper mapper, ObjectMapper objectMapper,
+                     TransactionTemplate transactionTemplate, String nodeId) {
+        this.region = region;
+        this.type = type;
+        this.ttlMillis = TimeUnit.SECONDS.toMillis(ttlSeconds);
+        this.expiry = expiry;
+        this.mapper = mapper;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = transactionTemplate;
+        this.nodeId = nodeId;
+        this.nearCache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new Expiry<String, Versioned<V>>() {
+                    @Override
+                    public long expireAfterCreate(String key, Versioned<V> entry, long currentTime) {
+                        return TimeUnit.MILLISECONDS.toNanos(nearCacheLifetimeMillis(entry.value, nearCacheTtlSeconds));
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, Versioned<V> entry, long currentTime,
+                                                  long currentDuration) {
+                        return expireAfterCreate(key, entry, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, Versioned<V> entry, long currentTime,
+                                                long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .scheduler(Scheduler.systemScheduler())
+                .recordStats()
+                .build();
+    }
+
+    @Override
+    public V get(String key) {
+        Versioned<V> entry = load(key);
+        return entry == null ? null : entry.value;
+    }
+
+    /**
+     * 保存条目，即使传入的是近缓存中的同一对象（调用方就地修改后保存）也写入数据库
+     */
+    @Override
+    public void put(String key, V value) {
+        compute(key, current -> value, true);
+    }
+
+    @Override
+    public V remove(String key) {
+        Object[] removed = new Object[1];
+        compute(key, current -> {
+            removed[0] = current;
+            return null;
+        }, false);
+        return type.cast(removed[0]);
+    }
+
+    @Override
+    public V compute(String key, UnaryOperator<V> remapping) {
+        return compute(key, remapping, false);
+    }
+
+    private V compute(String key, UnaryOperator<V> remapping, boolean forceWrite) {
+        for (int attempt = 0; attempt < MAX_ATTEMPTS; attempt++) {
+            Versioned<V> current = attempt == 0 ? load(key) : reload(key);
+            V value = current == null ? null : current.value;
+            V next = remapping.apply(value);
+            if (next == null && value == null || next == value && !forceWrite) {
+                return next;
+            }
+            if (write(key, current, next)) {
+                return next;
+            }
+            log.debug("Session store [{}] version conflict for user: {}, attempt: {}", region, key, attempt + 1);
+        }
+        throw new IllegalStateException("Session store [" + region + "] update conflict for user: " + key);
+    }
+
+    @Override
+    public String getStats() {
+        return String.format("Size: %d, Near Cache Hit Rate: %.2f%%",
+                nearCache.estimatedSize(),
+                nearCache.stats().hitRate() * 100);
+    }
+
+    /**
+     * 失效近缓存（其他节点写入后由变更日志轮询调用）
+     */
+    void invalidateNear(String key) {
+        nearCache.invalidate(key);
+    }
+
+    /**
+     * 删除到期条目并触发到期回调（由定期清理调用），未指定 {@link SessionExpiry} 时不处理
+     * 逐条按过期条件删除，多个节点同时清理时只有实际删除了条目的节点执行回调
+     *
+     * @param now       当前时间（毫秒）
+     * @param batchSize 每批查询的条目数
+     * @return 删除的条目数
+     */
+    int expireEntries(long now, int batchSize) {
+        if (expiry == null) {
+            return 0;
+        }
+        int expired = 0;
+        List<SessionStoreEntry> rows;
+        do {
+            rows = mapper.selectExpiredEntries(region, now, batchSize);
+            for (SessionStoreEntry row : rows) {
+                String key = row.getSessionKey();
+                if (mapper.deleteExpiredEntry(region, key, now) == 0) {
+                    continue;
+                }
+                nearCache.invalidate(key);
+                expired++;
+                V value = decode(row);
+                if (value == null) {
+                    continue;
+                }
+                try {
+                    expiry.expired(key, value);
+                } catch (RuntimeException e) {
+                    log.warn("Session store [{}] expiry callback failed for user {}: {}", region, key, e.getMessage());
+                }
+            }
+        } while (rows.size() == batchSize);
+        return expired;
+    }
+
+    /**
+     * 条目的数据库过期时间：固定有效期与条目自身过期时间中较早者
+     */
+    private long expireTime(V value, long now) {
+        long expireTime = now + ttlMillis;
+        return expiry == null ? expireTime : Math.min(expireTime, expiry.expiresAt(value));
+    }
+
+    /**
+     * 近缓存有效期（毫秒）：不超过近缓存有效期，也不超过条目自身的过期时间
+     */
+    private long nearCacheLifetimeMillis(V value, long nearCacheTtlSeconds) {
+        long lifetime = TimeUnit.SECONDS.toMillis(nearCacheTtlSeconds);
+        if (expiry == null) {
+            return lifetime;
+        }
+        return Math.min(lifetime, Math.max(expiry.expiresAt(value) - System.currentTimeMillis(), 0));
+    }
+
+    private Versioned<V> load(String key) {
+        Versioned<V> entry = nearCache.getIfPresent(key);
+        return entry != null ? entry : reload(key);
+    }
+
+    private Versioned<V> reload(String key) {
+        SessionStoreEntry row = mapper.selectEntry(region, key);
+        if (row == null || row.isExpired(System.currentTimeMillis())) {
+            nearCache.invalidate(key);
+            return null;
+        }
+        V value = decode(row);
+        if (value == null) {
+            nearCache.invalidate(key);
+            return null;
+        }
+        Versioned<V> entry = new Versioned<>(value, row.getEntryVersion());
+        nearCache.put(key, entry);
+        return entry;
+    }
+
+    /**
+     * 按版本写入条目并追加变更日志
+     *
+     * @return 是否写入成功，false表示版本冲突
+     */
+    private boolean write(String key, Versioned<V> current, V next) {
+        long now = System.currentTimeMillis();
+        String payload = next == null ? null : encode(next);
+        long version = current == null ? newVersion() : current.version + 1;
+        Boolean written;
+        try {
+            written = transactionTemplate.execute(status -> {
+                int rows;
+                if (next == null) {
+                    rows = mapper.deleteEntry(region, key, current.version);
+                } else if (current == null) {
+                    mapper.deleteExpiredEntry(region, key, now);
+                    SessionStoreEntry row = new SessionStoreEntry();
+                    row.setRegion(region);
+                    row.setSessionKey(key);
+                    row.setPayload(payload);
+                    row.setEntryVersion(version);
+                    row.setExpireTime(expireTime(next, now));
+                    rows = mapper.insertEntry(row);
+                } else {
+                    rows = mapper.updateEntry(region, key, payload, expireTime(next, now), version, current.version);
+                }
+                if (rows == 0) {
+                    return false;
+                }
+                mapper.insertChange(region, key, version, nodeId, now);
+                return true;
+            });
+        } catch (DuplicateKeyException e) {
+            written = false;
+        }
+
+        if (!Boolean.TRUE.equals(written)) {
+            return false;
+        }
+        if (next == null) {
+            nearCache.invalidate(key);
+        } else {
+            nearCache.put(key, new Versioned<>(next, version));
+        }
+        return true;
+    }
+
+    /**
+     * 读取条目内容，内容无法解析时返回null（按条目不存在处理）
+     */
+    private V decode(SessionStoreEntry row) {
+        try {
+            return objectMapper.readValue(row.getPayload(), type);
+        } catch (JsonProcessingException e) {
+            log.warn("Session store [{}] entry for user {} cannot be read, treated as missing: {}",
+                    region, row.getSessionKey(), e.getOriginalMessage());
+            return null;
+        }
+    }
+
+    private String encode(V value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Session store [" + region + "] entry cannot be serialized", e);
+        }
+    }
+
+    /**
+     * 新建条目使用随机初始版本，避免删除后重建的条目与其他节点近缓存中的旧条目版本相同
+     */
+    private static long newVersion() {
+        return ThreadLocalRandom.current().nextLong(1, Long.MAX_VALUE / 2);
+    }
+
+    /**
+     * 近缓存条目：条目值及其在数据库中的版本
+     */
+    private static final class Versioned<V> {
+        private final V value;
+        private final long version;
+
+        private Versioned(V value, long version) {
+            this.value = value;
+            this.version = version;
+        }
+    }
+}
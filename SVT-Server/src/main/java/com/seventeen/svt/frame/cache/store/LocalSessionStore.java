@@ -0,0 +1,184 @@
+package com.seventeen.svt.frame.cache.store;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.Policy;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.github.benmanes.caffeine.cache.Scheduler;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.function.UnaryOperator;
+
+/**
+ * 本地会话存储
+ * 进程内Caffeine缓存，多节点部署时需配合Session Sticky
+ * 配置了快照时定期将条目写入本地快照文件，启动时恢复，服务重启后用户无需重新登录（见 {@link SessionSnapshot}）
+ * 指定了 {@link SessionExpiry} 时条目按自身的过期时间到期，由Caffeine的分层时间轮调度，
+ * 到期条目由系统调度线程及时移除，空闲会话不会占用容量直到被按容量淘汰
+ *
+ * @param <V> 条目类型
+ * @author SEVENTEEN
+ * @since 2026-10-17
+ */
+@Slf4j
+final class LocalSessionStore<V> implements SessionStore<V> {
+
+    private final String region;
+    private final Cache<String, V> cache;
+    private final SessionCodec<V> codec;
+    private final SessionSnapshot snapshot;
+    private final long ttlNanos;
+    private final SessionExpiry<V> expiry;
+
+    /**
+     * @param ttlSeconds 条目有效期（秒），写入后重新计时，0表示不过期
+     * @param expiry     按条目计算的过期时间，为null时只按固定有效期过期
+     * @param snapshot   快照文件，为null时不保存快照
+     */
+    LocalSessionStore(String region, long maximumSize, long ttlSeconds, SessionExpiry<V> expiry,
+                      SessionCodec<V> codec, SessionSnapshot snapshot) {
+        this.region = region;
+        this.codec = codec;
+        this.snapshot = snapshot;
+        this.ttlNanos = ttlSeconds > 0 ? TimeUnit.SECONDS.toNanos(ttlSeconds) : Long.MAX_VALUE;
+        this.expiry = expiry;
+        Caffeine<Object, Object> builder = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .recordStats();
+        if (ttlSeconds > 0 || expiry != null) {
+            // 写入（包括替换）时按条目重新计算有效期，读取不延长；从快照恢复时按剩余时间设置
+            builder.expireAfter(new Expiry<String, V>() {
+                @Override
+                public long expireAfterCreate(String key, V value, long currentTime) {
+                    return lifetimeNanos(value);
+                }
+
+                @Override
+                public long expireAfterUpdate(String key, V value, long currentTime, long currentDuration) {
+                    return lifetimeNanos(value);
+                }
+
+                @Override
+                public long expireAfterRead(String key, V value, long currentTime, long currentDuration) {
+                    return currentDuration;
+                }
+            }).scheduler(Scheduler.systemScheduler());
+        }
+        this.cache = builder
+                .<String, V>removalListener((key, value, cause) -> {
+                    log.debug("Session store [{}] entry removed for user: {}, cause: {}", region, key, cause);
+                    if (cause == RemovalCause.EXPIRED && expiry != null) {
+                        expiry.expired(key, value);
+                    }
+                })
+                .build();
+    }
+
+    /**
+     * 条目有效期（纳秒）：固定有效期与条目自身过期时间中较早者
+     */
+    private long lifetimeNanos(V value) {
+        if (expiry == null) {
+            return ttlNanos;
+        }
+        long remainingMillis = Math.max(expiry.expiresAt(value) - System.currentTimeMillis(), 0);
+        return Math.min(ttlNanos, TimeUnit.MILLISECONDS.toNanos(remainingMillis));
+    }
+
+    @Override
+    public V get(String key) {
+        return cache.getIfPresent(key);
+    }
+
+    @Override
+    public void put(String key, V value) {
+        cache.put(key, value);
+    }
+
+    @Override
+    public V remove(String key) {
+        return cache.asMap().remove(key);
+    }
+
+    @Override
+    public V compute(String key, UnaryOperator<V> remapping) {
+        return cache.asMap().compute(key, (k, value) -> remapping.apply(value));
+    }
+
+    @Override
+    public String getStats() {
+        return String.format("Size: %d, Hit Rate: %.2f%%",
+                cache.estimatedSize(),
+                cache.stats().hitRate() * 100);
+    }
+
+    /**
+     * 将当前条目写入快照文件
+     *
+     * @return 写入的条目数，未配置快照时返回-1
+     */
+    int saveSnapshot(long now) throws IOException {
+        if (snapshot == null) {
+            return -1;
+        }
+        Optional<Policy.VarExpiration<String, V>> expiration = cache.policy().expireVariably();
+        int[] count = new int[1];
+        snapshot.save(out -> {
+            // 每个条目前写入继续标记，以false结尾，遍历时无需预先统计条目数
+            for (Map.Entry<String, V> entry : cache.asMap().entrySet()) {
+                long expiresAt = expiration
+                        .flatMap(policy -> policy.getExpiresAfter(entry.getKey()))
+                        .map(remaining -> now + remaining.toMillis())
+                        .orElse(Long.MAX_VALUE);
+                out.writeBoolean(true);
+                out.writeUTF(entry.getKey());
+                out.writeLong(expiresAt);
+                codec.write(entry.getValue(), out);
+                count[0]++;
+            }
+            out.writeBoolean(false);
+        }, now);
+        return count[0];
+    }
+
+    /**
+     * 从快照文件恢复条目，已过期的条目不恢复，恢复的条目保留原剩余有效期
+     *
+     * @return 恢复的条目数，没有可用快照时返回0
+     */
+    int restoreSnapshot(long now) throws IOException {
+        if (snapshot == null) {
+            return 0;
+        }
+        Optional<Policy.VarExpiration<String, V>> expiration = cache.policy().expireVariably();
+        int[] count = new int[1];
+        snapshot.restore((DataInputStream in, long createdTime) -> {
+            while (in.readBoolean()) {
+                String key = in.readUTF();
+                long expiresAt = in.readLong();
+                V value = codec.read(in);
+                if (expiry != null) {
+                    // 配置变化（如缩短活跃度周期）后按新的过期时间恢复
+                    expiresAt = Math.min(expiresAt, expiry.expiresAt(value));
+                }
+                if (expiresAt <= now) {
+                    continue;
+                }
+                if (expiration.isPresent()) {
+                    expiration.get().put(key, value, expiresAt - now, TimeUnit.MILLISECONDS);
+                } else {
+                    cache.put(key, value);
+                }
+                count[0]++;
+            }
+            log.info("Session store [{}] snapshot taken at {} restored", region, createdTime);
+        });
+        return count[0];
+    }
+}
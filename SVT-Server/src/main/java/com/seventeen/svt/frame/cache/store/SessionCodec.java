@@ -0,0 +1,26 @@
+package com.seventeen.svt.frame.cache.store;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * 会话条目编解码器
+ * 本地会话存储写入快照文件时使用，未指定时按JSON编码
+ *
+ * @param <V> 条目类型
+ * @author SEVENTEEN
+ * @since 2026-10-17
+ */
+public interface SessionCodec<V> {
+
+    /**
+     * 写出条目
+     */
+    void write(V value, DataOutput out) throws IOException;
+
+    /**
+     * 读取条目
+     */
+    V read(DataInput in) throws IOException;
+}
@@ -0,0 +1,28 @@
+package com.seventeen.svt.frame.cache.store;
+
+/**
+ * 会话条目有效期
+ * 按条目内容计算过期时间（如Token过期时间、活跃度周期结束时间），条目到期后由存储主动移除，
+ * 不必等到下一次请求检查或容量淘汰
+ *
+ * @param <V> 条目类型
+ * @author SEVENTEEN
+ * @since 2026-10-17
+ */
+public interface SessionExpiry<V> {
+
+    /**
+     * 条目过期时间（毫秒时间戳），条目写入（包括替换）时计算，实际有效期不超过存储的固定有效期
+     */
+    long expiresAt(V value);
+
+    /**
+     * 条目到期移除后的回调，不应阻塞
+     * 本地存储在缓存的维护线程中执行；数据库存储在定期清理中执行，由删除了该条目的节点回调一次
+     *
+     * @param key   键
+     * @param value 已移除的条目
+     */
+    default void expired(String key, V value) {
+    }
+}
@@ -0,0 +1,347 @@
+package com.seventeen.svt.frame.cache.store;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileAttribute;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.nio.file.attribute.UserPrincipal;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.zip.CRC32;
+
+/**
+ * 会话快照文件
+ * 本地会话存储定期将条目写入快照，启动时读取，服务重启或发布后已登录用户无需重新登录
+ *
+ * 文件格式（大端序）：
+ * <pre>
+ * magic(int) | formatVersion(int) | sequence(long) | createdTime(long) | bodyLength(int) | body | crc32(long)
+ * </pre>
+ * CRC32覆盖magic到body的全部内容，body由存储写出（条目数及各条目）
+ *
+ * 设计说明：
+ * - 两个快照槽位交替写入，写入过程中进程退出时另一个槽位仍然完整，读取时取校验通过且序号最大的槽位
+ * - 条目直接序列化到内存映射缓冲区（容量不足时扩大映射区域），写完后回填头部和CRC并强制刷盘，
+ *   不经过中间字节数组；映射初始大小取上一次快照的大小，稳定运行时无需扩大
+ * - 原地覆盖槽位文件而不是重命名，避免Windows上映射未释放时无法替换文件
+ * - 快照包含Token和用户信息，目录必须显式配置，不使用共享的临时目录
+ * - 目录不存在时创建为仅所有者可访问（rwx------），槽位文件创建为仅所有者可读写（rw-------）；
+ *   已存在的目录或文件必须属于当前用户、组和其他用户无任何权限、且不是符号链接，否则拒绝读写。
+ *   CRC32只用于发现写入中断，不防篡改，快照的可信性依赖于目录只有应用用户可写
+ *
+ * @author SEVENTEEN
+ * @since 2026-10-17
+ */
+@Slf4j
+final class SessionSnapshot {
+
+    /**
+     * "SVTS"
+     */
+    private static final int MAGIC = 0x53565453;
+    private static final int FORMAT_VERSION = 1;
+    private static final int HEADER_SIZE = 4 + 4 + 8 + 8 + 4;
+    private static final int TRAILER_SIZE = 8;
+    private static final int INITIAL_MAPPING_SIZE = 64 * 1024;
+
+    private static final Set<PosixFilePermission> GROUP_OTHER_PERMISSIONS = EnumSet.of(
+            PosixFilePermission.GROUP_READ, PosixFilePermission.GROUP_WRITE, PosixFilePermission.GROUP_EXECUTE,
+            PosixFilePermission.OTHERS_READ, PosixFilePermission.OTHERS_WRITE, PosixFilePermission.OTHERS_EXECUTE);
+
+    private final Path directory;
+    private final boolean posix;
+    private final Path[] slots;
+    private long sequence;
+    /**
+     * 上一次写入的快照大小，作为下一次映射的初始大小
+     */
+    private int lastSize = INITIAL_MAPPING_SIZE;
+
+    SessionSnapshot(Path directory, String region) {
+        this.directory = directory;
+        this.posix = directory.getFileSystem().supportedFileAttributeViews().contains("posix");
+        this.slots = new Path[]{
+                directory.resolve(region + ".0.snapshot"),
+                directory.resolve(region + ".1.snapshot")
+        };
+    }
+
+    /**
+     * 写入快照
+     *
+     * @param body 写出快照内容
+     */
+    synchronized void save(BodyWriter body, long now) throws IOException {
+        long nextSequence = sequence + 1;
+        Path slot = slots[(int) (nextSequence & 1)];
+
+        prepareDirectory();
+        try (FileChannel channel = openForWrite(slot)) {
+            // 内容从头部之后开始写入，写完后再回填头部（写入中断时头部与内容不一致，CRC校验失败）
+            MappedOutputStream mapped = new MappedOutputStream(channel, lastSize, HEADER_SIZE);
+            DataOutputStream out = new DataOutputStream(mapped);
+            body.write(out);
+            out.flush();
+
+            MappedByteBuffer buffer = mapped.reserve(TRAILER_SIZE);
+            int bodyLength = buffer.position() - HEADER_SIZE;
+            buffer.putInt(0, MAGIC)
+                    .putInt(4, FORMAT_VERSION)
+                    .putLong(8, nextSequence)
+                    .putLong(16, now)
+                    .putInt(24, bodyLength);
+            buffer.putLong(checksum(buffer.duplicate().flip()));
+            buffer.force();
+            lastSize = buffer.position();
+        }
+        sequence = nextSequence;
+    }
+
+    /**
+     * 读取最新的完整快照
+     *
+     * @param body 读取快照内容
+     * @return 是否读取到快照
+     */
+    synchronized boolean restore(BodyReader body) throws IOException {
+        if (!Files.exists(directory, LinkOption.NOFOLLOW_LINKS)) {
+            return false;
+        }
+        checkDirectory();
+        ByteBuffer latest = null;
+        for (Path slot : slots) {
+            ByteBuffer content = read(slot);
+            if (content != null && (latest == null || content.getLong(8) > latest.getLong(8))) {
+                latest = content;
+            }
+        }
+        if (latest == null) {
+            return false;
+        }
+
+        sequence = latest.getLong(8);
+        long createdTime = latest.getLong(16);
+        int bodyLength = latest.getInt(24);
+        ByteBuffer content = latest.slice(HEADER_SIZE, bodyLength);
+        try (DataInputStream in = new DataInputStream(new ByteBufferInputStream(content))) {
+            body.read(in, createdTime);
+        }
+        return true;
+    }
+
+    /**
+     * 读取并校验槽位文件，不存在、不完整或校验失败时返回null
+     */
+    private ByteBuffer read(Path slot) throws IOException {
+        if (!Files.exists(slot, LinkOption.NOFOLLOW_LINKS)) {
+            return null;
+        }
+        checkFile(slot);
+        try (FileChannel channel = FileChannel.open(slot, StandardOpenOption.READ, LinkOption.NOFOLLOW_LINKS)) {
+            long fileSize = channel.size();
+            if (fileSize < HEADER_SIZE + TRAILER_SIZE) {
+                return null;
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, fileSize);
+            if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != FORMAT_VERSION) {
+                log.warn("Ignoring session snapshot with unknown format: {}", slot);
+                return null;
+            }
+            int bodyLength = buffer.getInt(24);
+            long end = (long) HEADER_SIZE + bodyLength;
+            if (bodyLength < 0 || end + TRAILER_SIZE > fileSize) {
+                log.warn("Ignoring truncated session snapshot: {}", slot);
+                return null;
+            }
+            if (checksum(buffer.slice(0, (int) end)) != buffer.getLong((int) end)) {
+                log.warn("Ignoring session snapshot with checksum mismatch: {}", slot);
+                return null;
+            }
+            return buffer;
+        }
+    }
+
+    private static long checksum(ByteBuffer buffer) {
+        CRC32 crc = new CRC32();
+        crc.update(buffer);
+        return crc.getValue();
+    }
+
+    /**
+     * 打开槽位文件用于写入：已存在时先检查所有者和权限，不存在时以仅所有者可读写的权限新建
+     */
+    private FileChannel openForWrite(Path slot) throws IOException {
+        if (Files.exists(slot, LinkOption.NOFOLLOW_LINKS)) {
+            checkFile(slot);
+            return FileChannel.open(slot, StandardOpenOption.READ, StandardOpenOption.WRITE, LinkOption.NOFOLLOW_LINKS);
+        }
+        FileAttribute<?>[] attributes = posix
+                ? new FileAttribute<?>[]{PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString("rw-------"))}
+                : new FileAttribute<?>[0];
+        return FileChannel.open(slot, EnumSet.of(StandardOpenOption.CREATE_NEW, StandardOpenOption.READ,
+                StandardOpenOption.WRITE), attributes);
+    }
+
+    /**
+     * 准备快照目录：不存在时创建为仅所有者可访问，已存在时检查所有者和权限
+     */
+    private void prepareDirectory() throws IOException {
+        if (!Files.exists(directory, LinkOption.NOFOLLOW_LINKS)) {
+            Path parent = directory.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            try {
+                if (posix) {
+                    Files.createDirectory(directory,
+                            PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString("rwx------")));
+                } else {
+                    Files.createDirectory(directory);
+                }
+            } catch (FileAlreadyExistsException e) {
+                // 同时被创建，按已存在的目录检查
+            }
+        }
+        checkDirectory();
+    }
+
+    private void checkDirectory() throws IOException {
+        if (!Files.isDirectory(directory, LinkOption.NOFOLLOW_LINKS)) {
+            throw new IOException("Session snapshot directory is not a directory: " + directory);
+        }
+        checkOwnerOnly(directory);
+    }
+
+    private void checkFile(Path slot) throws IOException {
+        if (!Files.isRegularFile(slot, LinkOption.NOFOLLOW_LINKS)) {
+            throw new IOException("Session snapshot is not a regular file: " + slot);
+        }
+        checkOwnerOnly(slot);
+    }
+
+    /**
+     * 检查目录或文件属于当前用户，且组和其他用户没有任何权限
+     */
+    private void checkOwnerOnly(Path path) throws IOException {
+        UserPrincipal owner = Files.getOwner(path, LinkOption.NOFOLLOW_LINKS);
+        UserPrincipal currentUser = path.getFileSystem().getUserPrincipalLookupService()
+                .lookupPrincipalByName(System.getProperty("user.name"));
+        if (!owner.equals(currentUser)) {
+            throw new IOException("Session snapshot " + path + " is owned by " + owner.getName()
+                    + ", not by the application user " + currentUser.getName());
+        }
+        if (posix) {
+            Set<PosixFilePermission> permissions = Files.getPosixFilePermissions(path, LinkOption.NOFOLLOW_LINKS);
+            if (!Collections.disjoint(permissions, GROUP_OTHER_PERMISSIONS)) {
+                throw new IOException("Session snapshot " + path + " is accessible to other users: "
+                        + PosixFilePermissions.toString(permissions));
+            }
+        }
+    }
+
+    /**
+     * 快照内容写出
+     */
+    @FunctionalInterface
+    interface BodyWriter {
+        void write(DataOutputStream out) throws IOException;
+    }
+
+    /**
+     * 快照内容读取
+     */
+    @FunctionalInterface
+    interface BodyReader {
+        /**
+         * @param createdTime 快照写入时间（毫秒）
+         */
+        void read(DataInputStream in, long createdTime) throws IOException;
+    }
+
+    /**
+     * 写入映射缓冲区的输出流
+     * 剩余空间不足时以更大的区域重新映射同一文件，已写入的内容仍在页缓存中，无需复制；
+     * 槽位文件只增不减，超出本次快照长度的旧内容由头部的body长度排除
+     */
+    private static final class MappedOutputStream extends OutputStream {
+
+        private final FileChannel channel;
+        private MappedByteBuffer buffer;
+
+        private MappedOutputStream(FileChannel channel, int initialSize, int position) throws IOException {
+            this.channel = channel;
+            this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, Math.max(initialSize, position));
+            this.buffer.position(position);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            reserve(1).put((byte) b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            reserve(len).put(b, off, len);
+        }
+
+        /**
+         * 保证至少还能写入 length 个字节，返回当前映射缓冲区
+         */
+        private MappedByteBuffer reserve(int length) throws IOException {
+            if (buffer.remaining() >= length) {
+                return buffer;
+            }
+            long required = (long) buffer.position() + length;
+            long capacity = Math.max(required, (long) buffer.capacity() * 2);
+            if (required > Integer.MAX_VALUE) {
+                throw new IOException("Session snapshot exceeds " + Integer.MAX_VALUE + " bytes");
+            }
+            int position = buffer.position();
+            buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, Math.min(capacity, Integer.MAX_VALUE));
+            buffer.position(position);
+            return buffer;
+        }
+    }
+
+    /**
+     * 读取映射缓冲区的输入流，不复制快照内容
+     */
+    private static final class ByteBufferInputStream extends InputStream {
+
+        private final ByteBuffer buffer;
+
+        private ByteBufferInputStream(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            if (!buffer.hasRemaining()) {
+                return -1;
+            }
+            int n = Math.min(len, buffer.remaining());
+            buffer.get(b, off, n);
+            return n;
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.seventeen.svt.frame.cache.store;
+
+import java.util.function.UnaryOperator;
+
+/**
+ * 会话存储
+ * 按用户ID保存会话相关对象（JWT会话、用户详情），由 {@link SessionStoreFactory} 按配置创建：
+ * - local：进程内Caffeine缓存，需配合Session Sticky负载均衡
+ * - jdbc：数据库共享存储加本地近缓存，多个节点共享会话，可水平扩展
+ *
+ * @param <V> 条目类型
+ * @author SEVENTEEN
+ * @since 2026-10-17
+ */
+public interface SessionStore<V> {
+
+    /**
+     * 获取条目，不存在或已过期时返回null
+     */
+    V get(String key);
+
+    /**
+     * 保存条目，覆盖已有条目
+     */
+    void put(String key, V value);
+
+    /**
+     * 删除条目
+     *
+     * @return 删除前的条目，不存在时返回null
+     */
+    V remove(String key);
+
+    /**
+     * 原子地重新计算条目
+     * 共享存储在并发冲突时会以最新条目重新调用计算函数，函数不应有除记录结果以外的副作用
+     *
+     * @param key       键
+     * @param remapping 计算函数，参数为当前条目（不存在时为null），返回null表示删除
+     * @return 计算后的条目
+     */
+    V compute(String key, UnaryOperator<V> remapping);
+
+    /**
+     * 统计信息
+     */
+    String getStats();
+}
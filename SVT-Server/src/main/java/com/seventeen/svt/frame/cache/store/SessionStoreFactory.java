@@ -0,0 +1,250 @@
+package com.seventeen.svt.frame.cache.store;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.seventeen.svt.frame.cache.store.config.SessionStoreConfig;
+import com.seventeen.svt.frame.cache.store.entity.SessionStoreChange;
+import com.seventeen.svt.frame.cache.store.mapper.SessionStoreMapper;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 会话存储工厂
+ * 按 svt.session-store.type 创建本地或数据库会话存储，负责本地存储的快照写入与恢复，
+ * 以及数据库存储的变更日志轮询和过期清理
+ *
+ * @author SEVENTEEN
+ * @since 2026-10-17
+ */
+@Slf4j
+@Component
+public class SessionStoreFactory {
+
+    /**
+     * 清理时每批查询的到期条目数
+     */
+    private static final int CLEANUP_BATCH_SIZE = 200;
+
+    private final SessionStoreConfig config;
+    private final SessionStoreMapper mapper;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * 已创建的数据库存储，按区域索引
+     */
+    private final Map<String, JdbcSessionStore<?>> jdbcStores = new ConcurrentHashMap<>();
+
+    /**
+     * 已创建的本地存储，按区域索引
+     */
+    private final Map<String, LocalSessionStore<?>> localStores = new ConcurrentHashMap<>();
+
+    /**
+     * 已处理的最大变更序号，-1表示尚未初始化
+     */
+    private volatile long lastChangeId = -1;
+
+    public SessionStoreFactory(SessionStoreConfig config, SessionStoreMapper mapper, ObjectMapper objectMapper,
+                               PlatformTransactionManager transactionManager) {
+        this.config = config;
+        this.mapper = mapper;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * 创建会话存储，本地存储快照按JSON编码条目
+     *
+     * @param region      存储区域，同一区域在各节点共享条目
+     * @param type        条目类型（数据库存储以JSON序列化）
+     * @param maximumSize 本地缓存（或近缓存）最大容量
+     * @param ttlSeconds  条目有效期（秒），写入后重新计时
+     */
+    public <V> SessionStore<V> create(String region, Class<V> type, long maximumSize, long ttlSeconds) {
+        return create(region, type, maximumSize, ttlSeconds, jsonCodec(type));
+    }
+
+    /**
+     * 创建会话存储，条目只按固定有效期过期
+     *
+     * @param codec 本地存储写入快照文件时使用的编解码器
+     */
+    public <V> SessionStore<V> create(String region, Class<V> type, long maximumSize, long ttlSeconds,
+                                      SessionCodec<V> codec) {
+        return create(region, type, maximumSize, ttlSeconds, null, codec);
+    }
+
+    /**
+     * 创建会话存储
+     *
+     * @param expiry 按条目计算的过期时间，为null时条目只按 ttlSeconds 过期
+     * @param codec  本地存储写入快照文件时使用的编解码器
+     */
+    public <V> SessionStore<V> create(String region, Class<V> type, long maximumSize, long ttlSeconds,
+                                      SessionExpiry<V> expiry, SessionCodec<V> codec) {
+        if (config.getType() == SessionStoreConfig.Type.LOCAL) {
+            return createLocal(region, maximumSize, ttlSeconds, expiry, codec);
+        }
+
+        JdbcSessionStore<V> store = new JdbcSessionStore<>(region, type, maximumSize, ttlSeconds, expiry,
+                config.getNearCacheTtl(), mapper, objectMapper, transactionTemplate, config.getNodeId());
+        if (jdbcStores.putIfAbsent(region, store) != null) {
+            throw new IllegalStateException("Session store region already created: " + region);
+        }
+        log.info("Session store [{}] using database with near cache, node: {}, near cache ttl: {}s",
+                region, config.getNodeId(), config.getNearCacheTtl());
+        return store;
+    }
+
+    private <V> LocalSessionStore<V> createLocal(String region, long maximumSize, long ttlSeconds,
+                                                 SessionExpiry<V> expiry, SessionCodec<V> codec) {
+        SessionStoreConfig.Snapshot snapshotConfig = config.getSnapshot();
+        SessionSnapshot snapshot = null;
+        if (snapshotConfig.isEnabled()) {
+            if (StringUtils.hasText(snapshotConfig.getDirectory())) {
+                snapshot = new SessionSnapshot(Paths.get(snapshotConfig.getDirectory()), region);
+            } else {
+                log.warn("Session store [{}] snapshot disabled: svt.session-store.snapshot.directory is not configured",
+                        region);
+            }
+        }
+        LocalSessionStore<V> store = new LocalSessionStore<>(region, maximumSize, ttlSeconds, expiry, codec, snapshot);
+        if (localStores.putIfAbsent(region, store) != null) {
+            throw new IllegalStateException("Session store region already created: " + region);
+        }
+
+        if (snapshot == null) {
+            log.info("Session store [{}] using local cache", region);
+            return store;
+        }
+        try {
+            int restored = store.restoreSnapshot(System.currentTimeMillis());
+            log.info("Session store [{}] using local cache, {} entries restored from snapshot", region, restored);
+        } catch (IOException | RuntimeException e) {
+            // 快照不可用时按冷启动处理，用户重新登录即可
+            log.warn("Session store [{}] snapshot cannot be restored, starting empty: {}", region, e.getMessage());
+        }
+        return store;
+    }
+
+    /**
+     * 定期写入本地存储快照
+     */
+    @Scheduled(fixedDelayString = "#{${svt.session-store.snapshot.interval:60} * 1000}")
+    public void saveSnapshots() {
+        long now = System.currentTimeMillis();
+        localStores.forEach((region, store) -> {
+            try {
+                int saved = store.saveSnapshot(now);
+                if (saved >= 0) {
+                    log.debug("Session store [{}] snapshot saved, entries: {}", region, saved);
+                }
+            } catch (IOException | RuntimeException e) {
+                log.warn("Session store [{}] snapshot cannot be saved: {}", region, e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * 停机时写入最后一次快照，发布后恢复的会话状态为停机时的状态
+     */
+    @PreDestroy
+    public void saveSnapshotsOnShutdown() {
+        saveSnapshots();
+    }
+
+    /**
+     * JSON编解码器，用于未指定编解码器的条目类型
+     */
+    private <V> SessionCodec<V> jsonCodec(Class<V> type) {
+        return new SessionCodec<>() {
+            @Override
+            public void write(V value, DataOutput out) throws IOException {
+                byte[] json = objectMapper.writeValueAsBytes(value);
+                out.writeInt(json.length);
+                out.write(json);
+            }
+
+            @Override
+            public V read(DataInput in) throws IOException {
+                byte[] json = new byte[in.readInt()];
+                in.readFully(json);
+                return objectMapper.readValue(json, type);
+            }
+        };
+    }
+
+    /**
+     * 轮询变更日志，失效其他节点写入的条目的近缓存
+     */
+    @Scheduled(fixedDelayString = "${svt.session-store.poll-interval:1000}")
+    public void pollChanges() {
+        if (jdbcStores.isEmpty()) {
+            return;
+        }
+        try {
+            if (lastChangeId < 0) {
+                // 启动时从当前位置开始，近缓存为空，无需处理之前的变更
+                Long maxChangeId = mapper.selectMaxChangeId();
+                lastChangeId = maxChangeId != null ? maxChangeId : 0;
+                return;
+            }
+
+            List<SessionStoreChange> changes;
+            do {
+                changes = mapper.selectChangesAfter(lastChangeId, config.getPollBatchSize());
+                for (SessionStoreChange change : changes) {
+                    lastChangeId = change.getChangeId();
+                    if (config.getNodeId().equals(change.getNodeId())) {
+                        continue;
+                    }
+                    JdbcSessionStore<?> store = jdbcStores.get(change.getRegion());
+                    if (store != null) {
+                        store.invalidateNear(change.getSessionKey());
+                    }
+                }
+            } while (changes.size() == config.getPollBatchSize());
+        } catch (Exception e) {
+            log.warn("Session store change log polling failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 清理过期条目和变更日志
+     * 指定了 {@link SessionExpiry} 的存储先逐条删除到期条目并触发到期回调（如释放用户详情），再批量删除其余过期条目
+     */
+    @Scheduled(fixedRateString = "#{${svt.session-store.cleanup-interval:300} * 1000}")
+    public void cleanup() {
+        if (jdbcStores.isEmpty()) {
+            return;
+        }
+        try {
+            long now = System.currentTimeMillis();
+            int entries = 0;
+            for (JdbcSessionStore<?> store : jdbcStores.values()) {
+                entries += store.expireEntries(now, CLEANUP_BATCH_SIZE);
+            }
+            entries += mapper.deleteExpiredEntries(now);
+            int changes = mapper.deleteChangesBefore(now - TimeUnit.SECONDS.toMillis(config.getChangeRetention()));
+            if (entries > 0 || changes > 0) {
+                log.debug("Session store cleanup - expired entries: {}, change log: {}", entries, changes);
+            }
+        } catch (Exception e) {
+            log.warn("Session store cleanup failed: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.seventeen.svt.frame.cache.store.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+
+/**
+ * 会话存储配置类
+ *
+ * @author SEVENTEEN
+ * @since 2026-10-17
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "svt.session-store")
+public class SessionStoreConfig {
+
+    /**
+     * 存储类型
+     */
+    private Type type = Type.LOCAL;
+
+    /**
+     * 近缓存有效期(秒)，变更通知丢失时的兜底失效时间(仅jdbc)
+     */
+    private long nearCacheTtl = 30;
+
+    /**
+     * 变更日志轮询间隔(毫秒)(仅jdbc)
+     */
+    private long pollInterval = 1000;
+
+    /**
+     * 每次轮询读取的变更条数(仅jdbc)
+     */
+    private int pollBatchSize = 500;
+
+    /**
+     * 过期条目和变更日志清理间隔(秒)(仅jdbc)
+     */
+    private long cleanupInterval = 300;
+
+    /**
+     * 变更日志保留时间(秒)(仅jdbc)
+     */
+    private long changeRetention = 600;
+
+    /**
+     * 节点标识，用于跳过本节点写入的变更(仅jdbc)
+     */
+    private String nodeId = UUID.randomUUID().toString();
+
+    /**
+     * 会话快照配置(仅local)
+     */
+    private Snapshot snapshot = new Snapshot();
+
+    /**
+     * 会话快照配置
+     * 本地存储定期将条目写入快照文件，启动时恢复，发布或重启后已登录用户无需重新登录
+     */
+    @Data
+    public static class Snapshot {
+
+        /**
+         * 是否启用
+         */
+        private boolean enabled = true;
+
+        /**
+         * 快照目录，必须显式配置，未配置时不写入快照
+         * 快照包含Token和用户信息，应指向只有应用用户可访问的持久化目录(容器部署时挂载卷)，不要使用共享的临时目录；
+         * 目录不存在时创建为仅所有者可访问，已存在时必须属于应用用户且组和其他用户无任何权限
+         */
+        private String directory;
+
+        /**
+         * 写入间隔(秒)，停机时额外写入一次
+         */
+        private long interval = 60;
+    }
+
+    /**
+     * 存储类型
+     */
+    public enum Type {
+        /**
+         * 进程内缓存，需配合Session Sticky
+         */
+        LOCAL,
+        /**
+         * 数据库共享存储 + 本地近缓存
+         */
+        JDBC
+    }
+}
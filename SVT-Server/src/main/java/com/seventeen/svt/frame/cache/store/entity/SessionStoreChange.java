@@ -0,0 +1,42 @@
+package com.seventeen.svt.frame.cache.store.entity;
+
+import com.mybatisflex.annotation.Column;
+import com.mybatisflex.annotation.Table;
+import lombok.Data;
+
+import java.io.Serial;
+import java.io.Serializable;
+
+/**
+ * 会话存储变更日志实体类
+ * 每次写入或删除条目追加一条，其他节点轮询后失效对应的近缓存
+ *
+ * @author SEVENTEEN
+ * @since 2026-10-17
+ */
+@Table(value = "session_store_change", comment = "会话存储变更日志表")
+@Data
+public class SessionStoreChange implements Serializable {
+
+    @Column(value = "change_id", comment = "变更序号")
+    private Long changeId;
+
+    @Column(value = "region", comment = "存储区域")
+    private String region;
+
+    @Column(value = "session_key", comment = "条目键")
+    private String sessionKey;
+
+    @Column(value = "entry_version", comment = "变更后的条目版本")
+    private Long entryVersion;
+
+    @Column(value = "node_id", comment = "写入节点")
+    private String nodeId;
+
+    @Column(value = "change_time", comment = "变更时间(毫秒时间戳)")
+    private Long changeTime;
+
+    @Serial
+    @Column(ignore = true)
+    private static final long serialVersionUID = 1L;
+}
@@ -0,0 +1,45 @@
+package com.seventeen.svt.frame.cache.store.entity;
+
+import com.mybatisflex.annotation.Column;
+import com.mybatisflex.annotation.Table;
+import lombok.Data;
+
+import java.io.Serial;
+import java.io.Serializable;
+
+/**
+ * 会话存储条目实体类
+ *
+ * @author SEVENTEEN
+ * @since 2026-10-17
+ */
+@Table(value = "session_store", comment = "会话存储表")
+@Data
+public class SessionStoreEntry implements Serializable {
+
+    @Column(value = "region", comment = "存储区域")
+    private String region;
+
+    @Column(value = "session_key", comment = "条目键")
+    private String sessionKey;
+
+    @Column(value = "payload", comment = "条目内容(JSON)")
+    private String payload;
+
+    @Column(value = "entry_version", comment = "条目版本")
+    private Long entryVersion;
+
+    @Column(value = "expire_time", comment = "过期时间(毫秒时间戳)")
+    private Long expireTime;
+
+    @Serial
+    @Column(ignore = true)
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 检查是否过期
+     */
+    public boolean isExpired(long now) {
+        return expireTime != null && expireTime <= now;
+    }
+}
@@ -0,0 +1,97 @@
+package com.seventeen.svt.frame.cache.store.mapper;
+
+import com.mybatisflex.core.BaseMapper;
+import com.seventeen.svt.frame.cache.store.entity.SessionStoreChange;
+import com.seventeen.svt.frame.cache.store.entity.SessionStoreEntry;
+import org.apache.ibatis.annotations.*;
+
+import java.util.List;
+
+/**
+ * 会话存储Mapper
+ * 语句只使用标准SQL和LIMIT，可在MySQL和嵌入式数据库（H2）上执行
+ *
+ * @author SEVENTEEN
+ * @since 2026-10-17
+ */
+@Mapper
+public interface SessionStoreMapper extends BaseMapper<SessionStoreEntry> {
+
+    /**
+     * 查询条目
+     */
+    @Select("SELECT * FROM session_store WHERE region = #{region} AND session_key = #{sessionKey}")
+    SessionStoreEntry selectEntry(@Param("region") String region, @Param("sessionKey") String sessionKey);
+
+    /**
+     * 插入条目，条目已存在时抛出DuplicateKeyException
+     */
+    @Insert("INSERT INTO session_store (region, session_key, payload, entry_version, expire_time) " +
+            "VALUES (#{region}, #{sessionKey}, #{payload}, #{entryVersion}, #{expireTime})")
+    int insertEntry(SessionStoreEntry entry);
+
+    /**
+     * 按版本更新条目（乐观锁）
+     */
+    @Update("UPDATE session_store SET payload = #{payload}, entry_version = #{newVersion}, expire_time = #{expireTime} " +
+            "WHERE region = #{region} AND session_key = #{sessionKey} AND entry_version = #{expectedVersion}")
+    int updateEntry(@Param("region") String region, @Param("sessionKey") String sessionKey,
+                    @Param("payload") String payload, @Param("expireTime") long expireTime,
+                    @Param("newVersion") long newVersion, @Param("expectedVersion") long expectedVersion);
+
+    /**
+     * 按版本删除条目（乐观锁）
+     */
+    @Delete("DELETE FROM session_store WHERE region = #{region} AND session_key = #{sessionKey} " +
+            "AND entry_version = #{expectedVersion}")
+    int deleteEntry(@Param("region") String region, @Param("sessionKey") String sessionKey,
+                    @Param("expectedVersion") long expectedVersion);
+
+    /**
+     * 查询区域内的过期条目
+     */
+    @Select("SELECT * FROM session_store WHERE region = #{region} AND expire_time <= #{currentTime} LIMIT #{limit}")
+    List<SessionStoreEntry> selectExpiredEntries(@Param("region") String region, @Param("currentTime") long currentTime,
+                                                 @Param("limit") int limit);
+
+    /**
+     * 删除指定的过期条目
+     */
+    @Delete("DELETE FROM session_store WHERE region = #{region} AND session_key = #{sessionKey} " +
+            "AND expire_time <= #{currentTime}")
+    int deleteExpiredEntry(@Param("region") String region, @Param("sessionKey") String sessionKey,
+                           @Param("currentTime") long currentTime);
+
+    /**
+     * 删除所有过期条目
+     */
+    @Delete("DELETE FROM session_store WHERE expire_time <= #{currentTime}")
+    int deleteExpiredEntries(@Param("currentTime") long currentTime);
+
+    /**
+     * 追加变更日志
+     */
+    @Insert("INSERT INTO session_store_change (region, session_key, entry_version, node_id, change_time) " +
+            "VALUES (#{region}, #{sessionKey}, #{entryVersion}, #{nodeId}, #{changeTime})")
+    int insertChange(@Param("region") String region, @Param("sessionKey") String sessionKey,
+                     @Param("entryVersion") long entryVersion, @Param("nodeId") String nodeId,
+                     @Param("changeTime") long changeTime);
+
+    /**
+     * 按序号读取变更日志
+     */
+    @Select("SELECT * FROM session_store_change WHERE change_id > #{afterChangeId} ORDER BY change_id LIMIT #{limit}")
+    List<SessionStoreChange> selectChangesAfter(@Param("afterChangeId") long afterChangeId, @Param("limit") int limit);
+
+    /**
+     * 查询最大变更序号
+     */
+    @Select("SELECT MAX(change_id) FROM session_store_change")
+    Long selectMaxChangeId();
+
+    /**
+     * 删除过期的变更日志
+     */
+    @Delete("DELETE FROM session_store_change WHERE change_time < #{currentTime}")
+    int deleteChangesBefore(@Param("currentTime") long currentTime);
+}
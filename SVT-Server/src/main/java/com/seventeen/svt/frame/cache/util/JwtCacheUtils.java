@@ -1,28 +1,39 @@
 package com.seventeen.svt.frame.cache.util;
 
-import com.github.benmanes.caffeine.cache.Cache;
-import com.github.benmanes.caffeine.cache.Caffeine;
-
 import com.seventeen.svt.frame.cache.entity.JwtCache;
+import com.seventeen.svt.frame.cache.store.SessionCodec;
+import com.seventeen.svt.frame.cache.store.SessionExpiry;
+import com.seventeen.svt.frame.cache.store.SessionStore;
+import com.seventeen.svt.frame.cache.store.SessionStoreFactory;
 import com.seventeen.svt.frame.security.constants.SessionStatusHeader;
 import com.seventeen.svt.frame.security.utils.JwtUtils;
+import com.seventeen.svt.frame.security.utils.TokenBlacklist;
+import com.seventeen.svt.frame.security.utils.TokenDigest;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
 import jakarta.annotation.PostConstruct;
-import java.util.concurrent.TimeUnit;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 
 /**
  * JWT缓存工具 - 简化版本
- * 采用Caffeine本地缓存，配合Session Sticky负载均衡策略
+ * 会话保存在 {@link SessionStore} 中，默认为本地缓存（配合Session Sticky负载均衡策略），
+ * 配置 svt.session-store.type=jdbc 后由数据库共享，多节点无需Session Sticky
  * 
  * 设计说明：
- * - 使用纯本地缓存，避免分布式一致性问题
- * - 配合Session Sticky确保用户请求固定路由到同一实例
- * - 最大容量1000，服务重启时用户需要重新登录
+ * - 本地缓存最大容量1000；启用会话快照时重启后会话可恢复，未启用快照时用户需要重新登录
+ * - 会话在活跃度周期结束或Token过期时由存储主动移除，同时释放用户详情缓存，
+ *   空闲会话不会占用容量把活跃用户挤出缓存
+ * - 只在登录、续期和会话失效时写入存储，普通请求的最后活动时间只记录在会话的活动时间戳中（见 {@link JwtCache#recordActivity}）
+ * - 本地存储定期写入会话快照并在启动时恢复，发布或重启后已登录用户无需重新登录
  * - 简化的智能续期机制：只处理正常和过期两种状态
+ * - 会话状态的检查、续期和活动时间更新由 {@link #evaluate} 在一次原子操作中完成
+ * - 黑名单按Token摘要保存，条目在Token过期时失效，详见 {@link TokenBlacklist}
  * 
  * @since v1.2 (2025-07-01) - 简化版本
  */
@@ -31,8 +42,41 @@ import java.util.concurrent.TimeUnit;
 public class JwtCacheUtils {
 
     private final JwtUtils jwtUtils;
-    private Cache<String, JwtCache> userLocalCache;
-    private Cache<String, String> blacklistCache;
+    private final SessionStoreFactory sessionStoreFactory;
+    private final UserDetailCacheUtils userDetailCacheUtils;
+    private SessionStore<JwtCache> sessionStore;
+    private final TokenBlacklist blacklist = new TokenBlacklist();
+
+    /**
+     * 会话快照编解码器：定长字段直接按二进制写出，不经过JSON
+     */
+    private static final SessionCodec<JwtCache> JWT_CACHE_CODEC = new SessionCodec<>() {
+        @Override
+        public void write(JwtCache value, DataOutput out) throws IOException {
+            out.writeUTF(value.getToken());
+            out.writeUTF(value.getUserId());
+            out.writeUTF(value.getLoginIp());
+            out.writeLong(value.getCreatedTime());
+            out.writeLong(value.getExpirationTime());
+            out.writeLong(value.getLastActivityTime());
+            out.writeLong(value.getActivityCycleStartTime());
+            out.writeInt(value.getActivityRenewalCount());
+        }
+
+        @Override
+        public JwtCache read(DataInput in) throws IOException {
+            return JwtCache.builder()
+                    .token(in.readUTF())
+                    .userId(in.readUTF())
+                    .loginIp(in.readUTF())
+                    .createdTime(in.readLong())
+                    .expirationTime(in.readLong())
+                    .lastActivityTime(in.readLong())
+                    .activityCycleStartTime(in.readLong())
+                    .activityRenewalCount(in.readInt())
+                    .build();
+        }
+    };
 
     @Value("${jwt.expiration}")
     private long expirationSeconds;
@@ -57,8 +101,11 @@ public class JwtCacheUtils {
     @Value("${jwt.smart-renewal.activity-renewal-threshold:20}")
     private int activityRenewalThreshold;
 
-    public JwtCacheUtils(JwtUtils jwtUtils) {
+    public JwtCacheUtils(JwtUtils jwtUtils, SessionStoreFactory sessionStoreFactory,
+                         UserDetailCacheUtils userDetailCacheUtils) {
         this.jwtUtils = jwtUtils;
+        this.sessionStoreFactory = sessionStoreFactory;
+        this.userDetailCacheUtils = userDetailCacheUtils;
     }
     
     @PostConstruct
@@ -73,20 +120,20 @@ public class JwtCacheUtils {
                     activityRenewalThreshold, (activityCycleSeconds * activityRenewalThreshold / 100));
         }
 
-        // JWT用户缓存
-        this.userLocalCache = Caffeine.newBuilder()
-                .maximumSize(1000)
-                .removalListener((key, value, cause) ->
-                        log.debug("JWT cache removed for user: {}, cause: {}", key, cause))
-                .recordStats()
-                .build();
-
-        // JWT黑名单缓存
-        this.blacklistCache = Caffeine.newBuilder()
-                .expireAfterWrite(expirationSeconds, TimeUnit.SECONDS)
-                .removalListener((key, value, cause) ->
-                        log.debug("Blacklist token removed: {}, cause: {}", key, cause))
-                .build();
+        // JWT会话存储（普通请求的活动时间只记录在会话的时间戳中，不写入存储）
+        // 会话按活跃度周期和Token过期时间到期，不必等到下一次请求检查
+        this.sessionStore = sessionStoreFactory.create("jwt", JwtCache.class, 1000, expirationSeconds,
+                new SessionExpiry<>() {
+                    @Override
+                    public long expiresAt(JwtCache session) {
+                        return sessionExpiresAt(session);
+                    }
+
+                    @Override
+                    public void expired(String userId, JwtCache session) {
+                        onSessionExpired(userId, session);
+                    }
+                }, JWT_CACHE_CODEC);
 
         log.info("JWT caches initialized successfully");
     }
@@ -95,24 +142,28 @@ public class JwtCacheUtils {
      * 获取缓存统计信息
      */
     public String getCacheStats() {
-        return String.format("JWT Cache Stats - Size: %d, Hit Rate: %.2f%%, Blacklist Size: %d",
-                userLocalCache.estimatedSize(),
-                userLocalCache.stats().hitRate() * 100,
-                blacklistCache.estimatedSize());
+        return String.format("JWT Cache Stats - %s, Blacklist Size: %d",
+                sessionStore.getStats(),
+                blacklist.size());
     }
     
     /**
      * 创建JWT缓存对象
+     * Token只解析一次，验证结果同时进入已验证Token缓存，登录后的第一个请求无需再验签
      */
     public JwtCache createJwtCache(String token, String userId, String ipAddress) {
         long currentTime = System.currentTimeMillis();
+        JwtUtils.VerifiedToken verifiedToken = jwtUtils.verifyToken(token);
+        if (verifiedToken == null) {
+            throw new IllegalArgumentException("Token is not a valid system token");
+        }
 
         return JwtCache.builder()
                 .token(token)
                 .userId(userId)
                 .loginIp(ipAddress)
-                .createdTime(jwtUtils.getIssuedAtDateFromToken(token))
-                .expirationTime(jwtUtils.getExpirationDateFromToken(token))
+                .createdTime(verifiedToken.getIssuedAtMillis())
+                .expirationTime(verifiedToken.getExpirationMillis())
                 .lastActivityTime(currentTime)
                 .activityCycleStartTime(currentTime)
                 .activityRenewalCount(0)
@@ -120,209 +171,240 @@ public class JwtCacheUtils {
     }
     
     public JwtCache getJwt(String userId) {
-        JwtCache jwtCache = userLocalCache.getIfPresent(userId);
-        return jwtCache;
+        return sessionStore.get(userId);
     }
     
     public void putJwt(String userId, JwtCache jwtCache) {
-        userLocalCache.put(userId, jwtCache);
+        sessionStore.put(userId, jwtCache);
     }
     
     public void removeJwt(String userId) {
-        JwtCache jwt = getJwt(userId);
+        JwtCache jwt = sessionStore.remove(userId);
         if (jwt != null) {
             invalidJwt(jwt.getToken());
         }
-        userLocalCache.invalidate(userId);
         log.debug("Successfully removed JWT cache for user: {}", userId);
     }
     
+    /**
+     * 将Token加入黑名单，保留到Token过期为止
+     * 验签失败或已过期的Token在验签阶段即被拒绝，不需要加入黑名单
+     */
     public void invalidJwt(String token) {
-        blacklistCache.put(token, "INVALID");
+        JwtUtils.VerifiedToken verifiedToken = jwtUtils.verifyToken(token);
+        if (verifiedToken == null) {
+            log.debug("Token already invalid or expired, not added to blacklist");
+            return;
+        }
+        blacklist.add(verifiedToken.getDigest(), verifiedToken.getExpirationMillis(), System.currentTimeMillis());
         log.debug("Token added to blacklist: {}", token.substring(0, Math.min(10, token.length())) + "...");
     }
     
     public boolean isBlackToken(String token) {
-        boolean isBlacklisted = blacklistCache.getIfPresent(token) != null;
+        return isBlackToken(TokenDigest.of(token));
+    }
+
+    /**
+     * 按Token摘要检查黑名单，认证过滤器直接使用验签结果中的摘要，不重复计算
+     */
+    public boolean isBlackToken(TokenDigest digest) {
+        boolean isBlacklisted = blacklist.contains(digest, System.currentTimeMillis());
         if (isBlacklisted) {
             log.debug("Token found in blacklist");
         }
         return isBlacklisted;
     }
-    
-    public boolean checkIpChange(String userId, String currentIp) {
-        JwtCache jwt = getJwt(userId);
-        return jwt != null && !currentIp.equals(jwt.getLoginIp());
-    }
 
-    public boolean checkTokenChange(String userId, String token) {
-        JwtCache jwt = getJwt(userId);
-        return jwt != null && token != null && !token.equals(jwt.getToken());
+    /**
+     * 定期清理黑名单中已过期的条目
+     */
+    @Scheduled(fixedRateString = "#{${jwt.blacklist.purge-interval:300} * 1000}")
+    public void purgeBlacklist() {
+        int purged = blacklist.purgeExpired(System.currentTimeMillis());
+        if (purged > 0) {
+            log.debug("Purged {} expired tokens from blacklist", purged);
+        }
     }
-
+    
     /**
-     * 检查是否需要活跃度续期
-     * 在活跃度周期的续期窗口内（后X%时间）返回true
+     * 会话到期时间：Token过期时间，启用智能续期时不晚于当前活跃度周期结束
+     * 续期开始新的活跃度周期时会话被替换，到期时间随之重新计算；普通请求的活动不影响到期时间
      */
-    public boolean needsActivityRenewal(String userId) {
+    private long sessionExpiresAt(JwtCache session) {
         if (!smartRenewalEnabled) {
-            log.debug("智能续期未启用 - User: {}", userId);
-            return false;
-        }
-
-        JwtCache jwt = getJwt(userId);
-        if (jwt == null || jwt.getActivityCycleStartTime() == null) {
-            log.warn("JWT缓存不存在或活跃度周期未初始化 - User: {}", userId);
-            return false;
+            return session.getExpirationTime();
         }
-
-        long currentTime = System.currentTimeMillis();
-        long cycleStartTime = jwt.getActivityCycleStartTime();
-        long cycleDuration = activityCycleSeconds * 1000L;
-        long renewalWindow = (long)(cycleDuration * activityRenewalThreshold / 100.0);
-
-        long elapsedTime = currentTime - cycleStartTime;
-        boolean inRenewalWindow = elapsedTime >= (cycleDuration - renewalWindow);
-
-
-        return inRenewalWindow;
+        // 活跃度周期结束的那一毫秒仍有效（见 decide），到期时间取其后一毫秒
+        long activityExpiresAt = session.getActivityCycleStartTime() + activityCycleSeconds * 1000L + 1;
+        return Math.min(session.getExpirationTime(), activityExpiresAt);
     }
 
     /**
-     * 执行活跃度续期，带Token生命周期限制
+     * 会话到期移除后：Token加入黑名单（与请求时判定活跃度过期的处理一致，已过期的Token不加入），
+     * 并释放用户详情缓存；用户已重新登录时保留新的用户详情
      */
-    public ActivityRenewalResult renewActivityWithTokenLimit(String userId) {
-        JwtCache jwt = getJwt(userId);
-        if (jwt == null) {
-            return ActivityRenewalResult.failed("JWT cache not found");
-        }
-
-        if (jwtUtils.isTokenExpired(jwt.getToken()) || isBlackToken(jwt.getToken())) {
-            log.warn("Cannot renew activity for expired/blacklisted token, user: {}", userId);
-            removeJwt(userId);
-            return ActivityRenewalResult.failed("Token expired or blacklisted");
-        }
-
-        long currentTime = System.currentTimeMillis();
-        long tokenExpiryTime = jwt.getExpirationTime().getTime();
-        long normalActivityExpiryTime = currentTime + activityCycleSeconds * 1000L;
-
-        // 正常续期
-        jwt.setActivityCycleStartTime(currentTime);
-        jwt.setLastActivityTime(currentTime);
-        jwt.setActivityRenewalCount((jwt.getActivityRenewalCount() == null ? 0 : jwt.getActivityRenewalCount()) + 1);
-        putJwt(userId, jwt);
-
-        boolean limitedByToken = normalActivityExpiryTime > tokenExpiryTime;
-        long remainingTime = limitedByToken ? (tokenExpiryTime - currentTime) : (activityCycleSeconds * 1000L);
-
-        log.debug("活跃度续期成功 - User: {}, 续期次数: {}, 受Token限制: {}", 
-                userId, jwt.getActivityRenewalCount(), limitedByToken);
-        
-        return ActivityRenewalResult.success(remainingTime, limitedByToken);
+    private void onSessionExpired(String userId, JwtCache session) {
+        log.debug("Session expired and removed for user: {}", userId);
+        invalidJwt(session.getToken());
+        userDetailCacheUtils.removeUserDetailIf(userId, () -> sessionStore.get(userId) == null);
     }
 
     /**
-     * 获取会话状态信息 (简化版本)
-     * 只返回两种状态：正常或过期（带过期原因）
+     * 评估会话状态（认证过滤器每个请求调用一次）
+     * 一次完成：会话存在性、IP变化、Token变化、活跃度过期、Token过期、智能续期和最后活动时间更新
+     *
+     * - 普通请求（会话有效且无需续期）只读取会话并记录活动时间戳，不写缓存
+     * - 需要续期或会话失效时在缓存的原子操作中重新评估并替换，同一用户的并发请求在此串行，
+     *   续期次数和活跃度周期不会互相覆盖（数据库会话存储按版本乐观锁写入，冲突时以最新会话重新评估）
+     *
+     * 会话无效时（不存在的情况除外）同时移除会话并将其Token加入黑名单，与原逐项检查的处理一致
+     *
+     * @param userId 用户ID
+     * @param token  当前请求的Token
+     * @param ip     当前请求的客户端IP
+     * @param now    当前时间（毫秒）
+     * @return 会话评估结果
      */
-    public SessionStatusInfo getSessionStatus(String userId) {
-        JwtCache jwt = getJwt(userId);
-        if (jwt == null) {
-            return SessionStatusInfo.expired(ExpiredReason.JWT_TOKEN_EXPIRED);
+    public SessionDecision evaluate(String userId, String token, String ip, long now) {
+        JwtCache current = sessionStore.get(userId);
+        if (current != null) {
+            SessionDecision decision = decide(current, token, ip, now);
+            if (decision.isValid() && !decision.isRenewed()) {
+                current.recordActivity(now);
+                return decision;
+            }
         }
 
-        long currentTime = System.currentTimeMillis();
-
-        // 1. 检查JWT Token是否过期
-        long tokenExpiryTime = jwt.getExpirationTime().getTime();
-        if (currentTime >= tokenExpiryTime) {
-            log.debug("JWT Token expired for user: {}", userId);
-            return SessionStatusInfo.expired(ExpiredReason.JWT_TOKEN_EXPIRED);
+        SessionDecision[] decision = new SessionDecision[1];
+        sessionStore.compute(userId, session -> {
+            decision[0] = decide(session, token, ip, now);
+            return decision[0].getSession();
+        });
+
+        SessionDecision result = decision[0];
+        if (result.isRenewed()) {
+            log.debug("活跃度续期成功 - User: {}, 续期次数: {}, 受Token限制: {}",
+                    userId, result.getSession().getActivityRenewalCount(), result.isLimitedByToken());
+        } else if (result.isValid()) {
+            // 读取后其他请求已完成续期，本次按普通请求处理
+            result.getSession().recordActivity(now);
         }
-
-        // 2. 检查活跃度是否过期
-        if (isSessionExpiredByActivity(userId)) {
-            log.debug("Session expired by activity for user: {}", userId);
-            return SessionStatusInfo.expired(ExpiredReason.ACTIVITY_EXPIRED);
+        if (result.getRejectedSession() != null) {
+            invalidJwt(result.getRejectedSession().getToken());
         }
-
-        // 3. 检查是否需要更新活跃度缓存（在阈值内才更新）
-        if (needsActivityRenewal(userId)) {
-            ActivityRenewalResult result = renewActivityWithTokenLimit(userId);
-            log.debug("Activity renewal attempt for user: {}, success: {}", userId, result.isSuccess());
-        }
-
-        // 4. 返回正常状态
-        long activityExpiryTime = jwt.getActivityCycleStartTime() + activityCycleSeconds * 1000L;
-        long activityRemainingTime = activityExpiryTime - currentTime;
-        return SessionStatusInfo.normal(activityRemainingTime);
+        return result;
     }
 
     /**
-     * 检查会话是否因活跃度过期
+     * 计算会话评估结果（只读，不访问其他缓存）
+     * 无需续期时结果中的会话即传入的会话；需要续期时生成新实例
      */
-    public boolean isSessionExpiredByActivity(String userId) {
-        if (!smartRenewalEnabled) {
-            return false;
+    private SessionDecision decide(JwtCache session, String token, String ip, long now) {
+        if (session == null) {
+            return SessionDecision.rejected(SessionOutcome.NOT_FOUND, null);
         }
-
-        JwtCache jwt = getJwt(userId);
-        if (jwt == null || jwt.getActivityCycleStartTime() == null) {
-            return true;
+        if (!session.getLoginIp().equals(ip)) {
+            return SessionDecision.rejected(SessionOutcome.IP_CHANGED, session);
+        }
+        if (!session.getToken().equals(token)) {
+            return SessionDecision.rejected(SessionOutcome.TOKEN_CHANGED, session);
         }
 
-        long currentTime = System.currentTimeMillis();
-        long cycleStartTime = jwt.getActivityCycleStartTime();
         long cycleDuration = activityCycleSeconds * 1000L;
-
-        long elapsedTime = currentTime - cycleStartTime;
-        boolean expired = elapsedTime > cycleDuration;
-
-        if (expired) {
+        long elapsedTime = now - session.getActivityCycleStartTime();
+        if (smartRenewalEnabled && elapsedTime > cycleDuration) {
             log.debug("Session expired by activity for user: {}, elapsed: {}ms, cycle: {}ms",
-                     userId, elapsedTime, cycleDuration);
+                    session.getUserId(), elapsedTime, cycleDuration);
+            return SessionDecision.rejected(SessionOutcome.ACTIVITY_EXPIRED, session);
+        }
+        if (now >= session.getExpirationTime()) {
+            log.debug("JWT Token expired for user: {}", session.getUserId());
+            return SessionDecision.rejected(SessionOutcome.TOKEN_EXPIRED, session);
         }
 
-        return expired;
+        // 在活跃度周期的后X%时间内有操作则续期
+        long renewalWindow = (long) (cycleDuration * activityRenewalThreshold / 100.0);
+        boolean renewed = smartRenewalEnabled && elapsedTime >= (cycleDuration - renewalWindow);
+        boolean limitedByToken = renewed && now + cycleDuration > session.getExpirationTime();
+        JwtCache next = renewed ? session.withActivity(now, true) : session;
+
+        long activityRemainingTime = next.getActivityCycleStartTime() + cycleDuration - now;
+        return SessionDecision.valid(next, SessionStatusInfo.normal(activityRemainingTime), renewed, limitedByToken);
     }
 
     /**
-     * 更新用户最后活动时间
+     * 会话评估结果类型
      */
-    public void updateLastActivity(String userId) {
-        JwtCache jwt = getJwt(userId);
-        if (jwt != null) {
-            jwt.setLastActivityTime(System.currentTimeMillis());
-            putJwt(userId, jwt);
-        }
+    public enum SessionOutcome {
+        /**
+         * 会话有效
+         */
+        VALID,
+        /**
+         * 会话不存在（服务重启或已登出）
+         */
+        NOT_FOUND,
+        /**
+         * IP地址变化
+         */
+        IP_CHANGED,
+        /**
+         * Token变化（单点登录，已在其他地方登录）
+         */
+        TOKEN_CHANGED,
+        /**
+         * 会话因活跃度过期
+         */
+        ACTIVITY_EXPIRED,
+        /**
+         * Token过期
+         */
+        TOKEN_EXPIRED
     }
 
     /**
-     * 活跃度续期结果
+     * 会话评估结果
      */
     @Getter
-    public static class ActivityRenewalResult {
-        private final boolean success;
-        private final String message;
-        private final long remainingTime;
+    public static class SessionDecision {
+        private final SessionOutcome outcome;
+        /**
+         * 评估后的会话，会话无效时为null
+         */
+        private final JwtCache session;
+        /**
+         * 被移除的会话，仅在会话存在但无效时不为null
+         */
+        private final JwtCache rejectedSession;
+        private final SessionStatusInfo statusInfo;
+        private final boolean renewed;
         private final boolean limitedByToken;
 
-        private ActivityRenewalResult(boolean success, String message, long remainingTime, boolean limitedByToken) {
-            this.success = success;
-            this.message = message;
-            this.remainingTime = remainingTime;
+        private SessionDecision(SessionOutcome outcome, JwtCache session, JwtCache rejectedSession,
+                                SessionStatusInfo statusInfo, boolean renewed, boolean limitedByToken) {
+            this.outcome = outcome;
+            this.session = session;
+            this.rejectedSession = rejectedSession;
+            this.statusInfo = statusInfo;
+            this.renewed = renewed;
             this.limitedByToken = limitedByToken;
         }
 
-        public static ActivityRenewalResult success(long remainingTime, boolean limitedByToken) {
-            return new ActivityRenewalResult(true, "Success", remainingTime, limitedByToken);
+        static SessionDecision valid(JwtCache session, SessionStatusInfo statusInfo,
+                                     boolean renewed, boolean limitedByToken) {
+            return new SessionDecision(SessionOutcome.VALID, session, null, statusInfo, renewed, limitedByToken);
         }
 
-        public static ActivityRenewalResult failed(String message) {
-            return new ActivityRenewalResult(false, message, 0, false);
+        static SessionDecision rejected(SessionOutcome outcome, JwtCache rejectedSession) {
+            SessionStatusInfo statusInfo = outcome == SessionOutcome.ACTIVITY_EXPIRED
+                    ? SessionStatusInfo.expired(ExpiredReason.ACTIVITY_EXPIRED)
+                    : SessionStatusInfo.expired(ExpiredReason.JWT_TOKEN_EXPIRED);
+            return new SessionDecision(outcome, null, rejectedSession, statusInfo, false, false);
         }
 
+        public boolean isValid() {
+            return outcome == SessionOutcome.VALID;
+        }
     }
 
     /**
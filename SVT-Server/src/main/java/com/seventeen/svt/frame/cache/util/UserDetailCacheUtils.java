@@ -1,47 +1,47 @@
 package com.seventeen.svt.frame.cache.util;
 
-import com.github.benmanes.caffeine.cache.Cache;
-import com.github.benmanes.caffeine.cache.Caffeine;
 import com.seventeen.svt.frame.cache.entity.UserDetailCache;
+import com.seventeen.svt.frame.cache.store.SessionStore;
+import com.seventeen.svt.frame.cache.store.SessionStoreFactory;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import org.springframework.util.ObjectUtils;
 
 import jakarta.annotation.PostConstruct;
-import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
 
 /**
  * 用户详情缓存工具类
- * 采用本地缓存: Caffeine
- * 过期时间与JWT保持一致
+ * 保存在 {@link SessionStore} 中：默认本地缓存（Caffeine），配置 svt.session-store.type=jdbc 后多节点共享
+ * 过期时间与JWT保持一致，JWT会话提前到期（如活跃度过期）时由 {@link JwtCacheUtils} 一并释放
  * <p>
  * 优化说明（v1.1）：
- * - 移除Redis依赖，使用纯本地缓存
+ * - 移除Redis依赖，默认使用本地缓存
  * - 简化缓存架构，提高性能
- * - 适合Session Sticky负载均衡环境
+ * - 本地缓存需配合Session Sticky负载均衡；jdbc存储由数据库共享，多节点无需Session Sticky
  */
 @Slf4j
 @Component
 public class UserDetailCacheUtils {
 
-    private Cache<String, UserDetailCache> userDetailLocalCache;
+    private final SessionStoreFactory sessionStoreFactory;
+    private SessionStore<UserDetailCache> userDetailStore;
 
     @Value("${jwt.expiration}")
     private long expirationSeconds;
 
+    public UserDetailCacheUtils(SessionStoreFactory sessionStoreFactory) {
+        this.sessionStoreFactory = sessionStoreFactory;
+    }
+
     @PostConstruct
     private void initCache() {
         log.info("Initializing UserDetailCache with expiration: {} seconds ({} hours)", 
                 expirationSeconds, expirationSeconds / 3600);
         
-        this.userDetailLocalCache = Caffeine.newBuilder()
-                .maximumSize(1000)  // 增加最大容量
-                .expireAfterWrite(expirationSeconds, TimeUnit.SECONDS)
-                .removalListener((key, value, cause) ->
-                        log.debug("Key {} was removed from UserDetailCache, cause: {}", key, cause))
-                .recordStats()
-                .build();
+        this.userDetailStore = sessionStoreFactory.create("user-detail", UserDetailCache.class,
+                1000, expirationSeconds);
                 
         log.info("UserDetailCache initialized successfully");
     }
@@ -56,7 +56,7 @@ public class UserDetailCacheUtils {
         if (ObjectUtils.isEmpty(userId)) {
             return null;
         }
-        return userDetailLocalCache.getIfPresent(userId);
+        return userDetailStore.get(userId);
     }
 
     /**
@@ -67,7 +67,7 @@ public class UserDetailCacheUtils {
      */
     public void putUserDetail(String userId, UserDetailCache userDetail) {
         if (!ObjectUtils.isEmpty(userId) && !ObjectUtils.isEmpty(userDetail)) {
-            userDetailLocalCache.put(userId, userDetail);
+            userDetailStore.put(userId, userDetail);
             log.debug("User detail cached for user: {}", userId);
         }
     }
@@ -79,17 +79,28 @@ public class UserDetailCacheUtils {
      */
     public void removeUserDetail(String userId) {
         if (!ObjectUtils.isEmpty(userId)) {
-            userDetailLocalCache.invalidate(userId);
+            userDetailStore.remove(userId);
             log.debug("User detail cache removed for user: {}", userId);
         }
     }
 
+    /**
+     * 按条件删除用户详情缓存，条件判断与删除是同一原子操作
+     * 会话到期时使用：判断期间用户重新登录写入的新用户详情不会被删除
+     *
+     * @param userId    用户ID
+     * @param condition 删除条件
+     */
+    public void removeUserDetailIf(String userId, BooleanSupplier condition) {
+        if (!ObjectUtils.isEmpty(userId)) {
+            userDetailStore.compute(userId, detail -> detail != null && condition.getAsBoolean() ? null : detail);
+        }
+    }
+
     /**
      * 获取缓存统计信息
      */
     public String getCacheStats() {
-        return String.format("UserDetail Cache - Size: %d, Hit Rate: %.2f%%",
-                userDetailLocalCache.estimatedSize(),
-                userDetailLocalCache.stats().hitRate() * 100);
+        return "UserDetail Cache - " + userDetailStore.getStats();
     }
 }
\ No newline at end of file
@@ -151,7 +151,7 @@ public class SystemStartupListener implements CommandLineRunner {
                 // 验证配置有效性
                 validateAESConfig();
 
-                log.info("加密算法: {}", aesConfig.getAlgorithm());
+                log.info("加密算法: {}", aesConfig.getMode().getTransformation());
                 log.info("密钥长度: {} 位", aesConfig.getKeyLength());
                 log.info("最大数据大小: {} MB", aesConfig.getMaxDataSize() / 1024 / 1024);
                 log.info("时间戳容差: {} 分钟", aesConfig.getTimestampTolerance() / 60000);
@@ -0,0 +1,75 @@
+package com.seventeen.svt.frame.security.filter;
+
+/**
+ * 认证拒绝原因
+ * 认证过滤器拒绝请求时抛出对应的预分配异常，由 {@link RejectionResponses} 写出预先序列化的响应体
+ *
+ * 设计说明：
+ * - 无效Token、黑名单Token和过期会话是Token重放或爬虫洪泛时最频繁的路径，
+ *   每个拒绝不再创建异常、填充堆栈、解析国际化消息和序列化响应结果
+ * - 异常为不可变的单例，不填充堆栈、不记录被抑制异常，可安全地被多个线程同时抛出
+ *
+ * @author SEVENTEEN
+ * @since 2026-10-17
+ */
+enum AuthRejection {
+
+    /**
+     * 未携带Token或Token不是系统颁发的合法Token
+     */
+    UNAUTHORIZED("system.unauthorized"),
+
+    /**
+     * Token在黑名单中或已被新的登录替换
+     */
+    TOKEN_INVALID("auth.login.tokeninvalid"),
+
+    /**
+     * Token或会话已过期（包括会话不存在和活跃度过期）
+     */
+    LOGIN_EXPIRED("auth.login.expired"),
+
+    /**
+     * 客户端IP与登录IP不一致
+     */
+    IP_CHANGED("auth.login.ipchange");
+
+    private final String messageCode;
+    private final Rejected exception;
+
+    AuthRejection(String messageCode) {
+        this.messageCode = messageCode;
+        this.exception = new Rejected(this);
+    }
+
+    /**
+     * 响应消息的国际化代码
+     */
+    String getMessageCode() {
+        return messageCode;
+    }
+
+    /**
+     * 预分配的拒绝异常
+     */
+    Rejected exception() {
+        return exception;
+    }
+
+    /**
+     * 认证拒绝异常（无堆栈）
+     */
+    static final class Rejected extends RuntimeException {
+
+        private final transient AuthRejection rejection;
+
+        private Rejected(AuthRejection rejection) {
+            super(rejection.messageCode, null, false, false);
+            this.rejection = rejection;
+        }
+
+        AuthRejection getRejection() {
+            return rejection;
+        }
+    }
+}
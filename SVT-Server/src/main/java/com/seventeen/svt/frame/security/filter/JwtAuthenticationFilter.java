@@ -1,13 +1,15 @@
 package com.seventeen.svt.frame.security.filter;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.seventeen.svt.common.config.SecurityPathConfig;
 import com.seventeen.svt.common.exception.BusinessException;
+import com.seventeen.svt.common.filter.RouteClassifier;
+import com.seventeen.svt.common.filter.RouteTag;
 import com.seventeen.svt.common.response.Result;
+import com.seventeen.svt.common.util.CoarseClock;
 import com.seventeen.svt.common.util.MessageUtils;
+import com.seventeen.svt.common.util.RequestContext;
 import com.seventeen.svt.common.util.RequestContextUtils;
 import com.seventeen.svt.common.util.TraceIdUtils;
-import com.seventeen.svt.frame.cache.entity.JwtCache;
 import com.seventeen.svt.frame.cache.util.JwtCacheUtils;
 import com.seventeen.svt.frame.security.config.CustomAuthentication;
 import com.seventeen.svt.frame.security.constants.SessionStatusHeader;
@@ -20,7 +22,6 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
-import org.springframework.util.AntPathMatcher;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
@@ -32,7 +33,7 @@ import java.io.IOException;
  * - v1.0: 基础JWT认证功能，包含完整的安全检查流程
  * - v1.1 (2025-06-30): 添加智能续期机制和会话状态管理
  *
- * 认证流程 (9步安全检查)：
+ * 认证流程 (9步安全检查，第2~8步由 JwtCacheUtils.evaluate 在一次原子操作中完成)：
  * 1. 验证Token是否为系统颁发的合法Token
  * 2. 检查Token是否在黑名单中
  * 3. 检查JWT缓存是否存在（服务重启安全策略）
@@ -48,6 +49,7 @@ import java.io.IOException;
  * - 时间对齐策略，确保不突破Token生命周期
  * - 会话状态响应头，支持前端状态感知
  * - 渐进式用户提醒机制
+ * - 认证拒绝抛出预分配的无堆栈异常（{@link AuthRejection}），响应体按原因和语言预先序列化
  */
 @Slf4j
 @Component
@@ -55,31 +57,38 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtUtils jwtUtils;
     private final JwtCacheUtils jwtCacheUtils;
-    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    private final RouteClassifier routeClassifier;
+    private final RejectionResponses rejectionResponses = new RejectionResponses();
 
-    public JwtAuthenticationFilter(JwtUtils jwtUtils, JwtCacheUtils jwtCacheUtils) {
+    /**
+     * 序列化其他异常的响应结果（默认配置，输出null字段，与预先序列化的拒绝响应格式一致）
+     */
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    public JwtAuthenticationFilter(JwtUtils jwtUtils, JwtCacheUtils jwtCacheUtils, RouteClassifier routeClassifier) {
         this.jwtUtils = jwtUtils;
         this.jwtCacheUtils = jwtCacheUtils;
+        this.routeClassifier = routeClassifier;
     }
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
             throws ServletException, IOException {
         try {
-            // 检查请求路径是否在放行名单中
-            String requestPath = request.getRequestURI();
+            // 检查请求路径是否在放行名单中（路由分类由RouteClassifier统一完成，请求上下文已携带时直接读取）
+            RequestContext requestContext = RequestContext.get(request);
+            RouteTag routeTag = requestContext != null ? requestContext.getRouteTag() : routeClassifier.classify(request);
 
-            // 🔧 修复：智能路径判断逻辑
             // 1. 如果路径不以 /api 开头（前端路由和静态资源），直接放行
-            if (!requestPath.startsWith("/api")) {
-                log.debug("🌐 [路径放行] 前端路由/静态资源: {}", requestPath);
+            if (routeTag.getType() == RouteTag.Type.STATIC) {
+                log.debug("🌐 [路径放行] 前端路由/静态资源: {}", request.getRequestURI());
                 filterChain.doFilter(request, response);
                 return;
             }
 
             // 2. 如果路径以 /api 开头，检查是否在白名单中（特定的API）
-            if (isPermitAllPath(requestPath)) {
-                log.debug("✅ [路径放行] 白名单API: {}", requestPath);
+            if (routeTag.getType() == RouteTag.Type.PERMIT_ALL) {
+                log.debug("✅ [路径放行] 白名单API: {}", request.getRequestURI());
                 filterChain.doFilter(request, response);
                 return;
             }
@@ -87,122 +96,94 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             String tokenStr = getJwtFromRequest(request);
 
             if (tokenStr == null) {
-                log.debug(MessageUtils.getMessage("log.token.missing"));
-                throw new BusinessException(HttpStatus.UNAUTHORIZED.value(), MessageUtils.getMessage("system.unauthorized"));
+                if (log.isDebugEnabled()) {
+                    log.debug(MessageUtils.getMessage("log.token.missing"));
+                }
+                throw AuthRejection.UNAUTHORIZED.exception();
             }
 
             if (SecurityContextHolder.getContext().getAuthentication() == null) {
                 // 🔧 安全改进：首先验证Token是否为系统颁发的合法Token
-                boolean isValidSystemToken = jwtUtils.isValidSystemToken(tokenStr);
+                // 每个请求只解析和验签一次，验证结果按Token摘要缓存，同一Token的后续请求直接命中
+                JwtUtils.VerifiedToken verifiedToken = jwtUtils.verifyToken(tokenStr);
 
                 // 恶意Token或格式错误的Token，不加入黑名单，直接拒绝
-                if (!isValidSystemToken) {
+                if (verifiedToken == null) {
                     log.warn("Invalid or malformed token detected, rejecting without blacklisting");
-                    throw new BusinessException(HttpStatus.UNAUTHORIZED.value(), MessageUtils.getMessage("system.unauthorized"));
+                    throw AuthRejection.UNAUTHORIZED.exception();
                 }
                 
                 // Token签名验证通过，继续业务验证
-                String loginId = jwtUtils.getUserIdFromToken(tokenStr);
+                String loginId = verifiedToken.getUserId();
                 
-                if (loginId != null && !jwtUtils.isTokenExpired(tokenStr)) {
+                if (loginId != null && !verifiedToken.isExpired()) {
                     
                     // 1. 检查黑名单
-                    if (jwtCacheUtils.isBlackToken(tokenStr)) {
+                    if (jwtCacheUtils.isBlackToken(verifiedToken.getDigest())) {
                         log.warn("🚫 [JWT智能续期测试] Token在黑名单中 - User: {}", loginId);
-                        throw new BusinessException(HttpStatus.UNAUTHORIZED.value(), MessageUtils.getMessage("auth.login.tokeninvalid"));
-                    }
-
-                    // 2. 检查JWT缓存是否存在 - 不存在则认证失败（服务重启后安全策略）
-                    JwtCache existingCache = jwtCacheUtils.getJwt(loginId);
-                    if (existingCache == null) {
-                        log.warn("❌ [JWT智能续期测试] JWT缓存不存在 - User: {}, 认证失败", loginId);
-                        // 🔧 安全改进：系统颁发的Token认证失败时，加入黑名单
-                        jwtCacheUtils.invalidJwt(tokenStr);
-                        throw new BusinessException(HttpStatus.UNAUTHORIZED.value(), MessageUtils.getMessage("auth.login.expired"));
-                    }
-
-                    // 3. 缓存存在，执行正常的安全检查
-                    String currentIp = RequestContextUtils.getIpAddress();
-                    
-                    // 检查IP变化
-                    if (jwtCacheUtils.checkIpChange(loginId, currentIp)) {
-                        log.warn("🔄 [JWT智能续期测试] IP地址变化 - User: {}, 旧IP: {}, 新IP: {}", 
-                            loginId, existingCache.getLoginIp(), currentIp);
-                        jwtCacheUtils.removeJwt(loginId);
-                        throw new BusinessException(HttpStatus.UNAUTHORIZED.value(), MessageUtils.getMessage("auth.login.ipchange"));
-                    }
-
-                    // 检查Token变化
-                    if (jwtCacheUtils.checkTokenChange(loginId, tokenStr)) {
-                        log.warn("🔄 [JWT智能续期测试] Token变化检测 - User: {}", loginId);
-                        jwtCacheUtils.removeJwt(loginId);
-                        throw new BusinessException(HttpStatus.UNAUTHORIZED.value(), MessageUtils.getMessage("auth.login.tokeninvalid"));
+                        throw AuthRejection.TOKEN_INVALID.exception();
                     }
 
-                    // 4. 🔧 修复：先检查会话是否因活跃度过期
-                    boolean isExpiredByActivity = jwtCacheUtils.isSessionExpiredByActivity(loginId);
-                    
-                    if (isExpiredByActivity) {
-                        log.warn("⏰ [JWT智能续期测试] 会话因活跃度过期 - User: {}", loginId);
-                        jwtCacheUtils.removeJwt(loginId);
-                        throw new BusinessException(HttpStatus.UNAUTHORIZED.value(),
-                            MessageUtils.getMessage("auth.login.expired"));
-                    }
-
-                    // 5. 智能活跃度续期检查（只有在未过期的情况下才检查续期）
-                    boolean needsRenewal = jwtCacheUtils.needsActivityRenewal(loginId);
-                    
-                    if (needsRenewal) {
-                        JwtCacheUtils.ActivityRenewalResult renewalResult =
-                            jwtCacheUtils.renewActivityWithTokenLimit(loginId);
-
-                        if (!renewalResult.isSuccess()) {
-                            log.error("❌ [JWT智能续期测试] 活跃度续期失败 - User: {}, 原因: {}",
-                                    loginId, renewalResult.getMessage());
-                            jwtCacheUtils.removeJwt(loginId);
-                            throw new BusinessException(HttpStatus.UNAUTHORIZED.value(),
-                                MessageUtils.getMessage("auth.login.expired"));
+                    // 2~8. 会话检查、智能续期和活动时间更新在一次原子操作中完成
+                    String currentIp = requestContext != null
+                            ? requestContext.getClientIp() : RequestContextUtils.resolveIpAddress(request);
+                    JwtCacheUtils.SessionDecision decision =
+                            jwtCacheUtils.evaluate(loginId, tokenStr, currentIp, CoarseClock.currentTimeMillis());
+
+                    switch (decision.getOutcome()) {
+                        case NOT_FOUND -> {
+                            // JWT缓存不存在则认证失败（服务重启后安全策略）
+                            log.warn("❌ [JWT智能续期测试] JWT缓存不存在 - User: {}, 认证失败", loginId);
+                            // 🔧 安全改进：系统颁发的Token认证失败时，加入黑名单
+                            jwtCacheUtils.invalidJwt(tokenStr);
+                            throw AuthRejection.LOGIN_EXPIRED.exception();
                         }
-
-                        if (renewalResult.isLimitedByToken()) {
-                            log.warn("⚠️ [JWT智能续期测试] 续期受Token生命周期限制 - User: {}, 剩余时间: {}ms", 
-                                loginId, renewalResult.getRemainingTime());
-                        } else {
+                        case IP_CHANGED -> {
+                            log.warn("🔄 [JWT智能续期测试] IP地址变化 - User: {}, 旧IP: {}, 新IP: {}",
+                                loginId, decision.getRejectedSession().getLoginIp(), currentIp);
+                            throw AuthRejection.IP_CHANGED.exception();
+                        }
+                        case TOKEN_CHANGED -> {
+                            log.warn("🔄 [JWT智能续期测试] Token变化检测 - User: {}", loginId);
+                            throw AuthRejection.TOKEN_INVALID.exception();
+                        }
+                        case ACTIVITY_EXPIRED -> {
+                            log.warn("⏰ [JWT智能续期测试] 会话因活跃度过期 - User: {}", loginId);
+                            throw AuthRejection.LOGIN_EXPIRED.exception();
+                        }
+                        case TOKEN_EXPIRED -> {
+                            log.warn("⚠️ [JWT智能续期测试] 会话已过期 - User: {}", loginId);
+                            setSessionStatusHeaders(response, decision.getStatusInfo());
+                            throw AuthRejection.LOGIN_EXPIRED.exception();
+                        }
+                        default -> {
                         }
                     }
 
-                    // 6. 获取会话状态并设置响应头
-                    JwtCacheUtils.SessionStatusInfo statusInfo = jwtCacheUtils.getSessionStatus(loginId);
-                    response.setHeader(SessionStatusHeader.SESSION_STATUS, statusInfo.getStatus());
-                    response.setHeader(SessionStatusHeader.SESSION_REMAINING,
-                                      String.valueOf(statusInfo.getRemainingTime()));
-
-                    if (statusInfo.getMessage() != null) {
-                        response.setHeader(SessionStatusHeader.SESSION_WARNING, statusInfo.getMessage());
-                    }
-                    
-
-                    // 7. 检查会话是否过期
-                    if (SessionStatusHeader.STATUS_EXPIRED.equals(statusInfo.getStatus())) {
-                        log.warn("⚠️ [JWT智能续期测试] 会话已过期 - User: {}", loginId);
-                        jwtCacheUtils.removeJwt(loginId);
-                        throw new BusinessException(HttpStatus.UNAUTHORIZED.value(),
-                            MessageUtils.getMessage("auth.login.expired"));
+                    if (decision.isLimitedByToken()) {
+                        log.warn("⚠️ [JWT智能续期测试] 续期受Token生命周期限制 - User: {}, 剩余时间: {}ms",
+                            loginId, decision.getStatusInfo().getRemainingTime());
                     }
-
-                    // 8. 更新最后活动时间
-                    jwtCacheUtils.updateLastActivity(loginId);
+                    setSessionStatusHeaders(response, decision.getStatusInfo());
 
                     // 9. 设置认证上下文
-                    String username = jwtUtils.getUsernameFromToken(tokenStr);
+                    String username = verifiedToken.getUserName();
                     CustomAuthentication customAuthentication = new CustomAuthentication(loginId, username);
                     SecurityContextHolder.getContext().setAuthentication(customAuthentication);
-                    TraceIdUtils.setUserId(loginId);
-                    log.debug(MessageUtils.getMessage("log.auth.success", loginId));
+                    if (requestContext != null) {
+                        requestContext.withUserId(loginId).bind(request);
+                    } else {
+                        TraceIdUtils.setUserId(loginId);
+                    }
+                    if (log.isDebugEnabled()) {
+                        log.debug(MessageUtils.getMessage("log.auth.success", loginId));
+                    }
                 } else {
                     // Token过期或用户ID为空
                     if (loginId != null) {
-                        log.debug(MessageUtils.getMessage("log.token.expired", loginId));
+                        if (log.isDebugEnabled()) {
+                            log.debug(MessageUtils.getMessage("log.token.expired", loginId));
+                        }
                         // 🔧 安全改进：系统颁发的过期Token，加入黑名单
                         jwtCacheUtils.invalidJwt(tokenStr);
                     } else {
@@ -210,7 +191,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                         // Token解析失败但签名有效，可能是内部错误，加入黑名单
                         jwtCacheUtils.invalidJwt(tokenStr);
                     }
-                    throw new BusinessException(HttpStatus.UNAUTHORIZED.value(), MessageUtils.getMessage("auth.login.expired"));
+                    throw AuthRejection.LOGIN_EXPIRED.exception();
                 }
             }
         } catch (Exception e) {
@@ -222,17 +203,14 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     }
 
     /**
-     * 判断请求路径是否在放行名单中
-     * @param requestPath 请求路径
-     * @return 是否放行
+     * 设置会话状态响应头
      */
-    private boolean isPermitAllPath(String requestPath) {
-        for (String pattern : SecurityPathConfig.getPermitAllPaths()) {
-            if (pathMatcher.match(pattern, requestPath)) {
-                return true;
-            }
+    private void setSessionStatusHeaders(HttpServletResponse response, JwtCacheUtils.SessionStatusInfo statusInfo) {
+        response.setHeader(SessionStatusHeader.SESSION_STATUS, statusInfo.getStatus());
+        response.setHeader(SessionStatusHeader.SESSION_REMAINING, String.valueOf(statusInfo.getRemainingTime()));
+        if (statusInfo.getMessage() != null) {
+            response.setHeader(SessionStatusHeader.SESSION_WARNING, statusInfo.getMessage());
         }
-        return false;
     }
 
     /**
@@ -247,6 +225,11 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     }
 
     private void handleException(HttpServletResponse response, Exception e) throws IOException {
+        if (e instanceof AuthRejection.Rejected rejected) {
+            rejectionResponses.write(response, rejected.getRejection());
+            return;
+        }
+
         int status = HttpStatus.INTERNAL_SERVER_ERROR.value();
         String message = MessageUtils.getMessage("system.servererror");
 
@@ -260,7 +243,6 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         response.setContentType("application/json;charset=UTF-8");
         response.setStatus(status);
         Result<?> result = Result.fail(status, message);
-        ObjectMapper objectMapper = new ObjectMapper();
-        response.getWriter().write(objectMapper.writeValueAsString(result));
+        response.getWriter().write(OBJECT_MAPPER.writeValueAsString(result));
     }
 } 
\ No newline at end of file
@@ -0,0 +1,96 @@
+package com.seventeen.svt.frame.security.filter;
+
+import com.fasterxml.jackson.core.io.JsonStringEncoder;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.seventeen.svt.common.util.CoarseClock;
+import com.seventeen.svt.common.util.MessageUtils;
+import com.seventeen.svt.common.util.TraceIdUtils;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.http.HttpStatus;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Locale;
+
+/**
+ * 认证拒绝响应
+ * 按拒绝原因和语言缓存预先序列化的响应体前缀，请求时只追加时间戳和traceId
+ *
+ * 响应体与 {@link com.seventeen.svt.common.response.Result#fail(int, String)} 经Jackson序列化的结果一致：
+ * <pre>
+ * {"code":401,"message":"...","data":null,"success":false,"timestamp":...,"traceId":"..."}
+ * </pre>
+ *
+ * 设计说明：
+ * - 语言取自请求的 Accept-Language，缓存容量有上限，伪造大量语言的请求不会使缓存无限增长
+ * - 缓存条目按消息源的刷新间隔过期，修改消息文件后与其他响应同步生效
+ *
+ * @author SEVENTEEN
+ * @since 2026-10-17
+ */
+final class RejectionResponses {
+
+    private static final int STATUS = HttpStatus.UNAUTHORIZED.value();
+    private static final String CONTENT_TYPE = "application/json;charset=UTF-8";
+    private static final byte[] TRACE_ID_FIELD = ",\"traceId\":".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] NULL = "null".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] QUOTE = "\"".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] END = "}".getBytes(StandardCharsets.UTF_8);
+
+    /**
+     * 各语言的响应体前缀，按 {@link AuthRejection#ordinal()} 索引
+     */
+    private final Cache<Locale, byte[][]> prefixes = Caffeine.newBuilder()
+            .maximumSize(32)
+            .expireAfterWrite(Duration.ofSeconds(60))
+            .build();
+
+    /**
+     * 写出拒绝响应
+     */
+    void write(HttpServletResponse response, AuthRejection rejection) throws IOException {
+        byte[] prefix = prefixes.get(LocaleContextHolder.getLocale(), RejectionResponses::serialize)[rejection.ordinal()];
+        byte[] timestamp = Long.toString(CoarseClock.currentTimeMillis()).getBytes(StandardCharsets.US_ASCII);
+        String traceId = TraceIdUtils.getTraceId();
+        byte[] quotedTraceId = traceId == null ? null : JsonStringEncoder.getInstance().quoteAsUTF8(traceId);
+
+        int length = prefix.length + timestamp.length + TRACE_ID_FIELD.length + END.length
+                + (quotedTraceId == null ? NULL.length : quotedTraceId.length + 2 * QUOTE.length);
+        response.setStatus(STATUS);
+        response.setContentType(CONTENT_TYPE);
+        response.setContentLength(length);
+
+        ServletOutputStream out = response.getOutputStream();
+        out.write(prefix);
+        out.write(timestamp);
+        out.write(TRACE_ID_FIELD);
+        if (quotedTraceId == null) {
+            out.write(NULL);
+        } else {
+            out.write(QUOTE);
+            out.write(quotedTraceId);
+            out.write(QUOTE);
+        }
+        out.write(END);
+    }
+
+    /**
+     * 序列化一种语言下所有拒绝原因的响应体前缀（到timestamp字段的值之前）
+     */
+    private static byte[][] serialize(Locale locale) {
+        AuthRejection[] rejections = AuthRejection.values();
+        byte[][] result = new byte[rejections.length][];
+        for (AuthRejection rejection : rejections) {
+            String message = MessageUtils.getMessage(rejection.getMessageCode(), locale);
+            String prefix = "{\"code\":" + STATUS
+                    + ",\"message\":\"" + new String(JsonStringEncoder.getInstance().quoteAsString(message))
+                    + "\",\"data\":null,\"success\":false,\"timestamp\":";
+            result[rejection.ordinal()] = prefix.getBytes(StandardCharsets.UTF_8);
+        }
+        return result;
+    }
+}
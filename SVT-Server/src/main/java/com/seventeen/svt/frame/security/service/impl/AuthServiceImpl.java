@@ -14,11 +14,11 @@ import com.seventeen.svt.frame.security.dto.request.LoginRequestDTO;
 import com.seventeen.svt.frame.security.dto.response.TokenDTO;
 import com.seventeen.svt.frame.security.service.AuthService;
 import com.seventeen.svt.frame.security.utils.JwtUtils;
+import com.seventeen.svt.frame.security.utils.PasswordHashExecutor;
 import com.seventeen.svt.modules.system.entity.UserInfo;
 import com.seventeen.svt.modules.system.service.UserInfoService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
@@ -30,7 +30,7 @@ public class AuthServiceImpl implements AuthService {
 
     private final UserInfoService userInfoService;
     private final JwtUtils jwtUtils;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHashExecutor passwordHashExecutor;
     private final JwtCacheUtils jwtCacheUtils;
     private final UserDetailCacheUtils userDetailCacheUtils;
 
@@ -50,8 +50,8 @@ public class AuthServiceImpl implements AuthService {
         // 返回UserDetails对象
         CustomAuthentication customAuthentication = new CustomAuthentication(userInfo.getUserId(), userInfo.getUserNameZh(), userInfo.getPassword());
 
-        // 验证密码
-        if (!passwordEncoder.matches(loginRequest.getPassword(), customAuthentication.getPassword())) {
+        // 验证密码（在专用的有界线程池中计算，饱和时返回503）
+        if (!passwordHashExecutor.matches(loginRequest.getPassword(), customAuthentication.getPassword())) {
             throw new BusinessException(MessageUtils.getMessage("auth.login.wrongcredentials"));
         }
 
@@ -62,7 +62,8 @@ public class AuthServiceImpl implements AuthService {
         jwtCacheUtils.removeJwt(userInfo.getUserId());
 
         // 初始化存储Token信息
-        JwtCache jwtCache = jwtCacheUtils.createJwtCache(accessToken, userInfo.getUserId(), RequestContextUtils.getIpAddress());
+        String loginIp = RequestContextUtils.getIpAddress();
+        JwtCache jwtCache = jwtCacheUtils.createJwtCache(accessToken, userInfo.getUserId(), loginIp);
         jwtCacheUtils.putJwt(userInfo.getUserId(), jwtCache);
 
         //创建当前用户详情的缓存
@@ -70,14 +71,14 @@ public class AuthServiceImpl implements AuthService {
                 .userId(userInfo.getUserId())
                 .userNameZh(userInfo.getUserNameZh())
                 .userNameEn(userInfo.getUserNameEn())
-                .loginIp(RequestContextUtils.getIpAddress())
+                .loginIp(loginIp)
                 .loginTime(LocalDateTime.now()).build();
         userDetailCacheUtils.putUserDetail(userInfo.getUserId(), userDetailCache);
 
         // 构建并返回TokenDTO
         return TokenDTO.builder()
                 .accessToken(accessToken)
-                .accessTokenExpireIn(jwtUtils.getTokenRemainingTime(accessToken))
+                .accessTokenExpireIn((jwtCache.getExpirationTime() - System.currentTimeMillis()) / 1000)
                 .build();
     }
 
@@ -1,24 +1,37 @@
 package com.seventeen.svt.frame.security.utils;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import com.seventeen.svt.common.util.MessageUtils;
 import com.seventeen.svt.frame.security.config.CustomAuthentication;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 
 /**
  * JWT工具类
+ *
+ * 认证过滤器使用 {@link #verifyToken(String)}：每个Token只解析和验签一次，
+ * 验证通过的声明按Token摘要缓存到Token过期，同一Token的后续请求不再计算HMAC
+ *
+ * 签名密钥和解析器启动时创建一次（两者都不可变、线程安全），所有解析和签发共用；
+ * 密钥轮换时通过 {@link #rotateSecret(String)} 整体替换
  */
 @Slf4j
 @Component
@@ -36,6 +49,126 @@ public class JwtUtils {
     @Value("${jwt.issuer}")
     private String issuer;
 
+    //已验证Token缓存容量
+    @Value("${jwt.verified-cache.maximum-size:10000}")
+    private long verifiedCacheMaximumSize;
+
+    /**
+     * 已验证Token缓存：键为Token摘要，条目在Token过期时失效
+     * 只缓存签名、格式和签发者校验都通过的Token；黑名单在每次请求时单独检查，不依赖此缓存
+     */
+    private Cache<TokenDigest, VerifiedToken> verifiedTokenCache;
+
+    /**
+     * 签名密钥及对应的解析器，作为一个整体替换，读取方不会看到密钥和解析器不一致的状态
+     */
+    private volatile SigningMaterial signingMaterial;
+
+    @PostConstruct
+    private void init() {
+        this.signingMaterial = new SigningMaterial(secret);
+        this.verifiedTokenCache = Caffeine.newBuilder()
+                .maximumSize(verifiedCacheMaximumSize)
+                .expireAfter(new Expiry<TokenDigest, VerifiedToken>() {
+                    @Override
+                    public long expireAfterCreate(TokenDigest key, VerifiedToken value, long currentTime) {
+                        long remaining = value.getExpirationMillis() - System.currentTimeMillis();
+                        return TimeUnit.MILLISECONDS.toNanos(Math.max(0, remaining));
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(TokenDigest key, VerifiedToken value, long currentTime,
+                                                  long currentDuration) {
+                        return expireAfterCreate(key, value, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(TokenDigest key, VerifiedToken value, long currentTime,
+                                                long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+        log.info("JWT verified token cache initialized, maximum size: {}", verifiedCacheMaximumSize);
+    }
+
+    /**
+     * 轮换JWT密钥
+     * 新密钥和解析器创建成功后才替换（密钥强度不足时抛出异常，原密钥继续生效），并清空已验证Token缓存；
+     * 用旧密钥签发的Token从此验签失败
+     *
+     * @param newSecret 新密钥
+     */
+    public synchronized void rotateSecret(String newSecret) {
+        SigningMaterial material = new SigningMaterial(newSecret);
+        this.secret = newSecret;
+        this.signingMaterial = material;
+        verifiedTokenCache.invalidateAll();
+        log.info("JWT signing key rotated, verified token cache cleared");
+    }
+
+    /**
+     * 解析并验证Token，结果按Token摘要缓存
+     * 校验内容与 {@link #isValidSystemToken(String)} 一致：签名、格式、必要声明、签发者，以及未过期
+     *
+     * @param token JWT Token
+     * @return 验证通过的Token声明；签名错误、格式错误、缺少声明、签发者不符或已过期时返回null
+     */
+    public VerifiedToken verifyToken(String token) {
+        TokenDigest digest = TokenDigest.of(token);
+        VerifiedToken cached = verifiedTokenCache.getIfPresent(digest);
+        if (cached != null) {
+            if (!cached.isExpired()) {
+                return cached;
+            }
+            verifiedTokenCache.invalidate(digest);
+            return null;
+        }
+
+        SigningMaterial material = signingMaterial;
+        VerifiedToken verified = parseAndVerify(material.parser, token, digest);
+        if (verified != null) {
+            verifiedTokenCache.put(digest, verified);
+            // 验签期间发生密钥轮换时，不保留用旧密钥验证的结果
+            if (material != signingMaterial) {
+                verifiedTokenCache.invalidate(digest);
+            }
+        }
+        return verified;
+    }
+
+    /**
+     * 获取已验证Token缓存统计信息
+     */
+    public String getVerifiedCacheStats() {
+        return String.format("JWT Verified Cache Stats - Size: %d, Hit Rate: %.2f%%",
+                verifiedTokenCache.estimatedSize(),
+                verifiedTokenCache.stats().hitRate() * 100);
+    }
+
+    private VerifiedToken parseAndVerify(JwtParser parser, String token, TokenDigest digest) {
+        try {
+            Claims claims = parser.parseClaimsJws(token).getBody();
+            String userId = claims.get("userId", String.class);
+            String userName = claims.get("userName", String.class);
+            if (userId == null || userName == null || !issuer.equals(claims.getIssuer())
+                    || claims.getExpiration() == null) {
+                log.warn("Token missing required claims or issuer mismatch");
+                return null;
+            }
+            Date issuedAt = claims.getIssuedAt();
+            return new VerifiedToken(digest, userId, userName, issuedAt != null ? issuedAt.getTime() : 0L,
+                    claims.getExpiration().getTime());
+        } catch (ExpiredJwtException e) {
+            log.debug("Token expired: {}", e.getMessage());
+            return null;
+        } catch (Exception e) {
+            log.warn("Token validation failed: {}", e.getMessage());
+            return null;
+        }
+    }
+
     /**
      * 生成Token
      */
@@ -129,9 +262,7 @@ public class JwtUtils {
     public boolean isValidSystemToken(String token) {
         try {
             // 验证Token签名和格式
-            Claims claims = Jwts.parserBuilder()
-                    .setSigningKey(getSigningKey())
-                    .build()
+            Claims claims = signingMaterial.parser
                     .parseClaimsJws(token) // 这里会验证签名
                     .getBody();
             
@@ -171,14 +302,12 @@ public class JwtUtils {
                 .setIssuer(issuer)
                 .setIssuedAt(createdDate)
                 .setExpiration(expirationDate)
-                .signWith(getSigningKey(), SignatureAlgorithm.HS256)
+                .signWith(signingMaterial.key, SignatureAlgorithm.HS256)
                 .compact();
     }
 
     private Claims getAllClaimsFromToken(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
+        return signingMaterial.parser
                 .parseClaimsJws(token)
                 .getBody();
     }
@@ -192,8 +321,83 @@ public class JwtUtils {
         }
     }
 
-    private Key getSigningKey() {
-        byte[] keyBytes = secret.getBytes();
-        return Keys.hmacShaKeyFor(keyBytes);
+    /**
+     * 签名密钥及解析器
+     */
+    private static final class SigningMaterial {
+        private final Key key;
+        private final JwtParser parser;
+
+        private SigningMaterial(String secret) {
+            this.key = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+            this.parser = Jwts.parserBuilder()
+                    .setSigningKey(key)
+                    .build();
+        }
+    }
+
+    /**
+     * 已验证的Token声明（不可变，多个请求共享同一实例）
+     */
+    public static final class VerifiedToken {
+        private final TokenDigest digest;
+        private final String userId;
+        private final String userName;
+        private final long issuedAtMillis;
+        private final long expirationMillis;
+
+        private VerifiedToken(TokenDigest digest, String userId, String userName, long issuedAtMillis,
+                              long expirationMillis) {
+            this.digest = digest;
+            this.userId = userId;
+            this.userName = userName;
+            this.issuedAtMillis = issuedAtMillis;
+            this.expirationMillis = expirationMillis;
+        }
+
+        /**
+         * Token摘要，黑名单等按摘要索引的结构直接复用，无需重新计算
+         */
+        public TokenDigest getDigest() {
+            return digest;
+        }
+
+        public String getUserId() {
+            return userId;
+        }
+
+        public String getUserName() {
+            return userName;
+        }
+
+        public Date getIssuedAt() {
+            return new Date(issuedAtMillis);
+        }
+
+        public Date getExpiration() {
+            return new Date(expirationMillis);
+        }
+
+        public long getIssuedAtMillis() {
+            return issuedAtMillis;
+        }
+
+        public long getExpirationMillis() {
+            return expirationMillis;
+        }
+
+        /**
+         * 是否已过期
+         */
+        public boolean isExpired() {
+            return expirationMillis <= System.currentTimeMillis();
+        }
+
+        /**
+         * 剩余有效期（秒）
+         */
+        public long getRemainingSeconds() {
+            return (expirationMillis - System.currentTimeMillis()) / 1000;
+        }
     }
 } 
\ No newline at end of file
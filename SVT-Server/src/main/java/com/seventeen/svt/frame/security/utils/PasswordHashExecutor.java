@@ -0,0 +1,179 @@
+package com.seventeen.svt.frame.security.utils;
+
+import com.seventeen.svt.common.config.PasswordHashConfig;
+import com.seventeen.svt.common.exception.ServiceBusyException;
+import com.seventeen.svt.common.util.MessageUtils;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 密码校验执行器
+ * Argon2密码校验在专用的有界线程池中执行，登录高峰不会占满Web容器线程而拖慢其他接口
+ *
+ * 设计说明：
+ * - 并发度默认为CPU核数，等待队列有界，队列满时立即返回503（{@link ServiceBusyException}）
+ * - 排队超过 queue-timeout 仍未开始校验的请求返回503，已开始的校验等待完成，不丢弃计算结果
+ * - 登录最多占用 并发度 + 队列容量 个Web容器线程，其余线程始终可用于普通请求
+ * - 记录排队和校验耗时，定期输出统计日志
+ *
+ * @author SEVENTEEN
+ * @since 2026-10-17
+ */
+@Slf4j
+@Component
+public class PasswordHashExecutor {
+
+    private final PasswordEncoder passwordEncoder;
+    private final ThreadPoolExecutor executor;
+    private final long queueTimeoutMillis;
+
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder timedOut = new LongAdder();
+    private final LongAdder queueNanos = new LongAdder();
+    private final LongAdder hashNanos = new LongAdder();
+    private final LongAccumulator maxQueueNanos = new LongAccumulator(Math::max, 0);
+    private final LongAccumulator maxHashNanos = new LongAccumulator(Math::max, 0);
+
+    public PasswordHashExecutor(PasswordEncoder passwordEncoder, PasswordHashConfig config) {
+        this.passwordEncoder = passwordEncoder;
+        this.queueTimeoutMillis = config.getQueueTimeout();
+        int concurrency = config.getConcurrency() > 0
+                ? config.getConcurrency() : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(concurrency, concurrency, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(config.getQueueCapacity(), 1)),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hash-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        log.info("Password hash executor initialized - concurrency: {}, queue capacity: {}, queue timeout: {}ms",
+                concurrency, config.getQueueCapacity(), queueTimeoutMillis);
+    }
+
+    /**
+     * 校验密码
+     *
+     * @param rawPassword     明文密码
+     * @param encodedPassword 密码哈希
+     * @return 是否匹配
+     * @throws ServiceBusyException 队列已满或排队超时
+     */
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        long submittedAt = System.nanoTime();
+        // 校验线程和请求线程谁先取得执行权：校验线程取得后开始计算，请求线程排队超时后取得则放弃本次校验
+        AtomicBoolean claimed = new AtomicBoolean();
+        Future<Boolean> future;
+        try {
+            future = executor.submit(() -> {
+                if (!claimed.compareAndSet(false, true)) {
+                    return false;
+                }
+                long startedAt = System.nanoTime();
+                record(queueNanos, maxQueueNanos, startedAt - submittedAt);
+                try {
+                    return passwordEncoder.matches(rawPassword, encodedPassword);
+                } finally {
+                    record(hashNanos, maxHashNanos, System.nanoTime() - startedAt);
+                    completed.increment();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw busy("queue full");
+        }
+
+        try {
+            try {
+                return future.get(queueTimeoutMillis, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                if (claimed.compareAndSet(false, true)) {
+                    future.cancel(false);
+                    timedOut.increment();
+                    throw busy("queue timeout");
+                }
+                // 校验已开始，等待计算完成
+                return future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            claimed.set(true);
+            throw busy("interrupted");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Password verification failed", e.getCause());
+        }
+    }
+
+    /**
+     * 获取统计信息（自上次输出统计日志以来）
+     */
+    public String getStats() {
+        long count = completed.sum();
+        return String.format("Completed: %d, Rejected: %d, Queue Timeout: %d, Active: %d, Queued: %d, "
+                        + "Avg Queue: %.1fms, Max Queue: %.1fms, Avg Hash: %.1fms, Max Hash: %.1fms",
+                count, rejected.sum(), timedOut.sum(), executor.getActiveCount(), executor.getQueue().size(),
+                average(queueNanos.sum(), count), toMillis(maxQueueNanos.get()),
+                average(hashNanos.sum(), count), toMillis(maxHashNanos.get()));
+    }
+
+    /**
+     * 定期输出统计日志并重置，期间没有登录时不输出
+     */
+    @Scheduled(fixedRate = 60_000)
+    public void logStats() {
+        if (completed.sum() == 0 && rejected.sum() == 0 && timedOut.sum() == 0) {
+            return;
+        }
+        log.info("Password hash stats - {}", getStats());
+        completed.reset();
+        rejected.reset();
+        timedOut.reset();
+        queueNanos.reset();
+        hashNanos.reset();
+        maxQueueNanos.reset();
+        maxHashNanos.reset();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private ServiceBusyException busy(String reason) {
+        log.debug("Password verification rejected: {}", reason);
+        return new ServiceBusyException(MessageUtils.getMessage("auth.login.busy"));
+    }
+
+    private static void record(LongAdder total, LongAccumulator max, long nanos) {
+        total.add(nanos);
+        max.accumulate(nanos);
+    }
+
+    private static double average(long totalNanos, long count) {
+        return count == 0 ? 0 : toMillis(totalNanos) / count;
+    }
+
+    private static double toMillis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+}
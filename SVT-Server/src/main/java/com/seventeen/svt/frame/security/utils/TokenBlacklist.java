@@ -0,0 +1,214 @@
+package com.seventeen.svt.frame.security.utils;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Token黑名单
+ * 以Token摘要的前128位为键，保存在基本类型数组实现的开放寻址哈希表中，表前放置布隆过滤器
+ *
+ * 设计说明：
+ * - 不保存Token原文，每个条目只占两个long键和一个long过期时间，按0.75负载约32字节
+ * - 条目在Token自身过期时失效，过期后的Token在验签阶段即被拒绝，无需继续保留
+ * - 绝大多数请求的Token不在黑名单中，布隆过滤器无锁判定后直接返回，不访问哈希表
+ * - 布隆过滤器判定可能存在时才加锁查表，误判率约1%
+ * - 写入（退出登录、会话失效）很少，统一加锁；表满时重建，重建时丢弃已过期条目
+ *
+ * @author SEVENTEEN
+ * @since 2026-10-17
+ */
+public final class TokenBlacklist {
+
+    private static final int MIN_CAPACITY = 1024;
+
+    /**
+     * 每个槽位对应的布隆过滤器位数，按0.75负载约为每个条目10.7位
+     */
+    private static final int BLOOM_BITS_PER_SLOT = 8;
+
+    private static final int BLOOM_HASHES = 4;
+
+    /**
+     * 槽位键，每个槽位占两个元素（摘要高64位、低64位）
+     */
+    private long[] keys;
+
+    /**
+     * 槽位过期时间（毫秒），0表示空槽
+     */
+    private long[] expiresAt;
+
+    private int size;
+    private int threshold;
+
+    /**
+     * 布隆过滤器，重建时整体替换；位只在持有锁时设置，读取不加锁
+     */
+    private volatile AtomicLongArray bloom;
+
+    public TokenBlacklist() {
+        allocate(MIN_CAPACITY);
+        bloom = newBloom(MIN_CAPACITY);
+    }
+
+    /**
+     * 判断Token是否在黑名单中
+     *
+     * @param digest Token摘要
+     * @param now    当前时间（毫秒）
+     */
+    public boolean contains(TokenDigest digest, long now) {
+        if (!mightContain(bloom, digest.getHigh(), digest.getLow())) {
+            return false;
+        }
+        synchronized (this) {
+            int slot = find(digest.getHigh(), digest.getLow());
+            return slot >= 0 && expiresAt[slot] > now;
+        }
+    }
+
+    /**
+     * 加入黑名单，已过期的Token不加入
+     *
+     * @param digest     Token摘要
+     * @param expiration Token过期时间（毫秒），条目在此时间后失效
+     * @param now        当前时间（毫秒）
+     */
+    public synchronized void add(TokenDigest digest, long expiration, long now) {
+        if (expiration <= now) {
+            return;
+        }
+        long high = digest.getHigh();
+        long low = digest.getLow();
+        int slot = find(high, low);
+        if (slot >= 0) {
+            expiresAt[slot] = Math.max(expiresAt[slot], expiration);
+            return;
+        }
+        if (size >= threshold) {
+            rebuild(now);
+        }
+        insert(high, low, expiration);
+        setBloomBits(bloom, high, low);
+    }
+
+    /**
+     * 清理已过期条目，并按剩余条目数收缩哈希表
+     *
+     * @param now 当前时间（毫秒）
+     * @return 清理的条目数
+     */
+    public synchronized int purgeExpired(long now) {
+        int before = size;
+        rebuild(now);
+        return before - size;
+    }
+
+    /**
+     * 当前条目数（含尚未清理的过期条目）
+     */
+    public synchronized int size() {
+        return size;
+    }
+
+    /**
+     * 清空黑名单
+     */
+    public synchronized void clear() {
+        allocate(MIN_CAPACITY);
+        bloom = newBloom(MIN_CAPACITY);
+    }
+
+    /**
+     * 丢弃过期条目并按剩余条目数重新分配，重建后负载不超过3/8，为后续写入留出空间
+     */
+    private void rebuild(long now) {
+        long[] oldKeys = keys;
+        long[] oldExpiresAt = expiresAt;
+        int live = 0;
+        for (long expiration : oldExpiresAt) {
+            if (expiration > now) {
+                live++;
+            }
+        }
+
+        int capacity = MIN_CAPACITY;
+        while (capacity * 3L / 8 < live) {
+            capacity <<= 1;
+        }
+        allocate(capacity);
+        AtomicLongArray nextBloom = newBloom(capacity);
+        for (int slot = 0; slot < oldExpiresAt.length; slot++) {
+            if (oldExpiresAt[slot] > now) {
+                long high = oldKeys[slot << 1];
+                long low = oldKeys[(slot << 1) + 1];
+                insert(high, low, oldExpiresAt[slot]);
+                setBloomBits(nextBloom, high, low);
+            }
+        }
+        // 新过滤器填充完成后再发布，无锁读取方看到的过滤器始终覆盖全部有效条目
+        bloom = nextBloom;
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity << 1];
+        expiresAt = new long[capacity];
+        size = 0;
+        threshold = capacity / 4 * 3;
+    }
+
+    private static AtomicLongArray newBloom(int capacity) {
+        return new AtomicLongArray(capacity * BLOOM_BITS_PER_SLOT / Long.SIZE);
+    }
+
+    private int find(long high, long low) {
+        int mask = expiresAt.length - 1;
+        for (int slot = index(low) & mask; expiresAt[slot] != 0; slot = (slot + 1) & mask) {
+            if (keys[slot << 1] == high && keys[(slot << 1) + 1] == low) {
+                return slot;
+            }
+        }
+        return -1;
+    }
+
+    private void insert(long high, long low, long expiration) {
+        int mask = expiresAt.length - 1;
+        int slot = index(low) & mask;
+        while (expiresAt[slot] != 0) {
+            slot = (slot + 1) & mask;
+        }
+        keys[slot << 1] = high;
+        keys[(slot << 1) + 1] = low;
+        expiresAt[slot] = expiration;
+        size++;
+    }
+
+    /**
+     * 摘要各位均匀分布，直接取低64位的折叠值作为槽位索引
+     */
+    private static int index(long low) {
+        return (int) (low ^ (low >>> 32));
+    }
+
+    private static boolean mightContain(AtomicLongArray filter, long high, long low) {
+        int bitMask = filter.length() * Long.SIZE - 1;
+        for (int i = 0; i < BLOOM_HASHES; i++) {
+            int bit = (int) (high + i * low) & bitMask;
+            if ((filter.get(bit >>> 6) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 设置布隆过滤器位（只在持有锁时调用，不会与其他写入竞争）
+     */
+    private static void setBloomBits(AtomicLongArray filter, long high, long low) {
+        int bitMask = filter.length() * Long.SIZE - 1;
+        for (int i = 0; i < BLOOM_HASHES; i++) {
+            int bit = (int) (high + i * low) & bitMask;
+            int word = bit >>> 6;
+            filter.set(word, filter.get(word) | (1L << bit));
+        }
+    }
+}
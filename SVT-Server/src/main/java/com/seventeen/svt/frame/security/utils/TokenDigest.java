@@ -0,0 +1,83 @@
+package com.seventeen.svt.frame.security.utils;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * Token摘要
+ * 对完整Token字符串计算SHA-256，作为缓存键使用，不在缓存中保存Token原文
+ *
+ * 设计说明：
+ * - 摘要覆盖Token全文（头部、载荷、签名），篡改任何部分都会得到不同的键
+ * - 以4个long保存，比较和计算哈希不需要数组拷贝
+ * - MessageDigest按线程复用，避免每次查找算法实现
+ *
+ * @author SEVENTEEN
+ * @since 2026-10-17
+ */
+public final class TokenDigest {
+
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    });
+
+    private final long h0;
+    private final long h1;
+    private final long h2;
+    private final long h3;
+
+    private TokenDigest(long h0, long h1, long h2, long h3) {
+        this.h0 = h0;
+        this.h1 = h1;
+        this.h2 = h2;
+        this.h3 = h3;
+    }
+
+    /**
+     * 计算Token摘要
+     */
+    public static TokenDigest of(String token) {
+        MessageDigest digest = SHA_256.get();
+        ByteBuffer hash = ByteBuffer.wrap(digest.digest(token.getBytes(StandardCharsets.US_ASCII)));
+        return new TokenDigest(hash.getLong(), hash.getLong(), hash.getLong(), hash.getLong());
+    }
+
+    /**
+     * 摘要第1~64位
+     */
+    public long getHigh() {
+        return h0;
+    }
+
+    /**
+     * 摘要第65~128位
+     */
+    public long getLow() {
+        return h1;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        return o instanceof TokenDigest other
+                && h0 == other.h0 && h1 == other.h1 && h2 == other.h2 && h3 == other.h3;
+    }
+
+    @Override
+    public int hashCode() {
+        return (int) h0;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%016x%016x%016x%016x", h0, h1, h2, h3);
+    }
+}
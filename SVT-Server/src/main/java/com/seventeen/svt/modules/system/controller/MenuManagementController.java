@@ -2,6 +2,8 @@ package com.seventeen.svt.modules.system.controller;
 
 
 import com.github.xiaoymin.knife4j.annotations.ApiOperationSupport;
+import com.seventeen.svt.common.annotation.crypto.ApiEncryption;
+import com.seventeen.svt.common.annotation.crypto.EncryptionPolicy;
 import com.seventeen.svt.common.response.Result;
 import com.seventeen.svt.common.util.TreeUtils;
 import com.seventeen.svt.modules.system.dto.request.InsertOrUpdateMenuDTO;
@@ -46,6 +48,7 @@ public class MenuManagementController {
     @PostMapping("/get-all-menu-tree")
     @Operation(summary = "获取菜单树", description = "获取菜单树")
     @ApiOperationSupport(order = 1)
+    @ApiEncryption(EncryptionPolicy.SKIP)
     public Result<?> getAllMenuTree() {
         List<TreeUtils.MenuTreeVO> menuTreeVOS = menuInfoServiceImpl.getAllMenuTree();
         return Result.success(menuTreeVOS);
@@ -246,6 +246,33 @@ CREATE TABLE distributed_lock (
 -- 创建索引
 CREATE INDEX idx_distributed_lock_expire_time ON distributed_lock (expire_time);
 
+-- 创建会话存储表(svt.session-store.type=jdbc 时使用)
+DROP TABLE IF EXISTS session_store;
+CREATE TABLE session_store (
+    region VARCHAR(32) NOT NULL COMMENT '存储区域(jwt、user-detail)',
+    session_key VARCHAR(64) NOT NULL COMMENT '条目键(用户ID)',
+    payload MEDIUMTEXT NOT NULL COMMENT '条目内容(JSON)',
+    entry_version BIGINT NOT NULL COMMENT '条目版本(乐观锁)',
+    expire_time BIGINT NOT NULL COMMENT '过期时间(毫秒时间戳)',
+    PRIMARY KEY (region, session_key)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='会话存储表';
+
+CREATE INDEX idx_session_store_expire_time ON session_store (expire_time);
+
+-- 创建会话存储变更日志表(各节点轮询后失效本地近缓存)
+DROP TABLE IF EXISTS session_store_change;
+CREATE TABLE session_store_change (
+    change_id BIGINT NOT NULL AUTO_INCREMENT COMMENT '变更序号',
+    region VARCHAR(32) NOT NULL COMMENT '存储区域',
+    session_key VARCHAR(64) NOT NULL COMMENT '条目键(用户ID)',
+    entry_version BIGINT NOT NULL COMMENT '变更后的条目版本',
+    node_id VARCHAR(64) NOT NULL COMMENT '写入节点',
+    change_time BIGINT NOT NULL COMMENT '变更时间(毫秒时间戳)',
+    PRIMARY KEY (change_id)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='会话存储变更日志表';
+
+CREATE INDEX idx_session_store_change_time ON session_store_change (change_time);
+
 -- ========================================
 -- 创建性能索引
 -- ========================================
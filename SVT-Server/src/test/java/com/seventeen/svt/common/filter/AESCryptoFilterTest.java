@@ -0,0 +1,103 @@
+package com.seventeen.svt.common.filter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.seventeen.svt.common.annotation.crypto.EncryptionPolicy;
+import com.seventeen.svt.common.config.AESConfig;
+import com.seventeen.svt.common.config.RequestBodyConfig;
+import com.seventeen.svt.common.util.AESUtils;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.PrintWriter;
+import java.io.UnsupportedEncodingException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * AES加解密过滤器错误处理测试
+ * 流式加密已打开原始输出流后业务抛出异常时，仍能以错误JSON替换未提交的加密输出
+ *
+ * @author SEVENTEEN
+ * @since 2026-10-17
+ */
+class AESCryptoFilterTest {
+
+    private AESCryptoFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        byte[] key = new byte[32];
+        Arrays.fill(key, (byte) 7);
+        AESConfig aesConfig = new AESConfig();
+        aesConfig.setKey(Base64.getEncoder().encodeToString(key));
+        aesConfig.setReplayProtection(false);
+
+        RouteClassifier routeClassifier = mock(RouteClassifier.class);
+        when(routeClassifier.classify(any(HttpServletRequest.class))).thenReturn(RouteTag.of(RouteTag.Type.API, true));
+        EncryptionPolicyResolver policyResolver = mock(EncryptionPolicyResolver.class);
+        when(policyResolver.resolve(any(HttpServletRequest.class))).thenReturn(EncryptionPolicy.OPTIONAL);
+
+        filter = new AESCryptoFilter(aesConfig, new AESUtils(aesConfig), new ObjectMapper(), routeClassifier,
+                policyResolver, new RequestBodyConfig());
+    }
+
+    @Test
+    void handlerFailureAfterEncryptedOutputStartedReturnsErrorJson() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/test");
+        ContainerResponse response = new ContainerResponse();
+        FilterChain chain = (req, res) -> {
+            // 写入部分响应体：信封头已写入原始输出流，但未超过缓冲区、响应尚未提交
+            res.getOutputStream().write("{\"partial\":".getBytes(StandardCharsets.UTF_8));
+            throw new IllegalStateException("handler failed");
+        };
+
+        filter.doFilter(request, response, chain);
+
+        assertFalse(response.getContentAsString().contains("\"encrypted\""));
+        assertEquals(500, response.getStatus());
+        assertEquals("false", response.getHeader("X-Encrypted"));
+        @SuppressWarnings("unchecked")
+        Map<String, Object> error = new ObjectMapper().readValue(response.getContentAsByteArray(), Map.class);
+        assertEquals(500, error.get("code"));
+        assertEquals(false, error.get("success"));
+    }
+
+    /**
+     * 与Servlet容器一致：同一响应上getOutputStream()和getWriter()只能调用其中一个
+     */
+    private static final class ContainerResponse extends MockHttpServletResponse {
+        private boolean outputStreamUsed;
+        private boolean writerUsed;
+
+        @Override
+        public ServletOutputStream getOutputStream() {
+            if (writerUsed) {
+                throw new IllegalStateException("getWriter() has already been called on this response");
+            }
+            outputStreamUsed = true;
+            return super.getOutputStream();
+        }
+
+        @Override
+        public PrintWriter getWriter() throws UnsupportedEncodingException {
+            if (outputStreamUsed) {
+                throw new IllegalStateException("getOutputStream() has already been called on this response");
+            }
+            writerUsed = true;
+            return super.getWriter();
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package com.seventeen.svt.common.util;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.seventeen.svt.common.config.AESConfig;
+import com.seventeen.svt.common.exception.BusinessException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * AES信封加解密测试
+ * CBC信封的时间戳、IV和密文由HMAC认证，篡改或去掉认证码的请求在启用防重放时被拒绝；
+ * 缓冲加密与流式加密在压缩阈值边界上的压缩结果一致
+ *
+ * @author SEVENTEEN
+ * @since 2026-10-17
+ */
+class AESUtilsTest {
+
+    private static final String JSON = "{\"name\":\"svt\"}";
+    private static final int COMPRESSION_THRESHOLD = 64;
+
+    private AESConfig config;
+
+    @BeforeEach
+    void setUp() {
+        byte[] key = new byte[32];
+        Arrays.fill(key, (byte) 7);
+        config = new AESConfig();
+        config.setKey(Base64.getEncoder().encodeToString(key));
+        config.setReplayCapacity(1000);
+    }
+
+    @Test
+    void cbcEnvelopeCarriesMacAndRoundTrips() {
+        AESUtils aesUtils = new AESUtils(config);
+        Map<String, Object> envelope = aesUtils.encryptForAPI(JSON);
+
+        assertNotNull(envelope.get("mac"));
+        assertEquals(JSON, aesUtils.decryptFromAPI(envelope));
+    }
+
+    @Test
+    void tamperedTimestampIsRejected() {
+        AESUtils aesUtils = new AESUtils(config);
+        Map<String, Object> envelope = new HashMap<>(aesUtils.encryptForAPI(JSON));
+        envelope.put("timestamp", (Long) envelope.get("timestamp") + 1);
+
+        assertThrows(BusinessException.class, () -> aesUtils.decryptFromAPI(envelope));
+    }
+
+    @Test
+    void missingMacIsRejectedOnlyWithReplayProtection() {
+        AESUtils aesUtils = new AESUtils(config);
+        Map<String, Object> envelope = new HashMap<>(aesUtils.encryptForAPI(JSON));
+        envelope.remove("mac");
+        assertThrows(BusinessException.class, () -> aesUtils.decryptFromAPI(envelope));
+
+        // 关闭防重放时兼容不带认证码的旧客户端
+        config.setReplayProtection(false);
+        AESUtils legacy = new AESUtils(config);
+        Map<String, Object> legacyEnvelope = new HashMap<>(legacy.encryptForAPI(JSON));
+        legacyEnvelope.remove("mac");
+        assertEquals(JSON, legacy.decryptFromAPI(legacyEnvelope));
+    }
+
+    @Test
+    void tamperedBinaryHeaderIsRejected() {
+        AESUtils aesUtils = new AESUtils(config);
+        byte[] plain = JSON.getBytes(StandardCharsets.UTF_8);
+        byte[] envelope = aesUtils.encryptForBinary(plain);
+        byte[] tampered = envelope.clone();
+        // 时间戳最低字节
+        tampered[11]++;
+
+        assertThrows(BusinessException.class, () -> aesUtils.decryptFromBinary(tampered));
+        assertArrayEquals(plain, aesUtils.decryptFromBinary(envelope));
+    }
+
+    @Test
+    void streamedEnvelopesCarryMac() throws Exception {
+        AESUtils aesUtils = new AESUtils(config);
+        byte[] plain = JSON.getBytes(StandardCharsets.UTF_8);
+
+        ByteArrayOutputStream json = new ByteArrayOutputStream();
+        try (AESEnvelopeOutputStream out = aesUtils.createEnvelopeStream(() -> json)) {
+            out.write(plain);
+        }
+        @SuppressWarnings("unchecked")
+        Map<String, Object> envelope = new ObjectMapper().readValue(json.toByteArray(), Map.class);
+        assertNotNull(envelope.get("mac"));
+        assertEquals(JSON, aesUtils.decryptFromAPI(envelope));
+
+        ByteArrayOutputStream binary = new ByteArrayOutputStream();
+        try (AESEnvelopeOutputStream out = aesUtils.createEnvelopeStream(() -> binary, AESEnvelopeFormat.BINARY)) {
+            out.write(plain);
+        }
+        assertArrayEquals(plain, aesUtils.decryptFromBinary(binary.toByteArray()));
+    }
+
+    @Test
+    void compressionStartsExactlyAtThreshold() throws Exception {
+        config.setCompressionThreshold(COMPRESSION_THRESHOLD);
+        AESUtils aesUtils = new AESUtils(config);
+
+        assertFalse(compressedBuffered(aesUtils, COMPRESSION_THRESHOLD - 1));
+        assertTrue(compressedBuffered(aesUtils, COMPRESSION_THRESHOLD));
+        for (AESEnvelopeFormat format : AESEnvelopeFormat.values()) {
+            assertFalse(compressedStreamed(aesUtils, format, COMPRESSION_THRESHOLD - 1));
+            assertTrue(compressedStreamed(aesUtils, format, COMPRESSION_THRESHOLD));
+        }
+    }
+
+    private static boolean compressedBuffered(AESUtils aesUtils, int length) {
+        String json = "\"" + "a".repeat(length - 2) + "\"";
+        boolean compressed = aesUtils.encryptForAPI(json, true).containsKey("compressed");
+        byte[] binary = aesUtils.encryptForBinary(json.getBytes(StandardCharsets.UTF_8), true);
+        assertEquals(compressed, (binary[1] & AESEnvelopeFormat.FLAG_GZIP) != 0);
+        return compressed;
+    }
+
+    private static boolean compressedStreamed(AESUtils aesUtils, AESEnvelopeFormat format, int length) throws Exception {
+        byte[] plain = new byte[length];
+        Arrays.fill(plain, (byte) 'a');
+        ByteArrayOutputStream target = new ByteArrayOutputStream();
+        AESEnvelopeOutputStream out = aesUtils.createEnvelopeStream(() -> target, format, true);
+        // 分两次写入，覆盖缓冲后达到阈值的情况
+        out.write(plain, 0, length / 2);
+        out.write(plain, length / 2, length - length / 2);
+        out.close();
+        return out.isCompressed();
+    }
+}
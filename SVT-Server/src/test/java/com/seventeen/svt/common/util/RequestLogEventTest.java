@@ -0,0 +1,70 @@
+package com.seventeen.svt.common.util;
+
+import com.seventeen.svt.common.config.RequestBodyConfig;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 请求日志采集测试
+ * 业务未读取的请求体只按记录上限读取前缀，不为记录日志缓存或溢出完整请求体
+ *
+ * @author SEVENTEEN
+ * @since 2026-10-17
+ */
+class RequestLogEventTest {
+
+    private static final int MAX_BODY_SIZE = 16;
+
+    @Test
+    void unreadBodyIsLoggedByBoundedPrefix() {
+        byte[] content = new byte[256 * 1024];
+        Arrays.fill(content, (byte) 'a');
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/test");
+        request.setContent(content);
+        RequestBodyHolder body = RequestWrapper.of(request, new RequestBodyConfig()).getBodyHolder();
+
+        RequestLogEvent event = new RequestLogEvent();
+        event.capture(request, body, new RequestLogEvent.Outcome(200, 1, MAX_BODY_SIZE));
+
+        assertFalse(body.isCaptured());
+        assertArrayEquals(Arrays.copyOf(content, MAX_BODY_SIZE), event.body);
+        assertEquals(content.length, event.bodySize);
+        assertTrue(RequestLogUtils.format(event).contains("...(truncated)"));
+    }
+
+    @Test
+    void unreadBodyIsNotReadWithoutLimit() {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/test");
+        request.setContent("{\"name\":\"svt\"}".getBytes(StandardCharsets.UTF_8));
+        RequestBodyHolder body = RequestWrapper.of(request, new RequestBodyConfig()).getBodyHolder();
+
+        RequestLogEvent event = new RequestLogEvent();
+        event.capture(request, body, new RequestLogEvent.Outcome(200, 1, 0));
+
+        assertFalse(body.isCaptured());
+        assertTrue(event.bodyUnread);
+        assertTrue(RequestLogUtils.format(event).contains("Request Body   : (unread)"));
+    }
+
+    @Test
+    void capturedBodyIsCopiedUpToLimit() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/test");
+        request.setContent("{\"name\":\"svt\"}".getBytes(StandardCharsets.UTF_8));
+        RequestBodyHolder body = RequestWrapper.of(request, new RequestBodyConfig()).getBodyHolder();
+        body.capture();
+
+        RequestLogEvent event = new RequestLogEvent();
+        event.capture(request, body, new RequestLogEvent.Outcome(200, 1, MAX_BODY_SIZE));
+
+        assertEquals(14, event.bodySize);
+        assertEquals("{\"name\":\"svt\"}", new String(event.body, StandardCharsets.UTF_8));
+    }
+}
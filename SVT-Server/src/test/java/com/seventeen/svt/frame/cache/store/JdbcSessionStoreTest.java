@@ -0,0 +1,225 @@
+package com.seventeen.svt.frame.cache.store;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mybatisflex.core.mybatis.FlexConfiguration;
+import com.mybatisflex.spring.FlexSqlSessionFactoryBean;
+import com.mybatisflex.spring.FlexTransactionManager;
+import com.seventeen.svt.frame.cache.store.config.SessionStoreConfig;
+import com.seventeen.svt.frame.cache.store.entity.SessionStoreEntry;
+import com.seventeen.svt.frame.cache.store.mapper.SessionStoreMapper;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mybatis.spring.SqlSessionTemplate;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 数据库会话存储测试
+ * 基于嵌入式H2数据库（MySQL兼容模式），两个 {@link SessionStoreFactory} 模拟共享同一数据库的两个节点，
+ * 验证Mapper语句、乐观锁重试、变更日志失效近缓存和过期清理
+ *
+ * @author SEVENTEEN
+ * @since 2026-10-17
+ */
+class JdbcSessionStoreTest {
+
+    private static final String REGION = "test";
+
+    private static JdbcTemplate jdbcTemplate;
+    private static SessionStoreMapper mapper;
+
+    private SessionStoreFactory nodeA;
+    private SessionStoreFactory nodeB;
+    private SessionStore<TestSession> storeA;
+    private SessionStore<TestSession> storeB;
+
+    @BeforeAll
+    static void initDatabase() throws Exception {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:session_store;MODE=MySQL;DB_CLOSE_DELAY=-1");
+        new ResourceDatabasePopulator(new ClassPathResource("db/session-store-h2.sql")).execute(dataSource);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+
+        FlexConfiguration configuration = new FlexConfiguration();
+        // 与 application.yml 中的 mybatis-flex.configuration 一致
+        configuration.setMapUnderscoreToCamelCase(true);
+        FlexSqlSessionFactoryBean factoryBean = new FlexSqlSessionFactoryBean();
+        factoryBean.setDataSource(dataSource);
+        factoryBean.setConfiguration(configuration);
+        SqlSessionFactory sqlSessionFactory = factoryBean.getObject();
+        sqlSessionFactory.getConfiguration().addMapper(SessionStoreMapper.class);
+        mapper = new SqlSessionTemplate(sqlSessionFactory).getMapper(SessionStoreMapper.class);
+    }
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("DELETE FROM session_store");
+        jdbcTemplate.update("DELETE FROM session_store_change");
+
+        nodeA = newNode("node-a");
+        nodeB = newNode("node-b");
+        storeA = nodeA.create(REGION, TestSession.class, 100, 3600);
+        storeB = nodeB.create(REGION, TestSession.class, 100, 3600);
+        // 首次轮询只记录当前变更序号
+        nodeA.pollChanges();
+        nodeB.pollChanges();
+    }
+
+    @Test
+    void putIsVisibleOnOtherNode() {
+        storeA.put("u1", new TestSession("t1", 1));
+
+        assertEquals(new TestSession("t1", 1), storeB.get("u1"));
+        SessionStoreEntry row = mapper.selectEntry(REGION, "u1");
+        assertNotNull(row);
+        assertTrue(row.getExpireTime() > System.currentTimeMillis());
+    }
+
+    @Test
+    void changeLogInvalidatesNearCacheOnOtherNode() {
+        storeA.put("u1", new TestSession("t1", 1));
+        assertEquals(new TestSession("t1", 1), storeB.get("u1"));
+
+        storeA.put("u1", new TestSession("t2", 1));
+        // 近缓存有效期内，轮询变更日志之前仍读到旧值
+        assertEquals(new TestSession("t1", 1), storeB.get("u1"));
+
+        nodeB.pollChanges();
+        assertEquals(new TestSession("t2", 1), storeB.get("u1"));
+    }
+
+    @Test
+    void pollSkipsChangesWrittenByOwnNode() {
+        storeA.put("u1", new TestSession("t1", 1));
+        assertEquals(new TestSession("t1", 1), storeA.get("u1"));
+
+        // 绕过存储直接改写数据库：本节点的变更被跳过，近缓存保持不变
+        jdbcTemplate.update("UPDATE session_store SET payload = ? WHERE region = ? AND session_key = ?",
+                "{\"token\":\"t9\",\"count\":9}", REGION, "u1");
+        nodeA.pollChanges();
+        assertEquals(new TestSession("t1", 1), storeA.get("u1"));
+    }
+
+    @Test
+    void computeRetriesOnVersionConflict() {
+        storeA.put("u1", new TestSession("t1", 1));
+        assertEquals(1, storeB.get("u1").count());
+
+        storeA.compute("u1", session -> new TestSession(session.token(), session.count() + 1));
+        // 节点B的近缓存仍是旧版本，首次写入版本冲突，重新读取后再次计算
+        TestSession result = storeB.compute("u1", session -> new TestSession(session.token(), session.count() + 1));
+
+        assertEquals(3, result.count());
+        nodeA.pollChanges();
+        assertEquals(3, storeA.get("u1").count());
+        assertEquals(3, storeB.get("u1").count());
+    }
+
+    @Test
+    void removeIsPropagatedToOtherNode() {
+        storeA.put("u1", new TestSession("t1", 1));
+        assertNotNull(storeB.get("u1"));
+
+        assertEquals(new TestSession("t1", 1), storeA.remove("u1"));
+        assertNull(mapper.selectEntry(REGION, "u1"));
+
+        nodeB.pollChanges();
+        assertNull(storeB.get("u1"));
+        assertNull(storeB.remove("u1"));
+    }
+
+    @Test
+    void putReplacesExpiredEntry() throws InterruptedException {
+        newNode("node-c").create("expiring", TestSession.class, 100, 0).put("u1", new TestSession("t1", 1));
+        SessionStore<TestSession> other = newNode("node-d").create("expiring", TestSession.class, 100, 0);
+        Thread.sleep(5);
+        assertNull(other.get("u1"));
+
+        // 数据库中仍保留过期行，重新写入时先删除过期行再插入
+        other.put("u1", new TestSession("t2", 1));
+        assertTrue(mapper.selectEntry("expiring", "u1").getPayload().contains("t2"));
+    }
+
+    @Test
+    void cleanupRemovesExpiredEntriesAndChanges() throws InterruptedException {
+        SessionStoreConfig config = newConfig("node-c");
+        config.setChangeRetention(0);
+        SessionStoreFactory node = newFactory(config);
+        SessionStore<TestSession> expiring = node.create("expiring", TestSession.class, 100, 0);
+        expiring.put("u1", new TestSession("t1", 1));
+        storeA.put("u2", new TestSession("t2", 1));
+        Thread.sleep(5);
+
+        node.cleanup();
+
+        assertNull(mapper.selectEntry("expiring", "u1"));
+        assertNotNull(mapper.selectEntry(REGION, "u2"));
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM session_store_change", Integer.class));
+    }
+
+    @Test
+    void cleanupRunsExpiryCallbackOnceAcrossNodes() {
+        List<String> expired = new CopyOnWriteArrayList<>();
+        // count为0的条目立即到期
+        SessionExpiry<TestSession> expiry = new SessionExpiry<>() {
+            @Override
+            public long expiresAt(TestSession session) {
+                return session.count() == 0 ? 0 : Long.MAX_VALUE;
+            }
+
+            @Override
+            public void expired(String key, TestSession session) {
+                expired.add(key + ":" + session.token());
+            }
+        };
+        SessionStore<TestSession> sliding = nodeA.create("sliding", TestSession.class, 100, 3600, expiry, null);
+        nodeB.create("sliding", TestSession.class, 100, 3600, expiry, null);
+        sliding.put("idle", new TestSession("t1", 0));
+        sliding.put("active", new TestSession("t2", 1));
+
+        nodeA.cleanup();
+        nodeB.cleanup();
+
+        assertEquals(List.of("idle:t1"), expired);
+        assertNull(mapper.selectEntry("sliding", "idle"));
+        assertNotNull(mapper.selectEntry("sliding", "active"));
+        assertNull(sliding.get("idle"));
+    }
+
+    private static SessionStoreFactory newNode(String nodeId) {
+        return newFactory(newConfig(nodeId));
+    }
+
+    private static SessionStoreConfig newConfig(String nodeId) {
+        SessionStoreConfig config = new SessionStoreConfig();
+        config.setType(SessionStoreConfig.Type.JDBC);
+        config.setNodeId(nodeId);
+        // 近缓存有效期足够长，近缓存只能由变更日志失效
+        config.setNearCacheTtl(300);
+        // 小批量，覆盖多批读取变更日志
+        config.setPollBatchSize(1);
+        return config;
+    }
+
+    private static SessionStoreFactory newFactory(SessionStoreConfig config) {
+        return new SessionStoreFactory(config, mapper, new ObjectMapper(), new FlexTransactionManager());
+    }
+
+    /**
+     * 测试用会话条目
+     */
+    public record TestSession(String token, int count) {
+    }
+}
@@ -0,0 +1,75 @@
+package com.seventeen.svt.frame.cache.store;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 会话快照文件测试
+ * 条目直接序列化到映射缓冲区，超过初始映射大小时扩大映射，较小的快照覆盖较大的旧快照后仍可完整读取
+ *
+ * @author SEVENTEEN
+ * @since 2026-10-17
+ */
+class SessionSnapshotTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void snapshotLargerThanInitialMappingRoundTrips() throws IOException {
+        SessionSnapshot snapshot = new SessionSnapshot(tempDir.resolve("snapshots"), "jwt");
+        // 约1MB，远超初始映射大小
+        List<String> written = entries(20_000);
+        save(snapshot, written, 1);
+
+        assertEquals(written, restore(new SessionSnapshot(tempDir.resolve("snapshots"), "jwt")));
+    }
+
+    @Test
+    void smallerSnapshotOverwritesLargerSlot() throws IOException {
+        SessionSnapshot snapshot = new SessionSnapshot(tempDir.resolve("snapshots"), "jwt");
+        save(snapshot, entries(20_000), 1);
+        save(snapshot, entries(20_000), 2);
+        // 第三次写入与第一次使用同一槽位，文件中残留的旧内容不影响读取
+        List<String> latest = entries(3);
+        save(snapshot, latest, 3);
+
+        assertEquals(latest, restore(new SessionSnapshot(tempDir.resolve("snapshots"), "jwt")));
+    }
+
+    private static List<String> entries(int count) {
+        List<String> entries = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            entries.add("user-" + i + "-" + "x".repeat(40));
+        }
+        return entries;
+    }
+
+    private static void save(SessionSnapshot snapshot, List<String> entries, long now) throws IOException {
+        snapshot.save(out -> {
+            out.writeInt(entries.size());
+            for (String entry : entries) {
+                out.writeUTF(entry);
+            }
+        }, now);
+    }
+
+    private static List<String> restore(SessionSnapshot snapshot) throws IOException {
+        List<String> restored = new ArrayList<>();
+        assertTrue(snapshot.restore((in, createdTime) -> {
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                restored.add(in.readUTF());
+            }
+        }));
+        return restored;
+    }
+}
@@ -0,0 +1,118 @@
+package com.seventeen.svt.frame.cache.util;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.seventeen.svt.frame.cache.entity.JwtCache;
+import com.seventeen.svt.frame.cache.entity.UserDetailCache;
+import com.seventeen.svt.frame.cache.store.SessionStoreFactory;
+import com.seventeen.svt.frame.cache.store.config.SessionStoreConfig;
+import com.seventeen.svt.frame.security.utils.JwtUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+/**
+ * 会话到期测试
+ * 本地会话存储按会话自身的到期时间（活跃度周期结束或Token过期）主动移除空闲会话，
+ * 并在到期回调中释放该用户的用户详情缓存，不等待下一次请求或容量淘汰
+ *
+ * @author SEVENTEEN
+ * @since 2026-10-17
+ */
+class JwtCacheUtilsExpiryTest {
+
+    private static final String USER_ID = "u1";
+    private static final String TOKEN = "token-u1";
+    private static final String IP = "127.0.0.1";
+    private static final long AWAIT_MILLIS = 5000;
+
+    private JwtCacheUtils jwtCacheUtils;
+    private UserDetailCacheUtils userDetailCacheUtils;
+
+    @BeforeEach
+    void setUp() {
+        SessionStoreConfig config = new SessionStoreConfig();
+        config.getSnapshot().setEnabled(false);
+        SessionStoreFactory factory = new SessionStoreFactory(config, null, new ObjectMapper(),
+                mock(PlatformTransactionManager.class));
+
+        userDetailCacheUtils = new UserDetailCacheUtils(factory);
+        ReflectionTestUtils.setField(userDetailCacheUtils, "expirationSeconds", 3600L);
+        ReflectionTestUtils.invokeMethod(userDetailCacheUtils, "initCache");
+
+        // 验签结果为空：到期回调不加入黑名单，只验证会话和用户详情的释放
+        jwtCacheUtils = new JwtCacheUtils(mock(JwtUtils.class), factory, userDetailCacheUtils);
+        ReflectionTestUtils.setField(jwtCacheUtils, "expirationSeconds", 3600L);
+        ReflectionTestUtils.setField(jwtCacheUtils, "smartRenewalEnabled", true);
+        ReflectionTestUtils.setField(jwtCacheUtils, "activityCycleSeconds", 1);
+        ReflectionTestUtils.setField(jwtCacheUtils, "activityRenewalThreshold", 20);
+        ReflectionTestUtils.invokeMethod(jwtCacheUtils, "initCaches");
+    }
+
+    @Test
+    void idleSessionIsEvictedAtEndOfActivityCycle() throws InterruptedException {
+        long now = System.currentTimeMillis();
+        jwtCacheUtils.putJwt(USER_ID, session(now, now + 3_600_000));
+        userDetailCacheUtils.putUserDetail(USER_ID, new UserDetailCache());
+
+        // 普通请求只记录活动时间戳，不延长到期时间
+        assertTrue(jwtCacheUtils.evaluate(USER_ID, TOKEN, IP, now + 100).isValid());
+        assertNotNull(userDetailCacheUtils.getUserDetail(USER_ID));
+
+        awaitUserDetailReleased();
+        assertNull(jwtCacheUtils.getJwt(USER_ID));
+    }
+
+    @Test
+    void sessionIsEvictedAtTokenExpiration() throws InterruptedException {
+        long now = System.currentTimeMillis();
+        // Token先于活跃度周期过期
+        jwtCacheUtils.putJwt(USER_ID, session(now, now + 300));
+        userDetailCacheUtils.putUserDetail(USER_ID, new UserDetailCache());
+        assertNotNull(jwtCacheUtils.getJwt(USER_ID));
+
+        awaitUserDetailReleased();
+        assertNull(jwtCacheUtils.getJwt(USER_ID));
+    }
+
+    @Test
+    void removedSessionKeepsUserDetail() throws InterruptedException {
+        long now = System.currentTimeMillis();
+        jwtCacheUtils.putJwt(USER_ID, session(now, now + 300));
+        userDetailCacheUtils.putUserDetail(USER_ID, new UserDetailCache());
+
+        // 主动移除（如退出登录）不是到期，不触发到期回调
+        jwtCacheUtils.removeJwt(USER_ID);
+        Thread.sleep(1500);
+        assertNotNull(userDetailCacheUtils.getUserDetail(USER_ID));
+    }
+
+    /**
+     * 用户详情只由会话到期回调删除，删除即说明会话已被移除而不只是读取时不可见
+     */
+    private void awaitUserDetailReleased() throws InterruptedException {
+        long deadline = System.currentTimeMillis() + AWAIT_MILLIS;
+        while (userDetailCacheUtils.getUserDetail(USER_ID) != null) {
+            assertTrue(System.currentTimeMillis() < deadline, "用户详情未在会话到期后释放");
+            Thread.sleep(50);
+        }
+    }
+
+    private static JwtCache session(long now, long expirationTime) {
+        return JwtCache.builder()
+                .token(TOKEN)
+                .userId(USER_ID)
+                .loginIp(IP)
+                .createdTime(now)
+                .expirationTime(expirationTime)
+                .lastActivityTime(now)
+                .activityCycleStartTime(now)
+                .activityRenewalCount(0)
+                .build();
+    }
+}
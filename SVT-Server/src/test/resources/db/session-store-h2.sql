@@ -0,0 +1,25 @@
+-- 会话存储表(H2，MySQL兼容模式)，与 db/init/ddl.sql 中的定义保持一致
+DROP TABLE IF EXISTS session_store;
+CREATE TABLE session_store (
+    region VARCHAR(32) NOT NULL,
+    session_key VARCHAR(64) NOT NULL,
+    payload CLOB NOT NULL,
+    entry_version BIGINT NOT NULL,
+    expire_time BIGINT NOT NULL,
+    PRIMARY KEY (region, session_key)
+);
+
+CREATE INDEX idx_session_store_expire_time ON session_store (expire_time);
+
+DROP TABLE IF EXISTS session_store_change;
+CREATE TABLE session_store_change (
+    change_id BIGINT NOT NULL AUTO_INCREMENT,
+    region VARCHAR(32) NOT NULL,
+    session_key VARCHAR(64) NOT NULL,
+    entry_version BIGINT NOT NULL,
+    node_id VARCHAR(64) NOT NULL,
+    change_time BIGINT NOT NULL,
+    PRIMARY KEY (change_id)
+);
+
+CREATE INDEX idx_session_store_change_time ON session_store_change (change_time);
@@ -1,6 +1,6 @@
 /**
  * AES加密工具类
- * 支持AES-256-CBC加密算法
+ * 支持AES-256-CBC加密算法，信封附带HMAC-SHA256认证码（先加密后认证）
  * 用于API请求响应数据的加密解密
  * 
  * @author SEVENTEEN
@@ -18,6 +18,8 @@ export const CRYPTO_CONFIG = {
   mode: CryptoJS.mode.CBC,
   padding: CryptoJS.pad.Pkcs7,
   maxDataSize: 10 * 1024 * 1024, // 10MB
+  envelopeVersion: '1.0',
+  macKeyLabel: 'SVT-ENVELOPE-MAC', // 认证密钥派生标签，与服务端一致
 } as const;
 
 // 加密数据格式
@@ -27,6 +29,9 @@ export interface EncryptedData {
   iv: string;
   timestamp: number;
   version: string;
+  compressed?: string;
+  mode?: string;
+  mac?: string;
 }
 
 // 加密结果
@@ -104,6 +109,32 @@ export class AESCryptoUtils {
     }
   }
 
+  /**
+   * 获取信封认证密钥
+   * 由AES密钥派生：HMAC-SHA256(AES密钥, 派生标签)，与加密密钥分离
+   */
+  static async getMacKey(): Promise<CryptoJS.lib.WordArray> {
+    const key = await this.getKey();
+    return CryptoJS.HmacSHA256(CRYPTO_CONFIG.macKeyLabel, key);
+  }
+
+  /**
+   * 计算信封认证码
+   * HMAC-SHA256(版本|模式|时间戳|压缩 ‖ IV ‖ 密文)，时间戳和IV被篡改时认证失败
+   * @param timestamp 信封时间戳
+   * @param compressed 压缩标识，未压缩时为空
+   * @param ivString Base64编码的IV
+   * @param encryptedData Base64编码的密文
+   */
+  static async computeMac(timestamp: number, compressed: string, ivString: string, encryptedData: string): Promise<string> {
+    const macKey = await this.getMacKey();
+    const aad = `${CRYPTO_CONFIG.envelopeVersion}|CBC|${timestamp}|${compressed}`;
+    const message = CryptoJS.enc.Utf8.parse(aad)
+      .concat(CryptoJS.enc.Base64.parse(ivString))
+      .concat(CryptoJS.enc.Base64.parse(encryptedData));
+    return CryptoJS.enc.Base64.stringify(CryptoJS.HmacSHA256(message, macKey));
+  }
+
   /**
    * AES加密
    * @param plainText 明文
@@ -209,13 +240,15 @@ export class AESCryptoUtils {
     try {
       const plainText = JSON.stringify(data);
       const { encryptedData, iv } = await this.encryptWithIV(plainText);
+      const timestamp = Date.now();
 
       return {
         encrypted: true,
         data: encryptedData,
         iv: iv,
-        timestamp: Date.now(),
-        version: '1.0'
+        timestamp,
+        version: CRYPTO_CONFIG.envelopeVersion,
+        mac: await this.computeMac(timestamp, '', iv, encryptedData)
       };
 
     } catch (error) {
@@ -240,6 +273,17 @@ export class AESCryptoUtils {
         console.warn('响应时间戳异常，可能存在重放攻击');
       }
 
+      // 先校验认证码再解密
+      if (encryptedResponse.mac) {
+        const expectedMac = await this.computeMac(encryptedResponse.timestamp, encryptedResponse.compressed ?? '',
+          encryptedResponse.iv, encryptedResponse.data);
+        if (expectedMac !== encryptedResponse.mac) {
+          throw new Error('响应数据认证失败');
+        }
+      } else {
+        console.warn('响应数据缺少认证码');
+      }
+
       const decryptedText = await this.decrypt(encryptedResponse.data, encryptedResponse.iv);
       const result = JSON.parse(decryptedText);
       return result;